@@ -0,0 +1,24 @@
+package com.example.pawtopia.pawtopia.ecommerce.Config;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+
+import java.util.Collection;
+
+// Principal put in the SecurityContext by JwtFilter, same type whether it was
+// built from the token claims or loaded from the database
+public class AuthenticatedUser extends User {
+
+    // null for admins and for tokens issued before the userId claim was added
+    private final Long userId;
+
+    public AuthenticatedUser(String username, String password, Long userId,
+                             Collection<? extends GrantedAuthority> authorities) {
+        super(username, password, authorities);
+        this.userId = userId;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+}
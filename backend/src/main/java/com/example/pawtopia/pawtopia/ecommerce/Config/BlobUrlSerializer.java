@@ -0,0 +1,41 @@
+package com.example.pawtopia.pawtopia.ecommerce.Config;
+
+import com.example.pawtopia.pawtopia.ecommerce.Service.ProductImageService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.io.IOException;
+
+// Writes a stored "blob:<sha256>" image reference as a URL clients can put in an <img>.
+// Absolute so the web app on another origin can load it; blob.public-base-url overrides
+// the host when the backend sits behind a proxy. Other values are written unchanged.
+public class BlobUrlSerializer extends JsonSerializer<String> {
+
+    // injected by Spring's HandlerInstantiator, empty when created outside Spring
+    @Value("${blob.public-base-url:}")
+    private String publicBaseUrl;
+
+    @Override
+    public void serialize(String value, JsonGenerator gen, SerializerProvider serializers) throws IOException {
+        String key = ProductImageService.keyOf(value);
+        if (key == null) {
+            gen.writeString(value);
+            return;
+        }
+        gen.writeString(baseUrl() + "/api/blob/" + key);
+    }
+
+    private String baseUrl() {
+        if (publicBaseUrl != null && !publicBaseUrl.isBlank()) {
+            return publicBaseUrl;
+        }
+        if (RequestContextHolder.getRequestAttributes() != null) {
+            return ServletUriComponentsBuilder.fromCurrentContextPath().toUriString();
+        }
+        return "";
+    }
+}
@@ -1,15 +1,20 @@
 package com.example.pawtopia.pawtopia.ecommerce.Config;
 
+import com.example.pawtopia.pawtopia.ecommerce.Service.AuthType;
 import com.example.pawtopia.pawtopia.ecommerce.Service.CustomerUserDetailsService;
 import com.example.pawtopia.pawtopia.ecommerce.Service.JwtService;
+import com.example.pawtopia.pawtopia.ecommerce.Service.TokenRevocationService;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.context.ApplicationContext;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpRequest;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
@@ -19,6 +24,7 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.Collections;
 
 @Component
 public class JwtFilter extends OncePerRequestFilter {
@@ -29,9 +35,16 @@ public class JwtFilter extends OncePerRequestFilter {
     @Autowired
     private CustomerUserDetailsService customerUserDetailsService;
 
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+
     @Autowired
     ApplicationContext applicationContext;
 
+    // true: principal comes straight from the verified claims, no user lookup per request
+    @Value("${jwt.stateless-auth:true}")
+    private boolean statelessAuth;
+
 
 //    @Override
 //    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
@@ -72,27 +85,26 @@ public class JwtFilter extends OncePerRequestFilter {
 @Override
 protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
     String authHeader = request.getHeader("Authorization");
-    String token = null;
+    Claims claims = null;
     String username = null;
 
     if(authHeader != null && authHeader.startsWith("Bearer ")){
-        token = authHeader.substring(7);
-        username = jwtService.extractUserName(token);
-
-        // Extract role from token
-        String role = jwtService.extractRole(token);
+        // single parse + signature check, everything below reads from these claims
+        claims = jwtService.verifyToken(authHeader.substring(7));
+        username = claims.getSubject();
+    }
 
-        // Set auth type based on role in token, not just URL path
-        if (role != null && role.equals("ROLE_ADMIN")) {
-            customerUserDetailsService.setAuthType("ADMIN");
-        } else {
-            customerUserDetailsService.setAuthType("CUSTOMER");
-        }
+    if(username != null && tokenRevocationService.isRevoked(claims)){
+        username = null;
     }
 
     if(username != null && SecurityContextHolder.getContext().getAuthentication() == null){
-        UserDetails userDetails = customerUserDetailsService.loadUserByUsername(username);
-        if(jwtService.validateToken(token, userDetails)){
+        String role = claims.get("role", String.class);
+        // auth type comes from the role in the token, passed explicitly to the lookup
+        UserDetails userDetails = statelessAuth && role != null
+                ? principalFromClaims(claims)
+                : customerUserDetailsService.loadUserByUsername(username, AuthType.fromRole(role));
+        if(jwtService.validateToken(claims, userDetails)){
             UsernamePasswordAuthenticationToken usernamePasswordAuthenticationToken =
                     new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
             usernamePasswordAuthenticationToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
@@ -102,4 +114,14 @@ protected void doFilterInternal(HttpServletRequest request, HttpServletResponse
 
     filterChain.doFilter(request, response);
 }
+
+private UserDetails principalFromClaims(Claims claims) {
+    Number userId = claims.get("userId", Number.class);
+    return new AuthenticatedUser(
+            claims.getSubject(),
+            "",
+            userId != null ? userId.longValue() : null,
+            Collections.singletonList(new SimpleGrantedAuthority(claims.get("role", String.class)))
+    );
+}
 }
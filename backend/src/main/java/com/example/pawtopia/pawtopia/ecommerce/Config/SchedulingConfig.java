@@ -0,0 +1,11 @@
+package com.example.pawtopia.pawtopia.ecommerce.Config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+// @Scheduled background jobs (outbox dispatcher). They run on Spring Boot's task
+// scheduler, on virtual threads when spring.threads.virtual.enabled is set.
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -0,0 +1,232 @@
+package com.example.pawtopia.pawtopia.ecommerce.Config;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import com.example.pawtopia.pawtopia.ecommerce.Entity.OrderStatus;
+import com.example.pawtopia.pawtopia.ecommerce.Entity.PaymentStatus;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+// Data fixes that ddl-auto=update can't do on its own. Runs after Hibernate has updated
+// the schema (depends on the EntityManagerFactory) and before the web server accepts
+// requests; every step is safe to run again on each startup.
+@Component
+public class SchemaMigrations {
+
+    private static final Logger logger = LoggerFactory.getLogger(SchemaMigrations.class);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String analyticsZone;
+
+    public SchemaMigrations(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory,
+                            @Value("${analytics.zone:Asia/Manila}") String analyticsZone) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.analyticsZone = analyticsZone;
+    }
+
+    @PostConstruct
+    public void migrate() {
+        alignSequence("order_item_seq", "order_item", "order_itemid", 50);
+        convertOrderItemProductId();
+        addUniqueReviewConstraint();
+        backfillRatingSummaries();
+        backfillPlacedAt();
+        backfillOrderVersions();
+        if (normalizeOrderStatuses()) {
+            // rollup rows were keyed by the old values, rebuild them below
+            jdbcTemplate.execute("TRUNCATE sales_daily, product_sales_daily");
+        }
+        backfillSalesRollups();
+        backfillCartItemLastUpdated();
+    }
+
+    // order_item.product_id used to be varchar. Convert it to integer (values that aren't
+    // numbers become NULL), clear ids of products that no longer exist, then add the FK
+    // Hibernate couldn't create while the types differed.
+    private void convertOrderItemProductId() {
+        String type = jdbcTemplate.queryForObject(
+                "SELECT data_type FROM information_schema.columns " +
+                "WHERE table_schema = current_schema() AND table_name = 'order_item' AND column_name = 'product_id'",
+                String.class);
+        if ("character varying".equals(type) || "text".equals(type)) {
+            int invalid = jdbcTemplate.update(
+                    "UPDATE order_item SET product_id = NULL WHERE product_id !~ '^[0-9]{1,9}$'");
+            jdbcTemplate.execute(
+                    "ALTER TABLE order_item ALTER COLUMN product_id TYPE integer USING product_id::integer");
+            logger.info("Converted order_item.product_id to integer ({} non-numeric values cleared)", invalid);
+        }
+
+        Integer constraints = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM pg_constraint WHERE conrelid = 'order_item'::regclass AND contype = 'f' " +
+                "AND conkey = ARRAY[(SELECT attnum FROM pg_attribute " +
+                "WHERE attrelid = 'order_item'::regclass AND attname = 'product_id')]",
+                Integer.class);
+        if (constraints == 0) {
+            int dangling = jdbcTemplate.update(
+                    "UPDATE order_item oi SET product_id = NULL WHERE product_id IS NOT NULL " +
+                    "AND NOT EXISTS (SELECT 1 FROM tblproduct p WHERE p.productid = oi.product_id)");
+            jdbcTemplate.execute(
+                    "ALTER TABLE order_item ADD CONSTRAINT fk_order_item_product FOREIGN KEY (product_id) " +
+                    "REFERENCES tblproduct (productid) ON DELETE SET NULL");
+            logger.info("Added fk_order_item_product ({} ids of deleted products cleared)", dangling);
+        }
+    }
+
+    // Rows inserted while the table still used an identity column are above the new
+    // sequence's start; move the sequence past them so pooled ids can't collide.
+    // A fresh sequence is moved too: Hibernate treats a first value of 1 as a block that
+    // runs up to the next value it fetches, which would overlap blocks CheckoutRepo
+    // takes for itself (every other value V stands for V - allocationSize + 1 .. V).
+    private void alignSequence(String sequence, String table, String idColumn, int allocationSize) {
+        long maxId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(" + idColumn + "), 0) FROM " + table, Long.class);
+        long current = jdbcTemplate.queryForObject("SELECT last_value FROM " + sequence, Long.class);
+        if (current < maxId + allocationSize) {
+            jdbcTemplate.queryForObject("SELECT setval('" + sequence + "', ?)", Long.class, maxId + allocationSize);
+            logger.info("Moved {} to {} past existing {} ids", sequence, maxId + allocationSize, table);
+        }
+    }
+
+    // Hibernate can't add uk_review_product_user_order while duplicate reviews exist;
+    // keep the first review of each (product, user, order) and add it here. The later
+    // ones are moved to reviews_duplicate_archive rather than dropped, so they can be
+    // looked at (or put back by hand) after the upgrade.
+    private void addUniqueReviewConstraint() {
+        Integer existing = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM pg_constraint WHERE conname = 'uk_review_product_user_order'", Integer.class);
+        if (existing > 0) {
+            return;
+        }
+        Boolean duplicates = jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM reviews r JOIN reviews d ON r.productid = d.productid " +
+                "AND r.userid = d.userid AND r.orderid = d.orderid AND r.reviewid > d.reviewid)", Boolean.class);
+        if (duplicates) {
+            jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS reviews_duplicate_archive " +
+                    "(LIKE reviews, archived_at timestamp with time zone NOT NULL DEFAULT now())");
+            int archived = jdbcTemplate.update(
+                    "WITH removed AS (DELETE FROM reviews r USING reviews d WHERE r.productid = d.productid " +
+                    "AND r.userid = d.userid AND r.orderid = d.orderid AND r.reviewid > d.reviewid RETURNING r.*) " +
+                    "INSERT INTO reviews_duplicate_archive SELECT removed.*, now() FROM removed");
+            logger.warn("Moved {} duplicate reviews to reviews_duplicate_archive", archived);
+        }
+        jdbcTemplate.execute(
+                "ALTER TABLE reviews ADD CONSTRAINT uk_review_product_user_order UNIQUE (productid, userid, orderid)");
+        logger.info("Added uk_review_product_user_order");
+    }
+
+    // Builds product_rating_summary from the existing reviews the first time. Once it has
+    // rows it is maintained by RatingSummaryService (a product whose last review was
+    // deleted keeps a zero row), so later startups skip the GROUP BY over reviews.
+    private void backfillRatingSummaries() {
+        Boolean empty = jdbcTemplate.queryForObject(
+                "SELECT NOT EXISTS (SELECT 1 FROM product_rating_summary)", Boolean.class);
+        if (!empty) {
+            return;
+        }
+        int products = jdbcTemplate.update(
+                "INSERT INTO product_rating_summary " +
+                "(product_id, review_count, rating_sum, star1, star2, star3, star4, star5) " +
+                "SELECT productid, COUNT(*), SUM(ratings), " +
+                "COUNT(*) FILTER (WHERE ratings = 1), COUNT(*) FILTER (WHERE ratings = 2), " +
+                "COUNT(*) FILTER (WHERE ratings = 3), COUNT(*) FILTER (WHERE ratings = 4), " +
+                "COUNT(*) FILTER (WHERE ratings = 5) " +
+                "FROM reviews GROUP BY productid " +
+                "ON CONFLICT (product_id) DO NOTHING");
+        if (products > 0) {
+            logger.info("Created rating summaries for {} products", products);
+        }
+    }
+
+    // Orders placed before placed_at existed: parse the client's orderDate ("October 18,
+    // 2025" from the web app, "2025-10-18" from the mobile app) as midnight in the
+    // analytics zone. Anything else is dated now so it still lands in the rollups.
+    private void backfillPlacedAt() {
+        int dated = jdbcTemplate.update(
+                "UPDATE orders SET placed_at = CASE " +
+                "WHEN order_date ~ '^[0-9]{4}-(0[1-9]|1[0-2])-(0[1-9]|[12][0-9]|3[01])' " +
+                "THEN to_date(left(order_date, 10), 'YYYY-MM-DD')::timestamp AT TIME ZONE ? " +
+                "WHEN order_date ~ '^(January|February|March|April|May|June|July|August|September|October|November|December) [0-9]{1,2}, [0-9]{4}$' " +
+                "THEN to_date(order_date, 'FMMonth FMDD, YYYY')::timestamp AT TIME ZONE ? " +
+                "ELSE now() END " +
+                "WHERE placed_at IS NULL",
+                analyticsZone, analyticsZone);
+        if (dated > 0) {
+            logger.info("Set placed_at of {} existing orders", dated);
+        }
+    }
+
+    // Builds the sales rollups from the existing orders the first time. Once they have
+    // rows they are maintained by SalesAnalyticsService. Revenue is rounded per order
+    // (and per order and product) the same way the incremental updates do it.
+    private void backfillSalesRollups() {
+        Boolean empty = jdbcTemplate.queryForObject("SELECT NOT EXISTS (SELECT 1 FROM sales_daily)", Boolean.class);
+        if (!empty) {
+            return;
+        }
+        int days = jdbcTemplate.update(
+                "INSERT INTO sales_daily (day, order_status, order_count, units_sold, revenue) " +
+                "SELECT (o.placed_at AT TIME ZONE ?)::date, COALESCE(o.order_status, 'PENDING'), COUNT(*), " +
+                "COALESCE(SUM(i.units), 0), SUM(COALESCE(ROUND(o.total_price::numeric, 2), 0)) " +
+                "FROM orders o LEFT JOIN (SELECT order_id, SUM(quantity) AS units FROM order_item GROUP BY order_id) i " +
+                "ON i.order_id = o.order_id " +
+                "GROUP BY 1, 2",
+                analyticsZone);
+        int productDays = jdbcTemplate.update(
+                "INSERT INTO product_sales_daily (day, product_id, order_status, order_count, units_sold, revenue) " +
+                "SELECT (o.placed_at AT TIME ZONE ?)::date, i.product_id, COALESCE(o.order_status, 'PENDING'), " +
+                "COUNT(*), SUM(i.units), SUM(i.revenue) " +
+                "FROM orders o JOIN (SELECT order_id, product_id, SUM(quantity) AS units, " +
+                "CAST(SUM(price * quantity) AS numeric(14, 2)) AS revenue " +
+                "FROM order_item WHERE product_id IS NOT NULL GROUP BY order_id, product_id) i " +
+                "ON i.order_id = o.order_id " +
+                "GROUP BY 1, 2, 3",
+                analyticsZone);
+        if (days > 0) {
+            logger.info("Built sales rollups ({} day rows, {} product day rows)", days, productDays);
+        }
+    }
+
+    // @Version column added to a table with rows: Hibernate leaves it NULL
+    private void backfillOrderVersions() {
+        int orders = jdbcTemplate.update("UPDATE orders SET version = 0 WHERE version IS NULL");
+        if (orders > 0) {
+            logger.info("Initialised version of {} orders", orders);
+        }
+    }
+
+    // Statuses used to be free text. Map them onto the enums (case/whitespace fixed,
+    // anything unknown becomes PENDING) so every row can be loaded. True if any changed.
+    private boolean normalizeOrderStatuses() {
+        int orders = normalize("order_status", enumList(OrderStatus.values()));
+        int payments = normalize("payment_status", enumList(PaymentStatus.values()));
+        if (orders + payments > 0) {
+            logger.info("Normalised order_status of {} and payment_status of {} orders", orders, payments);
+        }
+        return orders > 0;
+    }
+
+    private int normalize(String column, String allowed) {
+        return jdbcTemplate.update(
+                "UPDATE orders SET " + column + " = CASE WHEN upper(trim(" + column + ")) IN (" + allowed + ") " +
+                "THEN upper(trim(" + column + ")) ELSE 'PENDING' END " +
+                "WHERE " + column + " IS NULL OR " + column + " NOT IN (" + allowed + ")");
+    }
+
+    private static String enumList(Enum<?>[] values) {
+        return Arrays.stream(values).map(value -> "'" + value.name() + "'").collect(Collectors.joining(", "));
+    }
+
+    // rows from before lastUpdated was set on insert; CartSweeper counts their idle time
+    // from now instead of treating them as never touched
+    private void backfillCartItemLastUpdated() {
+        int updated = jdbcTemplate.update("UPDATE cart_item SET last_updated = LOCALTIMESTAMP WHERE last_updated IS NULL");
+        if (updated > 0) {
+            logger.info("Set last_updated of {} cart items", updated);
+        }
+    }
+}
@@ -1,9 +1,8 @@
 package com.example.pawtopia.pawtopia.ecommerce.Config;
 
 import com.example.pawtopia.pawtopia.ecommerce.Service.UserService;
-import jakarta.annotation.PostConstruct;
+import jakarta.servlet.DispatcherType;
 import jakarta.servlet.http.HttpServletResponse;
-import kong.unirest.Unirest;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
@@ -52,6 +51,9 @@ public class SecConfig {
                 .csrf(csrf -> csrf.disable())
                 .authorizeHttpRequests(auth -> auth
                         .requestMatchers(HttpMethod.OPTIONS, "/**").permitAll()
+                        // async results (CompletableFuture, streaming bodies) come back on an ASYNC
+                        // dispatch, the original request was already authorized
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                         .requestMatchers(
                                 "/",
                                 "/users/signup",
@@ -59,6 +61,9 @@ public class SecConfig {
                                 "/admin/login",
                                 "/api/product/getProduct",
                                 "/api/product/getProduct/{id}",
+                                "/api/product/catalog",
+                                "/api/product/top-sellers",
+                                "/api/blob/**",
                                 "/api/review/**",
                                 "/oauth-success",
                                 "/oauth2/authorization/google",
@@ -76,6 +81,7 @@ public class SecConfig {
                                 "/api/cartItem/**",
                                 "/api/cart/**",
                                 "/api/order/postOrderRecord",
+                                "/api/order/checkout",
                                 "/api/order/test",
                                 "/api/order/getOrderDetails/{orderID}",
                                 "/api/order/putOrderDetails",
@@ -101,11 +107,13 @@ public class SecConfig {
                                 "/api/product/deleteProduct/{id}",
                                 "/api/product/getTotalQuantitySold",
                                 "/api/order/getAllOrders",
+                                "/api/order/export",
                                 "/api/order/getOrderDetails/{orderID}",
                                 "/api/order/get-total-income",
                                 "/api/orderItem/getAllOrdersItem",
                                 "/api/orderItem/putOrderItemDetails",
-                                "/api/orderItem/deleteOrderItemDetails/{id}"
+                                "/api/orderItem/deleteOrderItemDetails/{id}",
+                                "/api/analytics/**"
 
                         ).hasRole("ADMIN")
                         .anyRequest().authenticated()
@@ -130,7 +138,7 @@ public class SecConfig {
         configuration.setAllowedOrigins(Arrays.asList("https://it-342-pawtopia-snct.vercel.app"));
 //        configuration.setAllowedOrigins(Arrays.asList("http://localhost:5173"));
         configuration.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "DELETE", "OPTIONS"));
-        configuration.setAllowedHeaders(Arrays.asList("Authorization", "Content-Type"));
+        configuration.setAllowedHeaders(Arrays.asList("Authorization", "Content-Type", "Idempotency-Key"));
         configuration.setExposedHeaders(Arrays.asList("Authorization"));
         configuration.setAllowCredentials(true);
 
@@ -159,13 +167,5 @@ public class SecConfig {
     public PasswordEncoder passwordEncoder() {
         return new BCryptPasswordEncoder();
     }
-
-    @PostConstruct
-    public void initUnirest() {
-        Unirest.config()
-                .connectTimeout(5000)
-                .socketTimeout(5000)
-                .defaultBaseUrl("https://api.paymongo.com");
-    }
 }
 
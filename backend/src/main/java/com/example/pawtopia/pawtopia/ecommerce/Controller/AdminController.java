@@ -4,20 +4,24 @@ import com.example.pawtopia.pawtopia.ecommerce.Entity.Admin;
 import com.example.pawtopia.pawtopia.ecommerce.Entity.User;
 import com.example.pawtopia.pawtopia.ecommerce.Repository.UserRepo;
 import com.example.pawtopia.pawtopia.ecommerce.Service.AdminService;
-import com.example.pawtopia.pawtopia.ecommerce.Service.CustomerUserDetailsService;
+import com.example.pawtopia.pawtopia.ecommerce.Service.CartPricingService;
+import com.example.pawtopia.pawtopia.ecommerce.Service.CartSweeper;
+import com.example.pawtopia.pawtopia.ecommerce.Service.ImageVariantService;
 import com.example.pawtopia.pawtopia.ecommerce.Service.JwtService;
+import com.example.pawtopia.pawtopia.ecommerce.Service.OutboxDispatcher;
+import com.example.pawtopia.pawtopia.ecommerce.Service.ProductImageService;
+import com.example.pawtopia.pawtopia.ecommerce.Service.UserDetailsCache;
 import com.example.pawtopia.pawtopia.ecommerce.Service.UserService;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.authentication.AuthenticationManager;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @RestController
@@ -28,13 +32,26 @@ public class AdminController {
     private final UserService userService;
     private final UserRepo userRepo;
 
-    @Autowired
-    private final CustomerUserDetailsService userDetailsService;
     @Autowired
     private JwtService jwtService;
 
     @Autowired
-    AuthenticationManager authenticationManager;
+    private UserDetailsCache userDetailsCache;
+
+    @Autowired
+    private ImageVariantService imageVariantService;
+
+    @Autowired
+    private OutboxDispatcher outboxDispatcher;
+
+    @Autowired
+    private ProductImageService productImageService;
+
+    @Autowired
+    private CartPricingService cartPricingService;
+
+    @Autowired
+    private CartSweeper cartSweeper;
 
     @GetMapping("/all")
     // @PreAuthorize("hasRole('ADMIN')") // Remove or comment for testing
@@ -51,24 +68,60 @@ public class AdminController {
 
     @PostMapping("/login")
     public ResponseEntity<String> login(@RequestBody Admin admin) {
+        Authentication authentication = adminService.authenticate(admin.getUsername(), admin.getPassword());
+
+        if (authentication.isAuthenticated()) {
+            return ResponseEntity.ok(jwtService.generateToken(admin.getUsername()));
+        }
+        return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Authentication failed");
+    }
+
+    //hit/miss/eviction counters of the user lookup cache
+    @GetMapping("/cache/user-details")
+    public ResponseEntity<Map<String, Object>> getUserDetailsCacheStats() {
+        return ResponseEntity.ok(userDetailsCache.getStats());
+    }
+
+    //hit/miss counters of the memoized cart prices
+    @GetMapping("/cache/cart-pricing")
+    public ResponseEntity<Map<String, Object>> getCartPricingCacheStats() {
+        return ResponseEntity.ok(cartPricingService.getStats());
+    }
+
+    //rows swept/compacted and run times of the abandoned-cart job
+    @GetMapping("/cart-sweeper")
+    public ResponseEntity<Map<String, Object>> getCartSweeperStats() {
+        return ResponseEntity.ok(cartSweeper.getStats());
+    }
+
+    //runs the abandoned-cart job now instead of waiting for the schedule
+    @PostMapping("/cart-sweeper/run")
+    public ResponseEntity<Map<String, Long>> runCartSweeper() {
+        return ResponseEntity.ok(cartSweeper.run());
+    }
+
+    //queue depth and generated/rejected counts of the thumbnail pool
+    @GetMapping("/images/variants")
+    public ResponseEntity<Map<String, Object>> getImageVariantStats() {
+        return ResponseEntity.ok(imageVariantService.getStats());
+    }
+
+    //moves images still stored inline as data: URLs into the blob store (one-off, needs
+    //blob.store.persistent=true); answers with the rows moved and skipped
+    @PostMapping("/images/migrate")
+    public ResponseEntity<?> migrateInlineImages() {
         try {
-            // Set auth type before authentication
-            ((CustomerUserDetailsService) userDetailsService).setAuthType("ADMIN");
-
-            Authentication authentication = authenticationManager.authenticate(
-                    new UsernamePasswordAuthenticationToken(admin.getUsername(), admin.getPassword())
-            );
-
-            if (authentication.isAuthenticated()) {
-                return ResponseEntity.ok(jwtService.generateToken(admin.getUsername()));
-            }
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Authentication failed");
-        } finally {
-            // Clear auth type after authentication
-            ((CustomerUserDetailsService) userDetailsService).setAuthType(null);
+            return ResponseEntity.ok(productImageService.migrateInlineImages());
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("message", e.getMessage()));
         }
     }
 
+    //backlog and given-up events of the outbox
+    @GetMapping("/outbox")
+    public ResponseEntity<Map<String, Object>> getOutboxStats() {
+        return ResponseEntity.ok(outboxDispatcher.getStats());
+    }
 
     @PutMapping("/update/{userId}")
     public ResponseEntity<String> updateUser(@PathVariable Long userId, @RequestBody User updatedUser) {
@@ -0,0 +1,79 @@
+package com.example.pawtopia.pawtopia.ecommerce.Controller;
+
+import com.example.pawtopia.pawtopia.ecommerce.DTO.ProductSales;
+import com.example.pawtopia.pawtopia.ecommerce.DTO.SalesTotals;
+import com.example.pawtopia.pawtopia.ecommerce.Entity.SalesDaily;
+import com.example.pawtopia.pawtopia.ecommerce.Service.SalesAnalyticsService;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+// Admin dashboard figures read from the sales rollups. from/to are inclusive ISO dates
+// (yyyy-MM-dd) in the shop's time zone and default to the last 30 days.
+@RestController
+@RequestMapping("/api/analytics")
+public class AnalyticsController {
+
+    private final SalesAnalyticsService salesAnalyticsService;
+
+    public AnalyticsController(SalesAnalyticsService salesAnalyticsService) {
+        this.salesAnalyticsService = salesAnalyticsService;
+    }
+
+    //orders, units and revenue per day and status
+    @GetMapping("/sales/daily")
+    public ResponseEntity<List<SalesDaily>> getDailySales(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        LocalDate end = to != null ? to : salesAnalyticsService.today();
+        LocalDate start = from != null ? from : end.minusDays(29);
+        if (start.isAfter(end)) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(salesAnalyticsService.getDailySales(start, end));
+    }
+
+    //the same summed per status over the whole range
+    @GetMapping("/sales/totals")
+    public ResponseEntity<List<SalesTotals>> getTotals(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        LocalDate end = to != null ? to : salesAnalyticsService.today();
+        LocalDate start = from != null ? from : end.minusDays(29);
+        if (start.isAfter(end)) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(salesAnalyticsService.getTotals(start, end));
+    }
+
+    //products by revenue of paid orders
+    @GetMapping("/products/top")
+    public ResponseEntity<List<ProductSales>> getTopProducts(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "10") int limit) {
+        LocalDate end = to != null ? to : salesAnalyticsService.today();
+        LocalDate start = from != null ? from : end.minusDays(29);
+        if (start.isAfter(end)) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(salesAnalyticsService.getTopProducts(start, end, Math.max(1, Math.min(limit, 50))));
+    }
+
+    //one product's orders, units and revenue per status
+    @GetMapping("/products/{productId}")
+    public ResponseEntity<List<SalesTotals>> getProductTotals(
+            @PathVariable int productId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        LocalDate end = to != null ? to : salesAnalyticsService.today();
+        LocalDate start = from != null ? from : end.minusDays(29);
+        if (start.isAfter(end)) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(salesAnalyticsService.getProductTotals(productId, start, end));
+    }
+}
@@ -0,0 +1,165 @@
+package com.example.pawtopia.pawtopia.ecommerce.Controller;
+
+import com.example.pawtopia.pawtopia.ecommerce.Service.BlobStore;
+import com.example.pawtopia.pawtopia.ecommerce.Service.ImageVariantService;
+import com.example.pawtopia.pawtopia.ecommerce.Service.ProductImageService;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.util.Optional;
+
+// Serves stored images by content hash. The bytes behind a key never change, so responses
+// are cacheable forever and the hash doubles as a strong ETag. Supports a single byte range.
+// ?w=<width> serves the closest resized variant, or the original until it has been made.
+@RestController
+@RequestMapping("/api/blob")
+public class BlobController {
+
+    private static final String CACHE_FOREVER = "public, max-age=31536000, immutable";
+    // original sent in place of a variant that is still being made
+    private static final String CACHE_FALLBACK = "public, max-age=60";
+
+    @Autowired
+    private BlobStore blobStore;
+
+    @Autowired
+    private ImageVariantService imageVariantService;
+
+    @GetMapping("/{key}")
+    public void getBlob(@PathVariable String key,
+                        @RequestParam(value = "w", required = false) Integer width,
+                        @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+                        @RequestHeader(value = HttpHeaders.RANGE, required = false) String range,
+                        HttpServletResponse response) throws IOException {
+        if (!blobStore.exists(key) || key.contains("_")) {
+            response.setStatus(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+
+        String servedKey = key;
+        String cacheControl = CACHE_FOREVER;
+        Integer variantWidth = width != null && width > 0 ? imageVariantService.variantWidthFor(width) : null;
+        if (variantWidth != null) {
+            String variant = ImageVariantService.variantKey(key, variantWidth);
+            if (blobStore.exists(variant)) {
+                servedKey = variant;
+            } else if (!imageVariantService.isProcessed(key)) {
+                imageVariantService.requestVariants(ProductImageService.BLOB_REF_PREFIX + key);
+                cacheControl = CACHE_FALLBACK;
+            }
+        }
+
+        Optional<BlobStore.Blob> found = blobStore.open(servedKey);
+        if (found.isEmpty()) {
+            response.setStatus(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+
+        try (BlobStore.Blob blob = found.get()) {
+            String etag = "\"" + servedKey + "\"";
+            response.setHeader(HttpHeaders.ETAG, etag);
+            response.setHeader(HttpHeaders.CACHE_CONTROL, cacheControl);
+            response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+            if (ifNoneMatch != null && (ifNoneMatch.contains(etag) || ifNoneMatch.trim().equals("*"))) {
+                response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+                return;
+            }
+
+            long size = blob.size();
+            long start = 0;
+            long end = size - 1;
+            if (range != null) {
+                long[] bounds = parseRange(range, size);
+                if (bounds == null) {
+                    response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                    response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + size);
+                    return;
+                }
+                start = bounds[0];
+                end = bounds[1];
+                response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + size);
+            }
+
+            long length = end - start + 1;
+            response.setContentType(contentType(blob.head(12)));
+            response.setContentLengthLong(length);
+            // an ordinary buffered copy through the servlet stream, not sendfile; the response is
+            // small and cached by clients and proxies for a year, so it is rarely sent twice
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            blob.transferTo(start, length, out);
+        }
+    }
+
+    // "bytes=a-b", "bytes=a-" or "bytes=-n"; null when unsatisfiable or not a single range
+    static long[] parseRange(String header, long size) {
+        if (!header.startsWith("bytes=") || header.contains(",") || size == 0) {
+            return null;
+        }
+        String spec = header.substring("bytes=".length()).trim();
+        int dash = spec.indexOf('-');
+        if (dash < 0) {
+            return null;
+        }
+        try {
+            String first = spec.substring(0, dash).trim();
+            String last = spec.substring(dash + 1).trim();
+            long start;
+            long end;
+            if (first.isEmpty()) {
+                long suffix = Long.parseLong(last);
+                if (suffix <= 0) {
+                    return null;
+                }
+                start = Math.max(0, size - suffix);
+                end = size - 1;
+            } else {
+                start = Long.parseLong(first);
+                end = last.isEmpty() ? size - 1 : Math.min(Long.parseLong(last), size - 1);
+            }
+            return start <= end && start < size ? new long[]{start, end} : null;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    // images are stored as uploaded, the type is read from the magic bytes
+    private static String contentType(byte[] head) {
+        if (startsWith(head, 0x89, 'P', 'N', 'G')) {
+            return "image/png";
+        }
+        if (startsWith(head, 0xFF, 0xD8, 0xFF)) {
+            return "image/jpeg";
+        }
+        if (startsWith(head, 'G', 'I', 'F', '8')) {
+            return "image/gif";
+        }
+        if (head.length >= 12 && startsWith(head, 'R', 'I', 'F', 'F')
+                && head[8] == 'W' && head[9] == 'E' && head[10] == 'B' && head[11] == 'P') {
+            return "image/webp";
+        }
+        return "application/octet-stream";
+    }
+
+    private static boolean startsWith(byte[] head, int... prefix) {
+        if (head.length < prefix.length) {
+            return false;
+        }
+        for (int i = 0; i < prefix.length; i++) {
+            if ((head[i] & 0xFF) != prefix[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
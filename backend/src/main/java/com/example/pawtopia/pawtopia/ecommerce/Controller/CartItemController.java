@@ -1,11 +1,24 @@
 package com.example.pawtopia.pawtopia.ecommerce.Controller;
 
+import com.example.pawtopia.pawtopia.ecommerce.Config.AuthenticatedUser;
+import com.example.pawtopia.pawtopia.ecommerce.DTO.CartItemView;
+import com.example.pawtopia.pawtopia.ecommerce.DTO.CartOperation;
+import com.example.pawtopia.pawtopia.ecommerce.DTO.CartTotals;
 import com.example.pawtopia.pawtopia.ecommerce.Entity.CartItem;
+import com.example.pawtopia.pawtopia.ecommerce.Entity.User;
+import com.example.pawtopia.pawtopia.ecommerce.Repository.UserRepo;
+import com.example.pawtopia.pawtopia.ecommerce.Service.CartBatchService;
 import com.example.pawtopia.pawtopia.ecommerce.Service.CartItemService;
+import com.example.pawtopia.pawtopia.ecommerce.Service.CartPricingService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
 
 @RestController
 @RequestMapping(method = RequestMethod.GET, path="/api/cartItem")
@@ -14,6 +27,15 @@ public class CartItemController {
     @Autowired
     CartItemService cartItemServ;
 
+    @Autowired
+    CartPricingService cartPricingService;
+
+    @Autowired
+    CartBatchService cartBatchService;
+
+    @Autowired
+    UserRepo userRepo;
+
     @GetMapping("/test")
     public String test() {
         return "Test endpoint is working!";
@@ -25,12 +47,49 @@ public class CartItemController {
         return cartItemServ.postCartItem(cartItem);
     }
 
-    //Get all cart items
+    //Get all cart items of every customer (a customer's own items: /myCart)
     @GetMapping("/getAllCartItems")
     public List<CartItem> getAllCartItems(){
         return cartItemServ.getAllCartItems();
     }
 
+    //Cart items of the logged-in customer
+    @GetMapping("/myCart")
+    public ResponseEntity<List<CartItemView>> getMyCart(Authentication authentication) {
+        Long userId = currentUserId(authentication);
+        if (userId == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        return ResponseEntity.ok(cartItemServ.getCartItemsOf(userId));
+    }
+
+    //Line totals, subtotal, shipping and total of the logged-in customer's cart, priced on the server
+    @GetMapping("/myCart/totals")
+    public ResponseEntity<CartTotals> getMyCartTotals(Authentication authentication) {
+        Long userId = currentUserId(authentication);
+        if (userId == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        return ResponseEntity.ok(cartPricingService.priceCart(userId));
+    }
+
+    //Several adds/quantity changes/removals on the logged-in customer's cart in one transaction,
+    //answers with the new cart and its totals
+    @PostMapping("/myCart/batch")
+    public ResponseEntity<?> applyCartBatch(@RequestBody List<CartOperation> operations, Authentication authentication) {
+        Long userId = currentUserId(authentication);
+        if (userId == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        try {
+            return ResponseEntity.ok(cartBatchService.apply(userId, operations));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        } catch (NoSuchElementException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("message", e.getMessage()));
+        }
+    }
+
     //Update cart item
     @PutMapping("/updateCartItem/{cartItemId}")
     public CartItem updateCartItem(@PathVariable int cartItemId, @RequestBody CartItem newCartItemDetails) {
@@ -48,4 +107,16 @@ public class CartItemController {
     public String deleteCartItem(@PathVariable int cartItemId) {
         return cartItemServ.deleteCartItem(cartItemId);
     }
+
+    // the cart id is the user id
+    private Long currentUserId(Authentication authentication) {
+        if (authentication == null || !authentication.isAuthenticated()) {
+            return null;
+        }
+        if (authentication.getPrincipal() instanceof AuthenticatedUser user && user.getUserId() != null) {
+            return user.getUserId();
+        }
+        // tokens issued before the userId claim
+        return userRepo.findByUsername(authentication.getName()).map(User::getUserId).orElse(null);
+    }
 }
@@ -1,14 +1,31 @@
 package com.example.pawtopia.pawtopia.ecommerce.Controller;
 
+import com.example.pawtopia.pawtopia.ecommerce.Config.AuthenticatedUser;
+import com.example.pawtopia.pawtopia.ecommerce.DTO.CheckoutRequest;
 import com.example.pawtopia.pawtopia.ecommerce.Entity.Order;
+import com.example.pawtopia.pawtopia.ecommerce.Entity.OrderStatus;
+import com.example.pawtopia.pawtopia.ecommerce.Entity.User;
+import com.example.pawtopia.pawtopia.ecommerce.Exception.IllegalOrderTransitionException;
+import com.example.pawtopia.pawtopia.ecommerce.Exception.InsufficientStockException;
+import com.example.pawtopia.pawtopia.ecommerce.Repository.UserRepo;
+import com.example.pawtopia.pawtopia.ecommerce.Service.CheckoutService;
+import com.example.pawtopia.pawtopia.ecommerce.Service.OrderExportService;
 import com.example.pawtopia.pawtopia.ecommerce.Service.OrderService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
 
 @RestController
 @RequestMapping("/api/order")
@@ -17,13 +34,22 @@ public class OrderController {
     @Autowired
     private OrderService oserv;
 
+    @Autowired
+    private OrderExportService orderExportService;
+
+    @Autowired
+    private CheckoutService checkoutService;
+
+    @Autowired
+    private UserRepo userRepo;
+
     @GetMapping("/test")
     public void test() {
         System.out.println("Test for order");
     }
 
     @PostMapping("/postOrderRecord")
-    public ResponseEntity<Order> postOrderRecord(@RequestBody Order order) {
+    public ResponseEntity<?> postOrderRecord(@RequestBody Order order) {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         if (authentication == null || !authentication.isAuthenticated()) {
             return ResponseEntity.status(401).build();
@@ -32,8 +58,33 @@ public class OrderController {
         if (!order.getUser().getUsername().equals(username)) {
             return ResponseEntity.status(403).build();
         }
-        Order savedOrder = oserv.postOrderRecord(order);
-        return ResponseEntity.ok(savedOrder);
+        try {
+            Order savedOrder = oserv.postOrderRecord(order);
+            return ResponseEntity.ok(savedOrder);
+        } catch (InsufficientStockException e) {
+            return insufficientStock(e);
+        } catch (IllegalArgumentException | NoSuchElementException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        }
+    }
+
+    //Places an order from the logged-in customer's cart (or the named cart items) on the server,
+    //body is just {"paymentMethod": ..., "cartItemIds": [...]}
+    @PostMapping("/checkout")
+    public ResponseEntity<?> checkout(@RequestBody CheckoutRequest request, Authentication authentication) {
+        Long userId = currentUserId(authentication);
+        if (userId == null) {
+            return ResponseEntity.status(401).build();
+        }
+        try {
+            return ResponseEntity.ok(checkoutService.checkout(userId, request));
+        } catch (InsufficientStockException e) {
+            return insufficientStock(e);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        } catch (NoSuchElementException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("message", e.getMessage()));
+        }
     }
 
     @GetMapping("/getAllOrders")
@@ -41,6 +92,24 @@ public class OrderController {
         return oserv.getAllOrder();
     }
 
+    //all orders with their items, streamed (format = csv|ndjson)
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportOrders(@RequestParam(defaultValue = "csv") String format) {
+        OrderExportService.Format exportFormat;
+        try {
+            exportFormat = OrderExportService.Format.valueOf(format.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        String extension = exportFormat == OrderExportService.Format.CSV ? "csv" : "ndjson";
+        return ResponseEntity.ok()
+                .contentType(exportFormat == OrderExportService.Format.CSV
+                        ? new MediaType("text", "csv", StandardCharsets.UTF_8)
+                        : new MediaType("application", "x-ndjson", StandardCharsets.UTF_8))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"orders." + extension + "\"")
+                .body(out -> orderExportService.export(exportFormat, out));
+    }
+
     @GetMapping("/getOrderDetails/{orderID}")
     public ResponseEntity<Order> getOrderDetails(@PathVariable int orderID) {
         Order order = oserv.getOrderDetails(orderID);
@@ -57,18 +126,70 @@ public class OrderController {
         return oserv.getTotalIncome();
     }
 
+    //only the order's own customer; totalPrice and user in the body are ignored
     @PutMapping("/putOrderDetails")
-    public Order putOrderDetails(@RequestParam int id, @RequestBody Order newOrderDetails) {
-        return oserv.putOrderDetails(id, newOrderDetails);
+    public ResponseEntity<?> putOrderDetails(@RequestParam int id, @RequestBody Order newOrderDetails,
+                                             Authentication authentication) {
+        Order saved = oserv.findById(id);
+        if (saved == null || saved.getUser() == null || authentication == null
+                || !saved.getUser().getUsername().equals(authentication.getName())) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Order " + id + " not found");
+        }
+        try {
+            return ResponseEntity.ok(oserv.putOrderDetails(id, newOrderDetails));
+        } catch (NoSuchElementException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
+        } catch (IllegalOrderTransitionException e) {
+            return transitionConflict(e);
+        } catch (OptimisticLockingFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body("Order was changed concurrently, try again");
+        }
     }
 
+    //status = PENDING|APPROVED|SHIPPED|DELIVERED|DECLINED, must be reachable from the current one
     @PutMapping("/updateStatus/{id}")
-    public ResponseEntity<Order> updateOrderStatus(@PathVariable int id, @RequestParam String status) {
-        if (!status.equals("APPROVED") && !status.equals("DECLINED")) {
-            return ResponseEntity.badRequest().build();
+    public ResponseEntity<?> updateOrderStatus(@PathVariable int id, @RequestParam String status) {
+        OrderStatus target;
+        try {
+            target = OrderStatus.valueOf(status.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body("Unknown order status: " + status);
+        }
+        try {
+            return ResponseEntity.ok(oserv.updateOrderStatus(id, target));
+        } catch (NoSuchElementException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
+        } catch (IllegalOrderTransitionException e) {
+            return transitionConflict(e);
+        } catch (OptimisticLockingFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body("Order was changed concurrently, try again");
+        }
+    }
+
+    private ResponseEntity<?> insufficientStock(InsufficientStockException e) {
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of(
+                "message", e.getMessage(),
+                "productId", e.getProductId(),
+                "requested", e.getRequested(),
+                "available", e.getAvailable()));
+    }
+
+    private Long currentUserId(Authentication authentication) {
+        if (authentication == null || !authentication.isAuthenticated()) {
+            return null;
         }
-        Order updatedOrder = oserv.updateOrderStatus(id, status);
-        return ResponseEntity.ok(updatedOrder);
+        if (authentication.getPrincipal() instanceof AuthenticatedUser user && user.getUserId() != null) {
+            return user.getUserId();
+        }
+        // tokens issued before the userId claim
+        return userRepo.findByUsername(authentication.getName()).map(User::getUserId).orElse(null);
+    }
+
+    private ResponseEntity<?> transitionConflict(IllegalOrderTransitionException e) {
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of(
+                "message", e.getMessage(),
+                "orderStatus", String.valueOf(e.getCurrent()),
+                "requested", e.getRequested()));
     }
 
     @DeleteMapping("/deleteOrderDetails/{id}")
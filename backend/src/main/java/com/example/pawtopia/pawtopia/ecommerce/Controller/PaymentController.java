@@ -1,17 +1,18 @@
 package com.example.pawtopia.pawtopia.ecommerce.Controller;
 
 import com.example.pawtopia.pawtopia.ecommerce.Entity.Order;
+import com.example.pawtopia.pawtopia.ecommerce.Exception.IdempotencyKeyReusedException;
+import com.example.pawtopia.pawtopia.ecommerce.Exception.PaymentGatewayException;
 import com.example.pawtopia.pawtopia.ecommerce.Service.OrderService;
-import kong.unirest.HttpResponse;
-import kong.unirest.Unirest;
-import org.apache.commons.codec.binary.Base64;
-import org.json.JSONObject;
+import com.example.pawtopia.pawtopia.ecommerce.Service.PaymentService;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 @RestController
 @RequestMapping("/api/payment")
@@ -20,55 +21,46 @@ public class PaymentController {
     @Autowired
     private OrderService orderService;
 
-    @Value("${PAYMONGO_SECRET}")
-    private String paymongoSecretKey;
-
-    @Value("${PAYMONGO_URL}")
-    private String paymongoUrl;
+    @Autowired
+    private PaymentService paymentService;
 
+    // returns right away, the request thread is released while PayMongo answers.
+    // Retries with the same Idempotency-Key, or for the same saved order and amount,
+    // get the same checkout url without another PayMongo call; a key reused for another
+    // order or amount gets a 422.
+    // The amount is the saved order's server-priced total; a totalPrice in the body is ignored
     @PostMapping("/create-payment")
-    public ResponseEntity<?> payOrder(@RequestBody Order order) {
-        try {
-            String secret = Base64.encodeBase64String((paymongoSecretKey + ":").getBytes());
-
-            String bodyJson = "{ \"data\": { \"attributes\": { " +
-                    "\"amount\": " + (int) (order.getTotalPrice() * 100) + "," +
-                    "\"description\": \"" + order.getDescription() + "\"," +
-                    "\"remarks\": \"" + order.getRemarks() + "\"," +
-                    "\"payment_method_allowed\": [\"gcash\"]," +
-                    "\"redirect\": { " +
-                    "\"success\": \"http://localhost:5173/payment-success\"," +
-                    "\"failed\": \"http://localhost:5173\"" +
-                    " }" +
-                    "} } }";
-
-            HttpResponse<String> response = Unirest.post(paymongoUrl)
-                    .header("Accept", "application/json")
-                    .header("Content-Type", "application/json")
-                    .header("Authorization", "Basic " + secret)
-                    .body(bodyJson)
-                    .asString();
-
-            if (response.getStatus() >= 200 && response.getStatus() < 300) {
-                String responseBody = response.getBody();
-
-                JSONObject jsonResponse = new JSONObject(responseBody);
-                String checkoutUrl = jsonResponse
-                        .getJSONObject("data")
-                        .getJSONObject("attributes")
-                        .getString("checkout_url");
-
-                return ResponseEntity.ok(Map.of("checkoutUrl", checkoutUrl));
+    public CompletableFuture<ResponseEntity<?>> payOrder(@RequestBody Order order,
+                                                         @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
+                                                         Authentication authentication) {
+        if (order.getOrderID() == null) {
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().body("orderID is required"));
+        }
+        Order saved = orderService.findById(order.getOrderID());
+        if (saved == null || saved.getUser() == null || !saved.getUser().getUsername().equals(authentication.getName())) {
+            return CompletableFuture.completedFuture(ResponseEntity.status(404).body("Order not found"));
+        }
 
-            } else {
-                return ResponseEntity.status(response.getStatus())
-                        .body("PayMongo API Error: " + response.getBody());
-            }
+        Order charge = new Order();
+        charge.setOrderID(saved.getOrderID());
+        charge.setTotalPrice(saved.getTotalPrice());
+        charge.setDescription(order.getDescription() != null ? order.getDescription() : saved.getDescription());
+        charge.setRemarks(order.getRemarks() != null ? order.getRemarks() : saved.getRemarks());
+        return paymentService.createCheckoutUrl(charge, authentication.getName(), idempotencyKey)
+                .<ResponseEntity<?>>thenApply(checkoutUrl -> ResponseEntity.ok(Map.of("checkoutUrl", checkoutUrl)))
+                .exceptionally(this::toErrorResponse);
+    }
 
-        } catch (Exception e) {
-            return ResponseEntity.status(500)
-                    .body("Internal Server Error: " + e.getMessage());
+    private ResponseEntity<?> toErrorResponse(Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        if (cause instanceof PaymentGatewayException gatewayException) {
+            return ResponseEntity.status(gatewayException.getStatus()).body(gatewayException.getMessage());
+        }
+        if (cause instanceof IdempotencyKeyReusedException) {
+            return ResponseEntity.unprocessableEntity().body(cause.getMessage());
         }
+        return ResponseEntity.status(500)
+                .body("Internal Server Error: " + cause.getMessage());
     }
 
 
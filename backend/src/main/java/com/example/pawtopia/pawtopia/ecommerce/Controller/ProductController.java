@@ -1,5 +1,8 @@
 package com.example.pawtopia.pawtopia.ecommerce.Controller;
 
+import com.example.pawtopia.pawtopia.ecommerce.DTO.CursorPage;
+import com.example.pawtopia.pawtopia.ecommerce.DTO.ProductSummary;
+import com.example.pawtopia.pawtopia.ecommerce.DTO.TopSeller;
 import com.example.pawtopia.pawtopia.ecommerce.Entity.Product;
 import com.example.pawtopia.pawtopia.ecommerce.Service.ProductService;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -29,6 +32,30 @@ public class ProductController {
         return pserv.getAllProduct();
     }
 
+    //paged catalog for list views, sort = price|name|quantitySold
+    @GetMapping("/catalog")
+    public ResponseEntity<CursorPage<ProductSummary>> getCatalog(
+            @RequestParam(required = false) String productType,
+            @RequestParam(required = false) Double minPrice,
+            @RequestParam(required = false) Double maxPrice,
+            @RequestParam(defaultValue = "name") String sort,
+            @RequestParam(defaultValue = "asc") String direction,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        try {
+            int pageSize = Math.max(1, Math.min(size, 100));
+            return ResponseEntity.ok(pserv.getCatalog(productType, minPrice, maxPrice, sort, direction, cursor, pageSize));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    //best selling products by units ordered
+    @GetMapping("/top-sellers")
+    public List<TopSeller> getTopSellers(@RequestParam(defaultValue = "10") int limit) {
+        return pserv.getTopSellers(Math.max(1, Math.min(limit, 50)));
+    }
+
     //fetch id admin,user buy
     @GetMapping("/getProduct/{id}")
     public ResponseEntity<Product> getProductById(@PathVariable("id") int productID) {
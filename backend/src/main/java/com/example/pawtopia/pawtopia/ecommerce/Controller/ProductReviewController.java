@@ -1,5 +1,7 @@
 package com.example.pawtopia.pawtopia.ecommerce.Controller;
 
+import com.example.pawtopia.pawtopia.ecommerce.DTO.CursorPage;
+import com.example.pawtopia.pawtopia.ecommerce.DTO.ReviewView;
 import com.example.pawtopia.pawtopia.ecommerce.Entity.Product;
 import com.example.pawtopia.pawtopia.ecommerce.Entity.ProductReview;
 import com.example.pawtopia.pawtopia.ecommerce.Entity.User;
@@ -89,6 +91,20 @@ public class ProductReviewController {
         return reviewserv.deleteReview(id);
     }
 
+    //paged reviews of a product, sort = newest|rating, pass nextCursor back for the next page
+    @GetMapping("/product/{productId}/feed")
+    public ResponseEntity<CursorPage<ReviewView>> getReviewFeed(@PathVariable int productId,
+                                                                @RequestParam(defaultValue = "newest") String sort,
+                                                                @RequestParam(required = false) String cursor,
+                                                                @RequestParam(defaultValue = "10") int size) {
+        try {
+            int pageSize = Math.max(1, Math.min(size, 50));
+            return ResponseEntity.ok(reviewserv.getReviewFeed(productId, sort, cursor, pageSize));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
     @GetMapping("/getReviewsByProductId/{productId}")
     public List<ProductReview> getReviewsByProductId(@PathVariable int productId) {
         return reviewserv.getReviewsByProductId(productId);
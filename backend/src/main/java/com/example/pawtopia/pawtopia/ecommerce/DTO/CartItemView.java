@@ -0,0 +1,19 @@
+package com.example.pawtopia.pawtopia.ecommerce.DTO;
+
+import com.example.pawtopia.pawtopia.ecommerce.Config.BlobUrlSerializer;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+import java.time.LocalDateTime;
+
+// Cart row with the product fields the cart page shows, read in one query.
+// stock is the product's quantity on hand, so the client can cap the quantity input.
+public record CartItemView(Integer cartItemId,
+                           Integer quantity,
+                           LocalDateTime lastUpdated,
+                           Integer productID,
+                           String productName,
+                           String productType,
+                           Double productPrice,
+                           @JsonSerialize(using = BlobUrlSerializer.class) String productImage,
+                           Integer stock) {
+}
@@ -0,0 +1,9 @@
+package com.example.pawtopia.pawtopia.ecommerce.DTO;
+
+// One change in a cart batch. The item is named by cartItemId or productId.
+// ADD adds quantity (a new item when the product isn't in the cart), SET replaces the
+// quantity (0 removes the item), REMOVE removes it.
+public record CartOperation(Type type, Integer cartItemId, Integer productId, Integer quantity) {
+
+    public enum Type { ADD, SET, REMOVE }
+}
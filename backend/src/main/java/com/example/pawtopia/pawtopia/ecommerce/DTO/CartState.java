@@ -0,0 +1,7 @@
+package com.example.pawtopia.pawtopia.ecommerce.DTO;
+
+import java.util.List;
+
+// A cart's items and server-side totals, the answer to a cart batch
+public record CartState(List<CartItemView> items, CartTotals totals) {
+}
@@ -0,0 +1,22 @@
+package com.example.pawtopia.pawtopia.ecommerce.DTO;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+// Server-side price of a cart from the current product prices. Amounts are exact
+// (two decimals), computed in integer centavos.
+public record CartTotals(Long cartId,
+                         List<Line> lines,
+                         int totalItems,
+                         BigDecimal subtotal,
+                         BigDecimal shippingFee,
+                         BigDecimal total) {
+
+    public record Line(Integer cartItemId,
+                       Integer productID,
+                       String productName,
+                       int quantity,
+                       BigDecimal unitPrice,
+                       BigDecimal lineTotal) {
+    }
+}
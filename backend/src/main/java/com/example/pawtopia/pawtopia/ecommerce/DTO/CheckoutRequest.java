@@ -0,0 +1,7 @@
+package com.example.pawtopia.pawtopia.ecommerce.DTO;
+
+import java.util.List;
+
+// Body of a cart checkout. Items, prices and totals are read from the cart on the server;
+// cartItemIds picks part of the cart (null or empty buys all of it).
+public record CheckoutRequest(String paymentMethod, List<Integer> cartItemIds) {}
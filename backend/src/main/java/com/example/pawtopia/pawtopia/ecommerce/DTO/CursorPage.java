@@ -0,0 +1,26 @@
+package com.example.pawtopia.pawtopia.ecommerce.DTO;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+
+// One page of a keyset-paginated list, pass nextCursor back to get the following page
+// (null when this is the last page)
+public record CursorPage<T>(List<T> items, String nextCursor) {
+
+    // opaque cursor holding the sort value and id of the last row of a page
+    public static String encodeCursor(Object lastValue, int lastId) {
+        String raw = lastValue + "|" + lastId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // {sort value, id}, throws IllegalArgumentException on a malformed cursor
+    public static String[] decodeCursor(String cursor) {
+        String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        int separator = raw.lastIndexOf('|');
+        if (separator < 0 || !raw.substring(separator + 1).matches("-?[0-9]{1,9}")) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        return new String[]{raw.substring(0, separator), raw.substring(separator + 1)};
+    }
+}
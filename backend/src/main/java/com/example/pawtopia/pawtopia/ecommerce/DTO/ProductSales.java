@@ -0,0 +1,7 @@
+package com.example.pawtopia.pawtopia.ecommerce.DTO;
+
+import java.math.BigDecimal;
+
+// productName is null for products that have been deleted since
+public record ProductSales(Integer productId, String productName, Long unitsSold, BigDecimal revenue) {
+}
@@ -0,0 +1,29 @@
+package com.example.pawtopia.pawtopia.ecommerce.DTO;
+
+import com.example.pawtopia.pawtopia.ecommerce.Config.BlobUrlSerializer;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+// Catalog list row, no review collection. The image is a blob URL (list views add ?w=160)
+// or an external URL; images not yet moved out of the row as data: URLs come back null.
+// Rating fields come from product_rating_summary (null average when not reviewed yet).
+public record ProductSummary(Integer productID,
+                             String productName,
+                             String productType,
+                             Double productPrice,
+                             Integer quantity,
+                             Integer quantitySold,
+                             @JsonSerialize(using = BlobUrlSerializer.class) String productImage,
+                             Double averageRating,
+                             long reviewCount) {
+
+    // shape selected by the catalog query, ratings are merged in afterwards
+    public ProductSummary(Integer productID, String productName, String productType, Double productPrice,
+                          Integer quantity, Integer quantitySold, String productImage) {
+        this(productID, productName, productType, productPrice, quantity, quantitySold, productImage, null, 0);
+    }
+
+    public ProductSummary withRating(RatingSummary rating) {
+        return new ProductSummary(productID, productName, productType, productPrice, quantity, quantitySold,
+                productImage, rating.averageRating(), rating.reviewCount());
+    }
+}
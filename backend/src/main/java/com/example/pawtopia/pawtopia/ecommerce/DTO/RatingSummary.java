@@ -0,0 +1,20 @@
+package com.example.pawtopia.pawtopia.ecommerce.DTO;
+
+import com.example.pawtopia.pawtopia.ecommerce.Entity.ProductRatingSummary;
+
+import java.util.List;
+
+// Rating block of product responses; histogram holds the 1..5 star counts in order
+public record RatingSummary(long reviewCount, Double averageRating, List<Long> histogram) {
+
+    public static final RatingSummary EMPTY = new RatingSummary(0, null, List.of(0L, 0L, 0L, 0L, 0L));
+
+    public static RatingSummary of(ProductRatingSummary summary) {
+        if (summary == null || summary.getReviewCount() == 0) {
+            return EMPTY;
+        }
+        double average = Math.round(summary.getRatingSum() * 100.0 / summary.getReviewCount()) / 100.0;
+        return new RatingSummary(summary.getReviewCount(), average, List.of(summary.getStar1(),
+                summary.getStar2(), summary.getStar3(), summary.getStar4(), summary.getStar5()));
+    }
+}
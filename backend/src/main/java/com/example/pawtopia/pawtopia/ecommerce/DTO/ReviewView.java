@@ -0,0 +1,5 @@
+package com.example.pawtopia.pawtopia.ecommerce.DTO;
+
+// Review feed row, read in one query together with the reviewer's username
+public record ReviewView(Integer reviewID, Integer ratings, String comment, Integer orderID, String username) {
+}
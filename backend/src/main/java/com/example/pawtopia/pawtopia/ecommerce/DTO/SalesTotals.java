@@ -0,0 +1,6 @@
+package com.example.pawtopia.pawtopia.ecommerce.DTO;
+
+import java.math.BigDecimal;
+
+public record SalesTotals(String orderStatus, Long orderCount, Long unitsSold, BigDecimal revenue) {
+}
@@ -0,0 +1,4 @@
+package com.example.pawtopia.pawtopia.ecommerce.DTO;
+
+public record TopSeller(Integer productID, String productName, Long unitsSold) {
+}
@@ -6,6 +6,10 @@ import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
+@Table(indexes = {
+        @Index(name = "idx_cart_item_cart", columnList = "cart_id, product_id"),
+        @Index(name = "idx_cart_item_last_updated", columnList = "lastUpdated, cartItemId")
+})
 public class CartItem {
 
     @Id
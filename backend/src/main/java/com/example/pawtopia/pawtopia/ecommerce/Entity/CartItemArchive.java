@@ -0,0 +1,34 @@
+package com.example.pawtopia.pawtopia.ecommerce.Entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+
+// Cart items removed by CartSweeper from carts nobody touched for cart.sweeper.ttl-days.
+// Written only by the sweeper's SQL; kept for abandoned-cart reporting.
+@Getter
+@Entity
+@Table(name = "cart_item_archive", indexes = @Index(name = "idx_cart_item_archive_cart", columnList = "cartId"))
+public class CartItemArchive {
+
+    // the id the row had in cart_item
+    @Id
+    private Integer cartItemId;
+
+    @Column(nullable = false)
+    private Long cartId;
+
+    private Integer productId;
+
+    private int quantity;
+
+    private LocalDateTime lastUpdated;
+
+    @Column(nullable = false)
+    private Instant archivedAt;
+
+    protected CartItemArchive() {
+    }
+}
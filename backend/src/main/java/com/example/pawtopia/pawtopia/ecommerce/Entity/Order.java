@@ -1,17 +1,20 @@
 package com.example.pawtopia.pawtopia.ecommerce.Entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonManagedReference;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import lombok.Setter;
 
+import java.time.Instant;
 import java.util.List;
 @Getter
 @Setter
 @RequiredArgsConstructor
 @Entity
-@Table(name = "orders")
+@Table(name = "orders", indexes = @Index(name = "idx_orders_user_status", columnList = "user_id, orderStatus"))
 public class Order {
 
     @Id
@@ -19,14 +22,31 @@ public class Order {
     @Column(name = "order_id")
     private Integer orderID;
     private String orderDate;
+    // set by the server when the order is placed; orderDate is whatever the client sent
+    @Column(name = "placed_at", updatable = false)
+    private Instant placedAt;
     private String paymentMethod;
+    @Enumerated(EnumType.STRING)
     @Column(name = "payment_status")
-    private String paymentStatus = "PENDING";
-    private String orderStatus;
+    private PaymentStatus paymentStatus = PaymentStatus.PENDING;
+    @Enumerated(EnumType.STRING)
+    private OrderStatus orderStatus;
     private Double totalPrice;
     private String description = "A Great Way to Spend Money to your Pets!";
     private String remarks = "Shop Again!";
 
+    // set once by ProductStockRepo when a declined order's stock is put back, so a
+    // redelivered decline event can't release it again; never written through JPA
+    @JsonIgnore
+    @Column(name = "stock_released", columnDefinition = "boolean not null default false",
+            insertable = false, updatable = false)
+    private boolean stockReleased;
+
+    // optimistic lock, bumped on every update of the order row
+    @Version
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Long version;
+
     @JsonManagedReference
     @OneToMany(mappedBy = "order", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private List<OrderItem> orderItems;
@@ -1,28 +1,47 @@
 package com.example.pawtopia.pawtopia.ecommerce.Entity;
 
+import com.example.pawtopia.pawtopia.ecommerce.Config.BlobUrlSerializer;
 import com.fasterxml.jackson.annotation.JsonBackReference;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
 
 @Getter
 @Setter
 @Entity
+@Table(indexes = @Index(name = "idx_order_item_product", columnList = "productId"))
 public class OrderItem {
 
+    // pooled sequence so the items of an order can be inserted as one JDBC batch
+    // (IDENTITY needs a round trip per row to read the generated id)
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_item_seq")
+    @SequenceGenerator(name = "order_item_seq", sequenceName = "order_item_seq", allocationSize = 50)
     private int orderItemID;
     private String orderItemName;
 
     @Column(columnDefinition = "TEXT")
+    @JsonSerialize(using = BlobUrlSerializer.class)
     private String orderItemImage;
 
     private double price;
     private int quantity;
 
+    // written through productId; the association is read-only, for joins in queries.
+    // Deleting a product keeps its order history and only clears the link.
     @Column(name = "product_id", nullable = true)
-    private String productId;
+    private Integer productId;
+
+    @JsonIgnore
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "product_id", insertable = false, updatable = false,
+            foreignKey = @ForeignKey(name = "fk_order_item_product"))
+    @OnDelete(action = OnDeleteAction.SET_NULL)
+    private Product product;
 
     private boolean isRated;
 
@@ -37,7 +56,7 @@ public class OrderItem {
     }
 
     public OrderItem(int orderItemID, String orderItemName, String orderItemImage, double price, int quantity,
-                     String productId, boolean isRated, Order order) {
+                     Integer productId, boolean isRated, Order order) {
         super();
         this.orderItemID = orderItemID;
         this.orderItemName = orderItemName;
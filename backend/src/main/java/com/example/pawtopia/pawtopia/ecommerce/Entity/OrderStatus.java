@@ -0,0 +1,51 @@
+package com.example.pawtopia.pawtopia.ecommerce.Entity;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+
+import java.util.EnumSet;
+import java.util.Locale;
+import java.util.Set;
+
+// Order lifecycle. New orders start PENDING; DELIVERED and DECLINED are final.
+//   PENDING  -> APPROVED | DECLINED
+//   APPROVED -> SHIPPED | DECLINED
+//   SHIPPED  -> DELIVERED
+public enum OrderStatus {
+    PENDING,
+    APPROVED,
+    SHIPPED,
+    DELIVERED,
+    DECLINED;
+
+    // paid orders: counted as income and as purchases that may be reviewed
+    public static final Set<OrderStatus> PAID = EnumSet.of(APPROVED, SHIPPED, DELIVERED);
+
+    // JSON input in any case, plus the label installed mobile apps still send for a new
+    // order; anything else is rejected. Output stays the constant name.
+    @JsonCreator
+    public static OrderStatus fromJson(String value) {
+        if (value == null) {
+            return null;
+        }
+        String name = value.trim().toUpperCase(Locale.ROOT);
+        return "TO RECEIVE".equals(name) ? PENDING : valueOf(name);
+    }
+
+    public boolean canMoveTo(OrderStatus target) {
+        return switch (this) {
+            case PENDING -> target == APPROVED || target == DECLINED;
+            case APPROVED -> target == SHIPPED || target == DECLINED;
+            case SHIPPED -> target == DELIVERED;
+            case DELIVERED, DECLINED -> false;
+        };
+    }
+
+    // payment status of an order that has just entered this state
+    public PaymentStatus paymentStatusOnEntry(PaymentStatus current) {
+        return switch (this) {
+            case APPROVED -> PaymentStatus.PAID;
+            case DECLINED -> PaymentStatus.CANCELLED;
+            default -> current;
+        };
+    }
+}
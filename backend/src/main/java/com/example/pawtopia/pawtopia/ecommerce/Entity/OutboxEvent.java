@@ -0,0 +1,47 @@
+package com.example.pawtopia.pawtopia.ecommerce.Entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+
+import java.time.Instant;
+
+// Work to do after a transaction commits, written in that same transaction (transactional
+// outbox). OutboxDispatcher hands it to the OutboxHandlers of its type and deletes the
+// row once they succeed; failed rows wait until availableAt and are tried again.
+@Getter
+@Entity
+@Table(name = "outbox_event", indexes = @Index(name = "idx_outbox_event_available", columnList = "availableAt, id"))
+public class OutboxEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, length = 64)
+    private String eventType;
+
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String payload;
+
+    @Column(nullable = false)
+    private Instant createdAt;
+
+    // not picked up before this; pushed forward while claimed and after failures
+    @Column(nullable = false)
+    private Instant availableAt;
+
+    private int attempts;
+
+    @Column(columnDefinition = "TEXT")
+    private String lastError;
+
+    protected OutboxEvent() {
+    }
+
+    public OutboxEvent(String eventType, String payload, Instant createdAt) {
+        this.eventType = eventType;
+        this.payload = payload;
+        this.createdAt = createdAt;
+        this.availableAt = createdAt;
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.pawtopia.pawtopia.ecommerce.Entity;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+
+import java.util.Locale;
+
+// Follows the order status (see OrderStatus.paymentStatusOnEntry), never set on its own
+public enum PaymentStatus {
+    PENDING,
+    PAID,
+    CANCELLED;
+
+    // JSON input in any case, like OrderStatus
+    @JsonCreator
+    public static PaymentStatus fromJson(String value) {
+        return value == null ? null : valueOf(value.trim().toUpperCase(Locale.ROOT));
+    }
+}
@@ -1,13 +1,22 @@
 package com.example.pawtopia.pawtopia.ecommerce.Entity;
 
+import com.example.pawtopia.pawtopia.ecommerce.Config.BlobUrlSerializer;
+import com.example.pawtopia.pawtopia.ecommerce.DTO.RatingSummary;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonManagedReference;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import jakarta.persistence.*;
 
 import java.util.List;
 
 @Entity
-@Table(name="tblproduct")
+@Table(name="tblproduct", indexes = {
+        @Index(name = "idx_product_type_price", columnList = "productType, productPrice, ProductID"),
+        @Index(name = "idx_product_price", columnList = "productPrice, ProductID"),
+        @Index(name = "idx_product_name", columnList = "productName, ProductID"),
+        @Index(name = "idx_product_quantity_sold", columnList = "quantitySold, ProductID")
+})
 public class Product {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -20,7 +29,9 @@ public class Product {
     private int quantity;
     private int quantitySold;
 
+    // "blob:<sha256>" reference, written to JSON as the /api/blob URL
     @Column(columnDefinition = "TEXT")
+    @JsonSerialize(using = BlobUrlSerializer.class)
     private String productImage;
 
     @OneToMany(fetch = FetchType.LAZY, mappedBy = "product", cascade = CascadeType.ALL)
@@ -31,6 +42,11 @@ public class Product {
     @JsonIgnore
     private List<CartItem> cartItems;
 
+    // filled from product_rating_summary for product responses, not a column
+    @Transient
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private RatingSummary ratingSummary;
+
     // Constructors
     public Product() {
         super();
@@ -125,6 +141,14 @@ public class Product {
         this.productreview = productreview;
     }
 
+    public RatingSummary getRatingSummary() {
+        return ratingSummary;
+    }
+
+    public void setRatingSummary(RatingSummary ratingSummary) {
+        this.ratingSummary = ratingSummary;
+    }
+
     public List<CartItem> getCartItems() {
         return cartItems;
     }
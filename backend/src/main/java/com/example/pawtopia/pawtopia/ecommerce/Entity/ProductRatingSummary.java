@@ -0,0 +1,37 @@
+package com.example.pawtopia.pawtopia.ecommerce.Entity;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.*;
+import lombok.Getter;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+// Review count, rating sum and 1-5 star histogram per product. Only written through the
+// delta upsert in ProductRatingSummaryRepo, in the same transaction as the review change.
+@Getter
+@Entity
+@Table(name = "product_rating_summary")
+public class ProductRatingSummary {
+
+    @Id
+    @Column(name = "product_id")
+    private Integer productId;
+
+    @JsonIgnore
+    @MapsId
+    @OneToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "product_id", foreignKey = @ForeignKey(name = "fk_rating_summary_product"))
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private Product product;
+
+    private long reviewCount;
+    private long ratingSum;
+    private long star1;
+    private long star2;
+    private long star3;
+    private long star4;
+    private long star5;
+
+    protected ProductRatingSummary() {
+    }
+}
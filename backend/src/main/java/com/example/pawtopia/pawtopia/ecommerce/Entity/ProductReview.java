@@ -5,7 +5,12 @@ import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.persistence.*;
 
 @Entity
-@Table(name = "Reviews")
+@Table(name = "Reviews", uniqueConstraints = @UniqueConstraint(
+        name = "uk_review_product_user_order", columnNames = {"productid", "userid", "orderid"}),
+        indexes = {
+                @Index(name = "idx_review_product_newest", columnList = "productid, ReviewID"),
+                @Index(name = "idx_review_product_rating", columnList = "productid, ratings, ReviewID")
+        })
 public class ProductReview {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -0,0 +1,50 @@
+package com.example.pawtopia.pawtopia.ecommerce.Entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+// Per-product share of sales_daily: orders containing the product, units and item
+// revenue per day and order status. No FK to tblproduct, history outlives products.
+@Getter
+@Entity
+@Table(name = "product_sales_daily",
+        indexes = @Index(name = "idx_product_sales_product_day", columnList = "product_id, day"))
+@IdClass(ProductSalesDaily.Key.class)
+public class ProductSalesDaily {
+
+    @Id
+    private LocalDate day;
+
+    @Id
+    @Column(name = "product_id")
+    private Integer productId;
+
+    @Id
+    @Column(name = "order_status")
+    private String orderStatus;
+
+    private long orderCount;
+    private long unitsSold;
+
+    @Column(precision = 14, scale = 2)
+    private BigDecimal revenue;
+
+    protected ProductSalesDaily() {
+    }
+
+    @EqualsAndHashCode
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private LocalDate day;
+        private Integer productId;
+        private String orderStatus;
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.pawtopia.pawtopia.ecommerce.Entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+// Orders, units and revenue per day (the day an order was placed) and order status.
+// Only written through the delta upsert in SalesDailyRepo, in the same transaction
+// as the order change.
+@Getter
+@Entity
+@Table(name = "sales_daily")
+@IdClass(SalesDaily.Key.class)
+public class SalesDaily {
+
+    @Id
+    private LocalDate day;
+
+    @Id
+    @Column(name = "order_status")
+    private String orderStatus;
+
+    private long orderCount;
+    private long unitsSold;
+
+    @Column(precision = 14, scale = 2)
+    private BigDecimal revenue;
+
+    protected SalesDaily() {
+    }
+
+    @EqualsAndHashCode
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private LocalDate day;
+        private String orderStatus;
+    }
+}
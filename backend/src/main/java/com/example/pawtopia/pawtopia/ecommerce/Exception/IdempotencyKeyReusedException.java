@@ -0,0 +1,9 @@
+package com.example.pawtopia.pawtopia.ecommerce.Exception;
+
+// An Idempotency-Key came back with a different order or amount than it was first used for
+public class IdempotencyKeyReusedException extends RuntimeException {
+
+    public IdempotencyKeyReusedException(String idempotencyKey) {
+        super("Idempotency-Key " + idempotencyKey + " was already used for a different payment");
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.pawtopia.pawtopia.ecommerce.Exception;
+
+import com.example.pawtopia.pawtopia.ecommerce.Entity.OrderStatus;
+
+// The requested status can't be reached from the order's current one (see OrderStatus)
+public class IllegalOrderTransitionException extends RuntimeException {
+
+    private final OrderStatus current;
+    private final OrderStatus requested;
+
+    public IllegalOrderTransitionException(int orderId, OrderStatus current, OrderStatus requested) {
+        super("Order " + orderId + " can't go from " + current + " to " + requested);
+        this.current = current;
+        this.requested = requested;
+    }
+
+    public OrderStatus getCurrent() {
+        return current;
+    }
+
+    public OrderStatus getRequested() {
+        return requested;
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.pawtopia.pawtopia.ecommerce.Exception;
+
+// An order asked for more units than a product has left; the whole order is rolled back
+public class InsufficientStockException extends RuntimeException {
+
+    private final int productId;
+    private final int requested;
+    private final int available;
+
+    public InsufficientStockException(int productId, int requested, int available) {
+        super("Not enough stock for product " + productId + ": requested " + requested + ", available " + available);
+        this.productId = productId;
+        this.requested = requested;
+        this.available = available;
+    }
+
+    public int getProductId() {
+        return productId;
+    }
+
+    public int getRequested() {
+        return requested;
+    }
+
+    public int getAvailable() {
+        return available;
+    }
+}
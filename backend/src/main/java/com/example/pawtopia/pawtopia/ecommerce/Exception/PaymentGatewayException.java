@@ -0,0 +1,21 @@
+package com.example.pawtopia.pawtopia.ecommerce.Exception;
+
+// Failure talking to PayMongo, status is the HTTP status the API should answer with
+public class PaymentGatewayException extends RuntimeException {
+
+    private final int status;
+
+    public PaymentGatewayException(int status, String message) {
+        super(message);
+        this.status = status;
+    }
+
+    public PaymentGatewayException(int status, String message, Throwable cause) {
+        super(message, cause);
+        this.status = status;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+}
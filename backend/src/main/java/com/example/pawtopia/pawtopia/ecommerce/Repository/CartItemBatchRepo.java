@@ -0,0 +1,25 @@
+package com.example.pawtopia.pawtopia.ecommerce.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+// Fragment of CartItemRepo for cart writes that go through JDBC batching
+public interface CartItemBatchRepo {
+
+    record CartRow(int cartItemId, int productId, int quantity) {}
+
+    // Locks the cart row (creating it when the user has none) and returns the cart's
+    // items, so writers of one cart run one after the other
+    List<CartRow> lockCart(long cartId);
+
+    void insertItems(long cartId, Map<Integer, Integer> quantitiesByProductId, LocalDateTime lastUpdated);
+
+    void updateQuantities(Map<Integer, Integer> quantitiesByCartItemId, LocalDateTime lastUpdated);
+
+    int deleteItems(Collection<Integer> cartItemIds);
+
+    // One DELETE ... RETURNING, the cart id of the removed item or null when there was none
+    Long deleteItem(int cartItemId);
+}
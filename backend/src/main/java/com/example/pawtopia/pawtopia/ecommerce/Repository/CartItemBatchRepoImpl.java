@@ -0,0 +1,79 @@
+package com.example.pawtopia.pawtopia.ecommerce.Repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+public class CartItemBatchRepoImpl implements CartItemBatchRepo {
+
+    private static final String CREATE_CART = "INSERT INTO cart (user_id) VALUES (?) ON CONFLICT DO NOTHING";
+
+    private static final String LOCK_CART = "SELECT user_id FROM cart WHERE user_id = ? FOR UPDATE";
+
+    private static final String CART_ROWS =
+            "SELECT cart_item_id, product_id, quantity FROM cart_item WHERE cart_id = ? ORDER BY cart_item_id";
+
+    private static final String INSERT_ITEM =
+            "INSERT INTO cart_item (cart_id, product_id, quantity, last_updated) VALUES (?, ?, ?, ?)";
+
+    private static final String UPDATE_QUANTITY =
+            "UPDATE cart_item SET quantity = ?, last_updated = ? WHERE cart_item_id = ?";
+
+    private static final String DELETE_ITEMS = "DELETE FROM cart_item WHERE cart_item_id = ANY (?)";
+
+    private static final String DELETE_ITEM = "DELETE FROM cart_item WHERE cart_item_id = ? RETURNING cart_id";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public CartItemBatchRepoImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public List<CartRow> lockCart(long cartId) {
+        if (jdbcTemplate.queryForList(LOCK_CART, Long.class, cartId).isEmpty()) {
+            jdbcTemplate.update(CREATE_CART, cartId);
+            jdbcTemplate.queryForList(LOCK_CART, Long.class, cartId);
+        }
+        return jdbcTemplate.query(CART_ROWS,
+                (rs, rowNum) -> new CartRow(rs.getInt(1), rs.getInt(2), rs.getInt(3)), cartId);
+    }
+
+    @Override
+    public void insertItems(long cartId, Map<Integer, Integer> quantitiesByProductId, LocalDateTime lastUpdated) {
+        Timestamp timestamp = Timestamp.valueOf(lastUpdated);
+        List<Object[]> rows = new ArrayList<>(quantitiesByProductId.size());
+        quantitiesByProductId.forEach((productId, quantity) ->
+                rows.add(new Object[]{cartId, productId, quantity, timestamp}));
+        jdbcTemplate.batchUpdate(INSERT_ITEM, rows);
+    }
+
+    @Override
+    public void updateQuantities(Map<Integer, Integer> quantitiesByCartItemId, LocalDateTime lastUpdated) {
+        Timestamp timestamp = Timestamp.valueOf(lastUpdated);
+        List<Object[]> rows = new ArrayList<>(quantitiesByCartItemId.size());
+        quantitiesByCartItemId.forEach((cartItemId, quantity) ->
+                rows.add(new Object[]{quantity, timestamp, cartItemId}));
+        jdbcTemplate.batchUpdate(UPDATE_QUANTITY, rows);
+    }
+
+    @Override
+    public int deleteItems(Collection<Integer> cartItemIds) {
+        return jdbcTemplate.update(connection -> {
+            var statement = connection.prepareStatement(DELETE_ITEMS);
+            statement.setArray(1, connection.createArrayOf("integer", cartItemIds.toArray()));
+            return statement;
+        });
+    }
+
+    @Override
+    public Long deleteItem(int cartItemId) {
+        List<Long> cartIds = jdbcTemplate.queryForList(DELETE_ITEM, Long.class, cartItemId);
+        return cartIds.isEmpty() ? null : cartIds.get(0);
+    }
+}
@@ -1,10 +1,30 @@
 package com.example.pawtopia.pawtopia.ecommerce.Repository;
 
+import com.example.pawtopia.pawtopia.ecommerce.DTO.CartItemView;
 import com.example.pawtopia.pawtopia.ecommerce.Entity.CartItem;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
 @Repository
-public interface CartItemRepo extends JpaRepository<CartItem, Integer> {
+public interface CartItemRepo extends JpaRepository<CartItem, Integer>, CartItemBatchRepo, CartSweepRepo {
+
+    // one cart's items and their products, an index range scan on idx_cart_item_cart
+    @Query("SELECT new com.example.pawtopia.pawtopia.ecommerce.DTO.CartItemView(ci.cartItemId, ci.quantity, " +
+            "ci.lastUpdated, p.ProductID, p.productName, p.productType, p.productPrice, p.productImage, p.quantity) " +
+            "FROM CartItem ci JOIN ci.product p WHERE ci.cart.cartId = :cartId ORDER BY ci.cartItemId")
+    List<CartItemView> findViewsByCartId(@Param("cartId") Long cartId);
 
-}
\ No newline at end of file
+    // items of the ordered products that were not touched after the order was placed
+    @Modifying
+    @Query("DELETE FROM CartItem ci WHERE ci.cart.cartId = :userId AND ci.product.ProductID IN :productIds " +
+            "AND (ci.lastUpdated IS NULL OR ci.lastUpdated <= :placedAt)")
+    int deleteOrderedItems(@Param("userId") Long userId, @Param("productIds") Collection<Integer> productIds,
+                           @Param("placedAt") LocalDateTime placedAt);
+}
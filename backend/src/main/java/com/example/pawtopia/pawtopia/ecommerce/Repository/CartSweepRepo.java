@@ -0,0 +1,27 @@
+package com.example.pawtopia.pawtopia.ecommerce.Repository;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+
+// Fragment of CartItemRepo for CartSweeper. Carts are locked with FOR UPDATE SKIP LOCKED,
+// so several instances can sweep at once and a cart that is being changed is left alone.
+public interface CartSweepRepo {
+
+    // carts of the oldest items before the cutoff, after the (lastUpdated, cartItemId) cursor
+    record SweepCandidates(Set<Long> cartIds, int rows, LocalDateTime lastUpdated, int cartItemId) {}
+
+    SweepCandidates findSweepCandidates(LocalDateTime cutoff, LocalDateTime afterUpdated, int afterCartItemId,
+                                        int limit);
+
+    // Removes the items of those carts that have had no change since the cutoff, copying
+    // them to cart_item_archive first when archivedAt isn't null. Returns rows per cart.
+    Map<Long, Integer> sweepCarts(Collection<Long> cartIds, LocalDateTime cutoff, Instant archivedAt);
+
+    // Merges items of the same product in one cart into the oldest row (quantities added
+    // up), in at most limit carts. Must run in a transaction, the carts and their items
+    // stay locked until it commits. Returns removed rows per cart.
+    Map<Long, Integer> compactDuplicates(int limit);
+}
@@ -0,0 +1,136 @@
+package com.example.pawtopia.pawtopia.ecommerce.Repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.sql.Array;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+public class CartSweepRepoImpl implements CartSweepRepo {
+
+    // range scan on idx_cart_item_last_updated
+    private static final String SWEEP_CANDIDATES =
+            "SELECT cart_id, last_updated, cart_item_id FROM cart_item " +
+            "WHERE last_updated < ? AND (last_updated, cart_item_id) > (?, ?) " +
+            "ORDER BY last_updated, cart_item_id LIMIT ?";
+
+    // Idle = no item changed since the cutoff. The DELETE checks last_updated again, so an
+    // item updated after this statement's snapshot is re-read and kept.
+    private static final String IDLE_CARTS =
+            "WITH idle AS (" +
+            "  SELECT c.user_id FROM cart c WHERE c.user_id = ANY (?) " +
+            "  AND NOT EXISTS (SELECT 1 FROM cart_item f WHERE f.cart_id = c.user_id " +
+            "    AND (f.last_updated >= ? OR f.last_updated IS NULL)) " +
+            "  FOR UPDATE SKIP LOCKED" +
+            "), swept AS (" +
+            "  DELETE FROM cart_item ci USING idle WHERE ci.cart_id = idle.user_id AND ci.last_updated < ? " +
+            "  RETURNING ci.cart_item_id, ci.cart_id, ci.product_id, ci.quantity, ci.last_updated" +
+            ")";
+
+    private static final String PURGE = IDLE_CARTS +
+            " SELECT cart_id, COUNT(*) FROM swept GROUP BY cart_id";
+
+    private static final String ARCHIVE = IDLE_CARTS +
+            ", archived AS (" +
+            "  INSERT INTO cart_item_archive (cart_item_id, cart_id, product_id, quantity, last_updated, archived_at) " +
+            "  SELECT cart_item_id, cart_id, product_id, quantity, last_updated, ? FROM swept " +
+            "  ON CONFLICT (cart_item_id) DO NOTHING" +
+            ") SELECT cart_id, COUNT(*) FROM swept GROUP BY cart_id";
+
+    // Compaction takes the cart lock like CartBatchService, then locks the carts' items so
+    // a JPA quantity change (which only locks its item) is either committed before the
+    // merge reads it or waits for the merge. Only the locked items are merged.
+    private static final String LOCK_DUPLICATE_CARTS =
+            "SELECT user_id FROM cart WHERE user_id IN (" +
+            "  SELECT cart_id FROM cart_item GROUP BY cart_id, product_id HAVING COUNT(*) > 1" +
+            ") ORDER BY user_id LIMIT ? FOR UPDATE SKIP LOCKED";
+
+    private static final String LOCK_ITEMS =
+            "SELECT cart_item_id FROM cart_item WHERE cart_id = ANY (?) ORDER BY cart_item_id FOR UPDATE";
+
+    private static final String COMPACT =
+            "WITH dup AS (" +
+            "  SELECT cart_id, product_id, MIN(cart_item_id) AS keep, SUM(quantity) AS quantity, " +
+            "    MAX(last_updated) AS last_updated " +
+            "  FROM cart_item WHERE cart_item_id = ANY (?) GROUP BY cart_id, product_id HAVING COUNT(*) > 1" +
+            "), kept AS (" +
+            "  UPDATE cart_item ci SET quantity = dup.quantity, last_updated = dup.last_updated " +
+            "  FROM dup WHERE ci.cart_item_id = dup.keep" +
+            "), removed AS (" +
+            "  DELETE FROM cart_item ci USING dup " +
+            "  WHERE ci.cart_id = dup.cart_id AND ci.product_id = dup.product_id AND ci.cart_item_id <> dup.keep " +
+            "  AND ci.cart_item_id = ANY (?) " +
+            "  RETURNING ci.cart_id" +
+            ") SELECT cart_id, COUNT(*) FROM removed GROUP BY cart_id";
+
+    private record ItemRow(long cartId, LocalDateTime lastUpdated, int cartItemId) {}
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public CartSweepRepoImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public SweepCandidates findSweepCandidates(LocalDateTime cutoff, LocalDateTime afterUpdated, int afterCartItemId,
+                                               int limit) {
+        List<ItemRow> rows = jdbcTemplate.query(SWEEP_CANDIDATES,
+                (rs, rowNum) -> new ItemRow(rs.getLong(1), rs.getTimestamp(2).toLocalDateTime(), rs.getInt(3)),
+                Timestamp.valueOf(cutoff), Timestamp.valueOf(afterUpdated), afterCartItemId, limit);
+        if (rows.isEmpty()) {
+            return new SweepCandidates(Set.of(), 0, afterUpdated, afterCartItemId);
+        }
+        Set<Long> cartIds = new LinkedHashSet<>();
+        rows.forEach(row -> cartIds.add(row.cartId()));
+        ItemRow last = rows.get(rows.size() - 1);
+        return new SweepCandidates(cartIds, rows.size(), last.lastUpdated(), last.cartItemId());
+    }
+
+    @Override
+    public Map<Long, Integer> sweepCarts(Collection<Long> cartIds, LocalDateTime cutoff, Instant archivedAt) {
+        Map<Long, Integer> swept = new LinkedHashMap<>();
+        jdbcTemplate.query(connection -> {
+            var statement = connection.prepareStatement(archivedAt != null ? ARCHIVE : PURGE);
+            Array ids = connection.createArrayOf("bigint", cartIds.toArray());
+            statement.setArray(1, ids);
+            statement.setTimestamp(2, Timestamp.valueOf(cutoff));
+            statement.setTimestamp(3, Timestamp.valueOf(cutoff));
+            if (archivedAt != null) {
+                statement.setTimestamp(4, Timestamp.from(archivedAt));
+            }
+            return statement;
+        }, (RowCallbackHandler) rs -> swept.put(rs.getLong(1), rs.getInt(2)));
+        return swept;
+    }
+
+    // runs inside the caller's transaction, which holds the locks until the merge commits
+    @Override
+    public Map<Long, Integer> compactDuplicates(int limit) {
+        Map<Long, Integer> removed = new LinkedHashMap<>();
+        List<Long> cartIds = jdbcTemplate.queryForList(LOCK_DUPLICATE_CARTS, Long.class, limit);
+        if (cartIds.isEmpty()) {
+            return removed;
+        }
+        List<Integer> itemIds = jdbcTemplate.query(connection -> {
+            var statement = connection.prepareStatement(LOCK_ITEMS);
+            statement.setArray(1, connection.createArrayOf("bigint", cartIds.toArray()));
+            return statement;
+        }, (rs, rowNum) -> rs.getInt(1));
+        jdbcTemplate.query(connection -> {
+            var statement = connection.prepareStatement(COMPACT);
+            Array ids = connection.createArrayOf("integer", itemIds.toArray());
+            statement.setArray(1, ids);
+            statement.setArray(2, ids);
+            return statement;
+        }, (RowCallbackHandler) rs -> removed.put(rs.getLong(1), rs.getInt(2)));
+        return removed;
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.pawtopia.pawtopia.ecommerce.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+// Fragment of OrderRepo for the set-based statements of a cart checkout. Every method
+// takes the cart items being bought and must run in the caller's transaction.
+public interface CheckoutRepo {
+
+    record CartStock(int productId, int requested, int available, double price) {}
+
+    // Locks the products of the items in product id order (same order as the stock
+    // reservation, so the two can't deadlock), one row per product
+    List<CartStock> lockCartStock(Collection<Integer> cartItemIds);
+
+    // Takes the units of the items off their products in one UPDATE. Returns the number
+    // of products updated, fewer than asked for where stock was short.
+    int reserveCartStock(Collection<Integer> cartItemIds);
+
+    // Copies the items into order_item with the current product name, image and price
+    // in one INSERT ... SELECT. Returns the number of items written.
+    int insertOrderItemsFromCart(int orderId, Collection<Integer> cartItemIds);
+}
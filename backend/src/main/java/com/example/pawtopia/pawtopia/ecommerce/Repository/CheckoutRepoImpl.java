@@ -0,0 +1,86 @@
+package com.example.pawtopia.pawtopia.ecommerce.Repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.Collection;
+import java.util.List;
+
+public class CheckoutRepoImpl implements CheckoutRepo {
+
+    // allocationSize of order_item_seq on OrderItem
+    private static final int ORDER_ITEM_ID_BLOCK = 50;
+
+    private static final String CART_QUANTITIES =
+            "SELECT product_id, SUM(quantity) AS quantity FROM cart_item WHERE cart_item_id = ANY (?) GROUP BY product_id";
+
+    private static final String LOCK_STOCK =
+            "SELECT p.productid, c.quantity, p.quantity, p.product_price FROM tblproduct p " +
+            "JOIN (" + CART_QUANTITIES + ") c ON c.product_id = p.productid " +
+            "ORDER BY p.productid FOR UPDATE OF p";
+
+    private static final String RESERVE_STOCK =
+            "UPDATE tblproduct p SET quantity = p.quantity - c.quantity, quantity_sold = p.quantity_sold + c.quantity " +
+            "FROM (" + CART_QUANTITIES + ") c WHERE p.productid = c.product_id AND p.quantity >= c.quantity";
+
+    private static final String NEXT_ORDER_ITEM_BLOCKS =
+            "SELECT nextval('order_item_seq') FROM generate_series(1, ?)";
+
+    // ids are handed out in cart item order, prices rounded to centavos like CartPricingService
+    private static final String INSERT_ORDER_ITEMS =
+            "INSERT INTO order_item (order_itemid, order_id, product_id, order_item_name, order_item_image, " +
+            "price, quantity, is_rated) " +
+            "SELECT (?::integer[])[row_number() OVER (ORDER BY ci.cart_item_id)], ?, p.productid, p.product_name, " +
+            "p.product_image, ROUND(CAST(p.product_price AS numeric), 2), ci.quantity, false " +
+            "FROM cart_item ci JOIN tblproduct p ON p.productid = ci.product_id WHERE ci.cart_item_id = ANY (?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public CheckoutRepoImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public List<CartStock> lockCartStock(Collection<Integer> cartItemIds) {
+        return jdbcTemplate.query(connection -> {
+            var statement = connection.prepareStatement(LOCK_STOCK);
+            statement.setArray(1, connection.createArrayOf("integer", cartItemIds.toArray()));
+            return statement;
+        }, (rs, rowNum) -> new CartStock(rs.getInt(1), Math.toIntExact(rs.getLong(2)), rs.getInt(3), rs.getDouble(4)));
+    }
+
+    @Override
+    public int reserveCartStock(Collection<Integer> cartItemIds) {
+        return jdbcTemplate.update(connection -> {
+            var statement = connection.prepareStatement(RESERVE_STOCK);
+            statement.setArray(1, connection.createArrayOf("integer", cartItemIds.toArray()));
+            return statement;
+        });
+    }
+
+    @Override
+    public int insertOrderItemsFromCart(int orderId, Collection<Integer> cartItemIds) {
+        Integer[] ids = nextOrderItemIds(cartItemIds.size());
+        return jdbcTemplate.update(connection -> {
+            var statement = connection.prepareStatement(INSERT_ORDER_ITEMS);
+            statement.setArray(1, connection.createArrayOf("integer", ids));
+            statement.setInt(2, orderId);
+            statement.setArray(3, connection.createArrayOf("integer", cartItemIds.toArray()));
+            return statement;
+        });
+    }
+
+    // Ids from order_item_seq the way Hibernate's pooled optimizer reads it: a value V
+    // reserves V - 49 .. V, so these never collide with items saved through JPA
+    private Integer[] nextOrderItemIds(int count) {
+        int blocks = (count + ORDER_ITEM_ID_BLOCK - 1) / ORDER_ITEM_ID_BLOCK;
+        List<Long> highs = jdbcTemplate.queryForList(NEXT_ORDER_ITEM_BLOCKS, Long.class, blocks);
+        Integer[] ids = new Integer[count];
+        int next = 0;
+        for (long high : highs) {
+            for (long id = high - ORDER_ITEM_ID_BLOCK + 1; id <= high && next < count; id++) {
+                ids[next++] = Math.toIntExact(id);
+            }
+        }
+        return ids;
+    }
+}
@@ -1,9 +1,32 @@
 package com.example.pawtopia.pawtopia.ecommerce.Repository;
 
+import com.example.pawtopia.pawtopia.ecommerce.DTO.TopSeller;
 import com.example.pawtopia.pawtopia.ecommerce.Entity.OrderItem;
+import com.example.pawtopia.pawtopia.ecommerce.Entity.OrderStatus;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+
 @Repository
 public interface OrderItemRepo extends JpaRepository<OrderItem, Integer> {
+
+    List<OrderItem> findByOrder_OrderIDOrderByOrderItemID(Integer orderId);
+
+    // has the user an order in one of these statuses containing the product
+    @Query("SELECT COUNT(oi) > 0 FROM OrderItem oi JOIN oi.order o " +
+            "WHERE oi.productId = :productId AND o.user.userId = :userId AND o.orderStatus IN :statuses")
+    boolean hasPurchased(@Param("userId") Long userId, @Param("productId") int productId,
+                         @Param("statuses") Collection<OrderStatus> statuses);
+
+    // units sold per product over all orders that weren't declined
+    @Query("SELECT new com.example.pawtopia.pawtopia.ecommerce.DTO.TopSeller(p.ProductID, p.productName, SUM(oi.quantity)) " +
+            "FROM OrderItem oi JOIN oi.product p JOIN oi.order o " +
+            "WHERE o.orderStatus <> com.example.pawtopia.pawtopia.ecommerce.Entity.OrderStatus.DECLINED " +
+            "GROUP BY p.ProductID, p.productName ORDER BY SUM(oi.quantity) DESC, p.ProductID")
+    List<TopSeller> findTopSellers(Pageable pageable);
 }
@@ -0,0 +1,15 @@
+package com.example.pawtopia.pawtopia.ecommerce.Repository;
+
+import java.time.Instant;
+import java.util.List;
+
+// Fragment of OutboxRepo for claiming a batch with one UPDATE ... RETURNING
+public interface OutboxClaimRepo {
+
+    record ClaimedEvent(long id, String eventType, String payload, int attempts) {}
+
+    // Claims up to limit due events (oldest first) by moving their availableAt to
+    // leaseUntil and counting the attempt. Rows locked by another dispatcher are
+    // skipped, so concurrent dispatchers never claim the same event.
+    List<ClaimedEvent> claimBatch(int limit, Instant now, Instant leaseUntil, int maxAttempts);
+}
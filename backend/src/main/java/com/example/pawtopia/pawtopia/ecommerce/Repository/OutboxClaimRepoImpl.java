@@ -0,0 +1,30 @@
+package com.example.pawtopia.pawtopia.ecommerce.Repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+
+public class OutboxClaimRepoImpl implements OutboxClaimRepo {
+
+    private static final String CLAIM_BATCH =
+            "UPDATE outbox_event SET available_at = ?, attempts = attempts + 1 " +
+            "WHERE id IN (SELECT id FROM outbox_event WHERE available_at <= ? AND attempts < ? " +
+            "ORDER BY id LIMIT ? FOR UPDATE SKIP LOCKED) " +
+            "RETURNING id, event_type, payload, attempts";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public OutboxClaimRepoImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public List<ClaimedEvent> claimBatch(int limit, Instant now, Instant leaseUntil, int maxAttempts) {
+        return jdbcTemplate.query(CLAIM_BATCH,
+                (rs, rowNum) -> new ClaimedEvent(rs.getLong("id"), rs.getString("event_type"),
+                        rs.getString("payload"), rs.getInt("attempts")),
+                Timestamp.from(leaseUntil), Timestamp.from(now), maxAttempts, limit);
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.pawtopia.pawtopia.ecommerce.Repository;
+
+import com.example.pawtopia.pawtopia.ecommerce.Entity.OutboxEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+
+public interface OutboxRepo extends JpaRepository<OutboxEvent, Long>, OutboxClaimRepo {
+
+    @Modifying
+    @Query("DELETE FROM OutboxEvent e WHERE e.id = :id")
+    int deleteEvent(@Param("id") long id);
+
+    @Modifying
+    @Query("UPDATE OutboxEvent e SET e.availableAt = :retryAt, e.lastError = :error WHERE e.id = :id")
+    int markFailed(@Param("id") long id, @Param("retryAt") Instant retryAt, @Param("error") String error);
+
+    @Query("SELECT COUNT(e) FROM OutboxEvent e WHERE e.attempts < :maxAttempts")
+    long countPending(@Param("maxAttempts") int maxAttempts);
+
+    // events that used up their attempts and need a look
+    @Query("SELECT COUNT(e) FROM OutboxEvent e WHERE e.attempts >= :maxAttempts")
+    long countFailed(@Param("maxAttempts") int maxAttempts);
+
+    @Query("SELECT MIN(e.createdAt) FROM OutboxEvent e WHERE e.attempts < :maxAttempts")
+    Instant findOldestPending(@Param("maxAttempts") int maxAttempts);
+}
@@ -0,0 +1,35 @@
+package com.example.pawtopia.pawtopia.ecommerce.Repository;
+
+import com.example.pawtopia.pawtopia.ecommerce.Entity.ProductRatingSummary;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface ProductRatingSummaryRepo extends JpaRepository<ProductRatingSummary, Integer> {
+
+    // Adds (delta = 1) or removes (delta = -1) one review with the given rating. A single
+    // upsert, so concurrent reviews of the same product add up instead of overwriting.
+    @Modifying
+    @Query(value = "INSERT INTO product_rating_summary " +
+            "(product_id, review_count, rating_sum, star1, star2, star3, star4, star5) " +
+            "VALUES (:productId, :delta, :delta * :rating, " +
+            "CASE WHEN :rating = 1 THEN :delta ELSE 0 END, CASE WHEN :rating = 2 THEN :delta ELSE 0 END, " +
+            "CASE WHEN :rating = 3 THEN :delta ELSE 0 END, CASE WHEN :rating = 4 THEN :delta ELSE 0 END, " +
+            "CASE WHEN :rating = 5 THEN :delta ELSE 0 END) " +
+            "ON CONFLICT (product_id) DO UPDATE SET " +
+            "review_count = product_rating_summary.review_count + EXCLUDED.review_count, " +
+            "rating_sum = product_rating_summary.rating_sum + EXCLUDED.rating_sum, " +
+            "star1 = product_rating_summary.star1 + EXCLUDED.star1, " +
+            "star2 = product_rating_summary.star2 + EXCLUDED.star2, " +
+            "star3 = product_rating_summary.star3 + EXCLUDED.star3, " +
+            "star4 = product_rating_summary.star4 + EXCLUDED.star4, " +
+            "star5 = product_rating_summary.star5 + EXCLUDED.star5",
+            nativeQuery = true)
+    void applyDelta(@Param("productId") int productId, @Param("rating") int rating, @Param("delta") int delta);
+
+    List<ProductRatingSummary> findByProductIdIn(Collection<Integer> productIds);
+}
@@ -2,7 +2,27 @@ package com.example.pawtopia.pawtopia.ecommerce.Repository;
 
 import com.example.pawtopia.pawtopia.ecommerce.Entity.Product;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
-public interface ProductRepo extends JpaRepository<Product,Integer> {
+import java.util.Collection;
+import java.util.List;
 
-}
\ No newline at end of file
+public interface ProductRepo extends JpaRepository<Product,Integer>, ProductStockRepo {
+
+    record ProductPrice(Integer productID, Double productPrice) {}
+
+    // existence check for all lines of an order in one IN query
+    @Query("SELECT p.ProductID FROM Product p WHERE p.ProductID IN :ids")
+    List<Integer> findExistingIds(@Param("ids") Collection<Integer> productIds);
+
+    @Query("SELECT new com.example.pawtopia.pawtopia.ecommerce.Repository.ProductRepo$ProductPrice(p.ProductID, p.productPrice) " +
+            "FROM Product p WHERE p.ProductID IN :ids")
+    List<ProductPrice> findPrices(@Param("ids") Collection<Integer> productIds);
+
+    @Query("SELECT COALESCE(SUM(p.quantitySold), 0) FROM Product p")
+    long sumQuantitySold();
+
+    @Query("SELECT p.quantity FROM Product p WHERE p.ProductID = :id")
+    Integer findQuantityById(@Param("id") int productId);
+}
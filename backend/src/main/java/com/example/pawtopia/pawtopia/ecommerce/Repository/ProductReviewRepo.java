@@ -1,6 +1,9 @@
 package com.example.pawtopia.pawtopia.ecommerce.Repository;
 
+import com.example.pawtopia.pawtopia.ecommerce.DTO.ReviewView;
 import com.example.pawtopia.pawtopia.ecommerce.Entity.ProductReview;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -8,7 +11,39 @@ import org.springframework.data.repository.query.Param;
 import java.util.List;
 
 public interface ProductReviewRepo extends JpaRepository<ProductReview, Integer> {
-    @Query("SELECT r FROM ProductReview r WHERE r.product.ProductID = :productId")
+
+    String REVIEW_VIEW = "SELECT new com.example.pawtopia.pawtopia.ecommerce.DTO.ReviewView(" +
+            "r.ReviewID, r.ratings, r.comment, r.orderID, u.username) " +
+            "FROM ProductReview r JOIN r.user u WHERE r.product.ProductID = :productId ";
+
+    // user (and its eager address/cart) fetched in the same query, getUsername() would
+    // otherwise load them per review
+    @Query("SELECT r FROM ProductReview r JOIN FETCH r.user u LEFT JOIN FETCH u.address LEFT JOIN FETCH u.cart " +
+            "WHERE r.product.ProductID = :productId")
     List<ProductReview> findReviewsByProductId(@Param("productId") int productId);
 
+    @Override
+    @EntityGraph(attributePaths = {"user", "user.address", "user.cart"})
+    List<ProductReview> findAll();
+
+    // answered from the unique (productid, userid, orderid) index
+    @Query("SELECT COUNT(r) > 0 FROM ProductReview r " +
+            "WHERE r.product.ProductID = :productId AND r.user.userId = :userId AND r.orderID = :orderId")
+    boolean existsReview(@Param("productId") int productId, @Param("userId") Long userId, @Param("orderId") int orderId);
+
+    // Review feed pages, keyset on (ReviewID) for newest first and on (ratings, ReviewID)
+    // for highest rated first; the ids grow with insertion so they stand in for post time.
+    @Query(REVIEW_VIEW + "ORDER BY r.ReviewID DESC")
+    List<ReviewView> findNewest(@Param("productId") int productId, Limit limit);
+
+    @Query(REVIEW_VIEW + "AND r.ReviewID < :lastId ORDER BY r.ReviewID DESC")
+    List<ReviewView> findNewestAfter(@Param("productId") int productId, @Param("lastId") int lastId, Limit limit);
+
+    @Query(REVIEW_VIEW + "ORDER BY r.ratings DESC, r.ReviewID DESC")
+    List<ReviewView> findTopRated(@Param("productId") int productId, Limit limit);
+
+    @Query(REVIEW_VIEW + "AND (r.ratings < :lastRating OR (r.ratings = :lastRating AND r.ReviewID < :lastId)) " +
+            "ORDER BY r.ratings DESC, r.ReviewID DESC")
+    List<ReviewView> findTopRatedAfter(@Param("productId") int productId, @Param("lastRating") int lastRating,
+                                       @Param("lastId") int lastId, Limit limit);
 }
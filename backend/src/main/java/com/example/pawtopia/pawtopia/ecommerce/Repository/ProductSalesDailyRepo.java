@@ -0,0 +1,48 @@
+package com.example.pawtopia.pawtopia.ecommerce.Repository;
+
+import com.example.pawtopia.pawtopia.ecommerce.DTO.ProductSales;
+import com.example.pawtopia.pawtopia.ecommerce.DTO.SalesTotals;
+import com.example.pawtopia.pawtopia.ecommerce.Entity.ProductSalesDaily;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+public interface ProductSalesDailyRepo extends JpaRepository<ProductSalesDaily, ProductSalesDaily.Key> {
+
+    // Adds (delta = 1) or removes (delta = -1) one order for every product on it, in a
+    // single statement. Items whose product was deleted are skipped.
+    @Modifying(flushAutomatically = true)
+    @Query(value = "INSERT INTO product_sales_daily (day, product_id, order_status, order_count, units_sold, revenue) " +
+            "SELECT :day, oi.product_id, :status, :delta, :delta * SUM(oi.quantity), " +
+            ":delta * CAST(SUM(oi.price * oi.quantity) AS numeric(14, 2)) " +
+            "FROM order_item oi WHERE oi.order_id = :orderId AND oi.product_id IS NOT NULL " +
+            "GROUP BY oi.product_id " +
+            "ON CONFLICT (day, product_id, order_status) DO UPDATE SET " +
+            "order_count = product_sales_daily.order_count + EXCLUDED.order_count, " +
+            "units_sold = product_sales_daily.units_sold + EXCLUDED.units_sold, " +
+            "revenue = product_sales_daily.revenue + EXCLUDED.revenue",
+            nativeQuery = true)
+    void applyDelta(@Param("day") LocalDate day, @Param("status") String status, @Param("orderId") int orderId,
+                    @Param("delta") int delta);
+
+    @Query("SELECT new com.example.pawtopia.pawtopia.ecommerce.DTO.ProductSales(s.productId, p.productName, " +
+            "SUM(s.unitsSold), SUM(s.revenue)) " +
+            "FROM ProductSalesDaily s LEFT JOIN Product p ON p.ProductID = s.productId " +
+            "WHERE s.day BETWEEN :from AND :to AND s.orderStatus IN :statuses " +
+            "GROUP BY s.productId, p.productName ORDER BY SUM(s.revenue) DESC, s.productId")
+    List<ProductSales> findTopProducts(@Param("from") LocalDate from, @Param("to") LocalDate to,
+                                       @Param("statuses") Collection<String> statuses, Limit limit);
+
+    @Query("SELECT new com.example.pawtopia.pawtopia.ecommerce.DTO.SalesTotals(s.orderStatus, " +
+            "SUM(s.orderCount), SUM(s.unitsSold), SUM(s.revenue)) " +
+            "FROM ProductSalesDaily s WHERE s.productId = :productId AND s.day BETWEEN :from AND :to " +
+            "GROUP BY s.orderStatus ORDER BY s.orderStatus")
+    List<SalesTotals> sumByStatus(@Param("productId") int productId, @Param("from") LocalDate from,
+                                  @Param("to") LocalDate to);
+}
@@ -0,0 +1,16 @@
+package com.example.pawtopia.pawtopia.ecommerce.Repository;
+
+import java.util.Map;
+
+// Fragment of ProductRepo for stock writes that go through JDBC batching
+public interface ProductStockRepo {
+
+    // One conditional decrement per entry, sent as a single JDBC batch in the map's
+    // iteration order. Returns the update count per entry, 0 where stock was short.
+    int[] reserveStockBatch(Map<Integer, Integer> quantitiesByProductId);
+
+    // Gives the units of one order back to its products (same batch, product id order),
+    // once per order: later calls find orders.stock_released set and do nothing. Must run in
+    // a transaction. Returns the number of products updated, 0 when already released.
+    int releaseStockForOrder(int orderId);
+}
@@ -0,0 +1,58 @@
+package com.example.pawtopia.pawtopia.ecommerce.Repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+public class ProductStockRepoImpl implements ProductStockRepo {
+
+    private static final String RESERVE_STOCK =
+            "UPDATE tblproduct SET quantity = quantity - ?, quantity_sold = quantity_sold + ? " +
+            "WHERE productid = ? AND quantity >= ?";
+
+    private static final String ORDER_QUANTITIES =
+            "SELECT product_id, SUM(quantity) FROM order_item WHERE order_id = ? AND product_id IS NOT NULL " +
+            "GROUP BY product_id ORDER BY product_id";
+
+    // claims the release; a second delivery of the same decline finds the flag set, and one
+    // running concurrently waits for the row lock and then finds it set
+    private static final String MARK_RELEASED =
+            "UPDATE orders SET stock_released = true WHERE order_id = ? AND NOT stock_released";
+
+    private static final String RELEASE_STOCK =
+            "UPDATE tblproduct SET quantity = quantity + ?, quantity_sold = GREATEST(quantity_sold - ?, 0) " +
+            "WHERE productid = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ProductStockRepoImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public int[] reserveStockBatch(Map<Integer, Integer> quantitiesByProductId) {
+        List<Object[]> rows = new ArrayList<>(quantitiesByProductId.size());
+        quantitiesByProductId.forEach((productId, quantity) ->
+                rows.add(new Object[]{quantity, quantity, productId, quantity}));
+        return jdbcTemplate.batchUpdate(RESERVE_STOCK, rows);
+    }
+
+    @Override
+    public int releaseStockForOrder(int orderId) {
+        if (jdbcTemplate.update(MARK_RELEASED, orderId) == 0) {
+            return 0;
+        }
+        // ordered by product id like the reservation, so the two can't deadlock
+        List<Object[]> rows = jdbcTemplate.query(ORDER_QUANTITIES, (rs, rowNum) -> {
+            long quantity = rs.getLong(2);
+            return new Object[]{quantity, quantity, rs.getInt(1)};
+        }, orderId);
+        if (rows.isEmpty()) {
+            return 0;
+        }
+        jdbcTemplate.batchUpdate(RELEASE_STOCK, rows);
+        return rows.size();
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.pawtopia.pawtopia.ecommerce.Repository;
+
+import com.example.pawtopia.pawtopia.ecommerce.DTO.SalesTotals;
+import com.example.pawtopia.pawtopia.ecommerce.Entity.SalesDaily;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+public interface SalesDailyRepo extends JpaRepository<SalesDaily, SalesDaily.Key> {
+
+    // Adds (delta = 1) or removes (delta = -1) one order. Units are summed from the
+    // order's items, so pending item changes are flushed first.
+    @Modifying(flushAutomatically = true)
+    @Query(value = "INSERT INTO sales_daily (day, order_status, order_count, units_sold, revenue) " +
+            "SELECT :day, :status, :delta, :delta * COALESCE(SUM(oi.quantity), 0), :delta * :revenue " +
+            "FROM order_item oi WHERE oi.order_id = :orderId " +
+            "ON CONFLICT (day, order_status) DO UPDATE SET " +
+            "order_count = sales_daily.order_count + EXCLUDED.order_count, " +
+            "units_sold = sales_daily.units_sold + EXCLUDED.units_sold, " +
+            "revenue = sales_daily.revenue + EXCLUDED.revenue",
+            nativeQuery = true)
+    void applyDelta(@Param("day") LocalDate day, @Param("status") String status, @Param("orderId") int orderId,
+                    @Param("revenue") BigDecimal revenue, @Param("delta") int delta);
+
+    // Transaction-scoped advisory lock on one day of the rollups. Writers of the same day
+    // queue here instead of locking the day's status/product rows in different orders.
+    @Query(value = "SELECT 1 FROM pg_advisory_xact_lock(:namespace, :day)", nativeQuery = true)
+    Integer lockDay(@Param("namespace") int namespace, @Param("day") int epochDay);
+
+    List<SalesDaily> findByDayBetweenOrderByDayAscOrderStatusAsc(LocalDate from, LocalDate to);
+
+    @Query("SELECT new com.example.pawtopia.pawtopia.ecommerce.DTO.SalesTotals(s.orderStatus, " +
+            "SUM(s.orderCount), SUM(s.unitsSold), SUM(s.revenue)) " +
+            "FROM SalesDaily s WHERE s.day BETWEEN :from AND :to " +
+            "GROUP BY s.orderStatus ORDER BY s.orderStatus")
+    List<SalesTotals> sumByStatus(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    @Query("SELECT COALESCE(SUM(s.revenue), 0) FROM SalesDaily s WHERE s.orderStatus IN :statuses")
+    BigDecimal sumRevenue(@Param("statuses") Collection<String> statuses);
+}
@@ -6,8 +6,8 @@ import com.example.pawtopia.pawtopia.ecommerce.Repository.AdminRepo;
 import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
@@ -21,12 +21,24 @@ public class AdminService {
 
     private final AdminRepo adminRepo;
     private final PasswordEncoder passwordEncoder;
+    private final CustomerUserDetailsService customerUserDetailsService;
+
+    // checks credentials against the admin table only, so an admin login never matches
+    // a customer account with the same username
+    private DaoAuthenticationProvider adminAuthenticationProvider;
 
     @Autowired
     private JwtService jwtService;
 
     @Autowired
-    AuthenticationManager authenticationManager;
+    private UserDetailsCache userDetailsCache;
+
+    @PostConstruct
+    public void initAdminAuthentication() {
+        adminAuthenticationProvider = new DaoAuthenticationProvider();
+        adminAuthenticationProvider.setPasswordEncoder(passwordEncoder);
+        adminAuthenticationProvider.setUserDetailsService(customerUserDetailsService.forAuthType(AuthType.ADMIN));
+    }
 
     @PostConstruct
     public void adminAcc(){
@@ -52,7 +64,9 @@ public class AdminService {
     public Admin saveAdmin(Admin admin){
         admin.setPassword(passwordEncoder.encode(admin.getPassword()));
         admin.setRole("ADMIN");
-        return adminRepo.save(admin);
+        Admin saved = adminRepo.save(admin);
+        userDetailsCache.invalidate(AuthType.ADMIN, saved.getUsername());
+        return saved;
     }
 
     public Optional<Admin> findByUsernameAndPassword(String username, String password) {
@@ -63,9 +77,12 @@ public class AdminService {
         return Optional.empty();
     }
 
+    public Authentication authenticate(String username, String password) {
+        return adminAuthenticationProvider.authenticate(new UsernamePasswordAuthenticationToken(username, password));
+    }
+
     public String verify(Admin admin){
-        Authentication authentication =
-                authenticationManager.authenticate(new UsernamePasswordAuthenticationToken(admin.getUsername(), admin.getPassword()));
+        Authentication authentication = authenticate(admin.getUsername(), admin.getPassword());
         if (authentication.isAuthenticated())
             return jwtService.generateToken(admin.getUsername());
 
@@ -0,0 +1,12 @@
+package com.example.pawtopia.pawtopia.ecommerce.Service;
+
+// Which account table a username is resolved against
+public enum AuthType {
+    CUSTOMER,
+    ADMIN;
+
+    // role claim / authority -> auth type, anything but an admin resolves as a customer
+    public static AuthType fromRole(String role) {
+        return "ROLE_ADMIN".equals(role) ? ADMIN : CUSTOMER;
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.pawtopia.pawtopia.ecommerce.Service;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.channels.WritableByteChannel;
+import java.util.Optional;
+
+// Content-addressed binary storage: a blob's key is the SHA-256 of its bytes, so the
+// same image uploaded twice (or copied into many order items) is stored once and a
+// key never changes meaning. LocalFileBlobStore is the default implementation.
+public interface BlobStore {
+
+    // stores the bytes if not present yet, returns the content hash key
+    String put(byte[] content) throws IOException;
+
+    // stores a blob derived from another one (e.g. a resized variant) under "<hash>_<suffix>"
+    void putDerived(String key, byte[] content) throws IOException;
+
+    Optional<Blob> open(String key) throws IOException;
+
+    boolean exists(String key);
+
+    interface Blob extends Closeable {
+
+        long size() throws IOException;
+
+        // copies count bytes starting at position to the target channel
+        long transferTo(long position, long count, WritableByteChannel target) throws IOException;
+
+        // first bytes of the blob, used to sniff the content type
+        byte[] head(int length) throws IOException;
+    }
+}
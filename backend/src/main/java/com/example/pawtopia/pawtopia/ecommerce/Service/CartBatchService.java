@@ -0,0 +1,170 @@
+package com.example.pawtopia.pawtopia.ecommerce.Service;
+
+import com.example.pawtopia.pawtopia.ecommerce.DTO.CartOperation;
+import com.example.pawtopia.pawtopia.ecommerce.DTO.CartState;
+import com.example.pawtopia.pawtopia.ecommerce.Repository.CartItemBatchRepo.CartRow;
+import com.example.pawtopia.pawtopia.ecommerce.Repository.CartItemRepo;
+import com.example.pawtopia.pawtopia.ecommerce.Repository.ProductRepo;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+// Applies a list of cart operations in one transaction. The operations are folded in
+// memory into the net change per item, which then goes out as at most one batched
+// INSERT, one batched UPDATE and one DELETE. Either every operation applies or none.
+@Service
+public class CartBatchService {
+
+    private final CartItemRepo cartItemRepo;
+    private final ProductRepo productRepo;
+    private final CartPricingService cartPricingService;
+    private final TransactionTemplate transactionTemplate;
+    private final int maxOperations;
+
+    public CartBatchService(CartItemRepo cartItemRepo, ProductRepo productRepo,
+                            CartPricingService cartPricingService, PlatformTransactionManager transactionManager,
+                            @Value("${cart.batch.max-operations:100}") int maxOperations) {
+        this.cartItemRepo = cartItemRepo;
+        this.productRepo = productRepo;
+        this.cartPricingService = cartPricingService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.maxOperations = maxOperations;
+    }
+
+    // IllegalArgumentException for a malformed operation, NoSuchElementException for an
+    // item that isn't in this cart or a product that doesn't exist
+    public CartState apply(Long cartId, List<CartOperation> operations) {
+        if (operations == null || operations.isEmpty()) {
+            throw new IllegalArgumentException("No cart operations");
+        }
+        if (operations.size() > maxOperations) {
+            throw new IllegalArgumentException("At most " + maxOperations + " cart operations per request");
+        }
+        transactionTemplate.executeWithoutResult(status -> applyInTransaction(cartId, operations));
+        // read after the commit, the pricing entry of this cart is gone by now
+        return new CartState(cartItemRepo.findViewsByCartId(cartId), cartPricingService.priceCart(cartId));
+    }
+
+    private void applyInTransaction(Long cartId, List<CartOperation> operations) {
+        List<CartRow> rows = cartItemRepo.lockCart(cartId);
+        Map<Integer, Integer> original = new HashMap<>();
+        Map<Integer, Integer> quantities = new LinkedHashMap<>();
+        Map<Integer, Integer> itemByProduct = new HashMap<>();
+        for (CartRow row : rows) {
+            original.put(row.cartItemId(), row.quantity());
+            quantities.put(row.cartItemId(), row.quantity());
+            itemByProduct.putIfAbsent(row.productId(), row.cartItemId());
+        }
+        // products not in the cart yet -> quantity to insert
+        Map<Integer, Integer> added = new LinkedHashMap<>();
+
+        for (CartOperation operation : operations) {
+            if (operation == null || operation.type() == null) {
+                throw new IllegalArgumentException("Cart operation without a type");
+            }
+            Integer cartItemId = itemOf(operation, quantities, itemByProduct);
+            Integer productId = operation.productId();
+            switch (operation.type()) {
+                case ADD -> {
+                    int quantity = quantityOf(operation, 1);
+                    if (cartItemId != null) {
+                        quantities.merge(cartItemId, quantity, Math::addExact);
+                    } else {
+                        added.merge(requireProduct(operation), quantity, Math::addExact);
+                    }
+                }
+                case SET -> {
+                    int quantity = quantityOf(operation, 0);
+                    if (cartItemId != null) {
+                        quantities.put(cartItemId, quantity);
+                    } else if (quantity > 0) {
+                        added.put(requireProduct(operation), quantity);
+                    } else {
+                        added.remove(requireProduct(operation));
+                    }
+                }
+                case REMOVE -> {
+                    if (cartItemId != null) {
+                        quantities.put(cartItemId, 0);
+                    } else if (productId != null) {
+                        added.remove(productId);
+                    }
+                }
+            }
+        }
+
+        List<Integer> deleted = new ArrayList<>();
+        Map<Integer, Integer> updated = new LinkedHashMap<>();
+        quantities.forEach((cartItemId, quantity) -> {
+            if (quantity == 0) {
+                deleted.add(cartItemId);
+            } else if (!quantity.equals(original.get(cartItemId))) {
+                updated.put(cartItemId, quantity);
+            }
+        });
+        if (!added.isEmpty()) {
+            Set<Integer> existing = new HashSet<>(productRepo.findExistingIds(added.keySet()));
+            for (Integer productId : added.keySet()) {
+                if (!existing.contains(productId)) {
+                    throw new NoSuchElementException("Product not found with ID: " + productId);
+                }
+            }
+        }
+        if (deleted.isEmpty() && updated.isEmpty() && added.isEmpty()) {
+            return;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        if (!deleted.isEmpty()) {
+            cartItemRepo.deleteItems(deleted);
+        }
+        if (!updated.isEmpty()) {
+            cartItemRepo.updateQuantities(updated, now);
+        }
+        if (!added.isEmpty()) {
+            cartItemRepo.insertItems(cartId, added, now);
+        }
+        cartPricingService.cartChanged(cartId);
+    }
+
+    // the cart item an operation targets, null when its product isn't in the cart yet
+    private static Integer itemOf(CartOperation operation, Map<Integer, Integer> quantities,
+                                  Map<Integer, Integer> itemByProduct) {
+        if (operation.cartItemId() != null) {
+            if (!quantities.containsKey(operation.cartItemId())) {
+                throw new NoSuchElementException("CartItem " + operation.cartItemId() + " not found in this cart");
+            }
+            return operation.cartItemId();
+        }
+        if (operation.productId() == null) {
+            throw new IllegalArgumentException(operation.type() + " needs a cartItemId or a productId");
+        }
+        // an item removed earlier in the batch is still found, a later ADD/SET revives the row
+        return itemByProduct.get(operation.productId());
+    }
+
+    private static int quantityOf(CartOperation operation, int min) {
+        if (operation.quantity() == null || operation.quantity() < min) {
+            throw new IllegalArgumentException(operation.type() + " needs a quantity of at least " + min);
+        }
+        return operation.quantity();
+    }
+
+    private static Integer requireProduct(CartOperation operation) {
+        if (operation.productId() == null) {
+            throw new IllegalArgumentException(operation.type() + " needs a productId");
+        }
+        return operation.productId();
+    }
+}
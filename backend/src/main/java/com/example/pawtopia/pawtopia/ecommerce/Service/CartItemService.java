@@ -1,5 +1,6 @@
 package com.example.pawtopia.pawtopia.ecommerce.Service;
 
+import com.example.pawtopia.pawtopia.ecommerce.DTO.CartItemView;
 import com.example.pawtopia.pawtopia.ecommerce.Entity.CartItem;
 import com.example.pawtopia.pawtopia.ecommerce.Repository.CartItemRepo;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -14,6 +15,9 @@ public class CartItemService {
     @Autowired
     CartItemRepo cartItemRepo;
 
+    @Autowired
+    CartPricingService cartPricingService;
+
     public CartItemService() {
         super();
         // TODO Auto-generated constructor stub
@@ -28,7 +32,9 @@ public class CartItemService {
             // Or return null, or handle as needed
             // return null;
         }
-        return cartItemRepo.save(cartItem);
+        CartItem saved = cartItemRepo.save(cartItem);
+        cartPricingService.cartChanged(cartIdOf(saved));
+        return saved;
     }
 
     //Read of CRUD
@@ -36,6 +42,11 @@ public class CartItemService {
         return cartItemRepo.findAll();
     }
 
+    //Items of one cart (the cart id is the owner's user id)
+    public List<CartItemView> getCartItemsOf(Long userId) {
+        return cartItemRepo.findViewsByCartId(userId);
+    }
+
     //Update of CRUD
     public CartItem updateCartItem(int cartItemId, CartItem newCartItemDetails) {
         try {
@@ -48,7 +59,9 @@ public class CartItemService {
             cartItem.setLastUpdated(LocalDateTime.now());
 
             // Save the updated cartItem
-            return cartItemRepo.save(cartItem);
+            CartItem saved = cartItemRepo.save(cartItem);
+            cartPricingService.cartChanged(cartIdOf(saved));
+            return saved;
         } catch (NoSuchElementException nex) {
             throw nex; // Re-throw the exception
 
@@ -66,7 +79,9 @@ public class CartItemService {
             cartItem.setQuantity(newCartItemDetails.getQuantity());
 
             // Save the updated cartItem
-            return cartItemRepo.save(cartItem);
+            CartItem saved = cartItemRepo.save(cartItem);
+            cartPricingService.cartChanged(cartIdOf(saved));
+            return saved;
         } catch (NoSuchElementException nex) {
             throw nex; // Re-throw the exception
 
@@ -76,12 +91,18 @@ public class CartItemService {
     //Delete of CRUD
     public String deleteCartItem(int cartItemId) {
         String msg = "";
-        if (cartItemRepo.findById(cartItemId).isPresent()) {
-            cartItemRepo.deleteById(cartItemId);
+        // one DELETE ... RETURNING instead of findById + deleteById
+        Long cartId = cartItemRepo.deleteItem(cartItemId);
+        if (cartId != null) {
+            cartPricingService.cartChanged(cartId);
             msg = "CartItem Successfully deleted";
         }else {
             msg = cartItemId + " NOT found";
         }
         return msg;
     }
-}
\ No newline at end of file
+
+    private static Long cartIdOf(CartItem cartItem) {
+        return cartItem.getCart() == null ? null : cartItem.getCart().getCartId();
+    }
+}
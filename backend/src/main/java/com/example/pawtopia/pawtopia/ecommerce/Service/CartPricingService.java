@@ -0,0 +1,194 @@
+package com.example.pawtopia.pawtopia.ecommerce.Service;
+
+import com.example.pawtopia.pawtopia.ecommerce.DTO.CartItemView;
+import com.example.pawtopia.pawtopia.ecommerce.DTO.CartTotals;
+import com.example.pawtopia.pawtopia.ecommerce.Entity.Order;
+import com.example.pawtopia.pawtopia.ecommerce.Entity.OrderItem;
+import com.example.pawtopia.pawtopia.ecommerce.Repository.CartItemRepo;
+import com.example.pawtopia.pawtopia.ecommerce.Repository.ProductRepo;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Prices carts and orders on the server from the current product prices, in integer
+// centavos (no double rounding drift). Cart prices are memoized per cart: an entry is
+// dropped when one of the cart's items changes (cartChanged) and every entry is stale
+// once any product price changes (pricesChanged bumps the version the entries carry).
+// Both run after the commit, so a reload always sees the new rows.
+@Service
+public class CartPricingService {
+
+    private record Priced(long priceVersion, CartTotals totals) {}
+
+    private final CartItemRepo cartItemRepo;
+    private final ProductRepo productRepo;
+    private final long shippingFeeCents;
+    private final Cache<Long, Priced> carts;
+    private final AtomicLong priceVersion = new AtomicLong();
+
+    public CartPricingService(CartItemRepo cartItemRepo, ProductRepo productRepo,
+                              @Value("${cart.shipping-fee:30.00}") BigDecimal shippingFee,
+                              @Value("${cart.pricing.cache-max-size:10000}") long maxSize,
+                              @Value("${cart.pricing.cache-ttl-minutes:30}") long ttlMinutes) {
+        this.cartItemRepo = cartItemRepo;
+        this.productRepo = productRepo;
+        this.shippingFeeCents = toCents(shippingFee);
+        this.carts = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterAccess(Duration.ofMinutes(ttlMinutes))
+                .recordStats()
+                .build();
+    }
+
+    public CartTotals priceCart(Long cartId) {
+        if (inWriteTransaction()) {
+            // this transaction may have changed the cart, its view must not be cached
+            Priced cached = carts.getIfPresent(cartId);
+            return cached != null && cached.priceVersion() == priceVersion.get()
+                    ? cached.totals()
+                    : load(cartId).totals();
+        }
+        while (true) {
+            // invalidate() waits for a load of the same cart in progress, so a load
+            // that read the old items can't be stored after the change
+            Priced priced = carts.get(cartId, this::load);
+            if (priced.priceVersion() == priceVersion.get()) {
+                return priced.totals();
+            }
+            carts.asMap().remove(cartId, priced);
+        }
+    }
+
+    // Sets every item's price and the order total from the server prices; whatever the
+    // client sent is overwritten. Products in the buyer's cart are priced from the
+    // memoized cart, the rest with one query.
+    public long priceOrder(Long userId, Order order) {
+        List<OrderItem> items = order.getOrderItems() == null ? List.of() : order.getOrderItems();
+        Map<Integer, Long> unitCents = new HashMap<>();
+        for (CartTotals.Line line : priceCart(userId).lines()) {
+            unitCents.put(line.productID(), toCents(line.unitPrice()));
+        }
+        List<Integer> missing = items.stream()
+                .map(OrderItem::getProductId)
+                .filter(productId -> productId != null && !unitCents.containsKey(productId))
+                .distinct()
+                .toList();
+        if (!missing.isEmpty()) {
+            for (ProductRepo.ProductPrice price : productRepo.findPrices(missing)) {
+                unitCents.put(price.productID(), toCents(price.productPrice()));
+            }
+        }
+
+        long subtotal = 0;
+        for (OrderItem item : items) {
+            Long cents = unitCents.get(item.getProductId());
+            if (cents == null) {
+                throw new NoSuchElementException("Product not found with ID: " + item.getProductId());
+            }
+            item.setPrice(toAmount(cents).doubleValue());
+            subtotal = Math.addExact(subtotal, Math.multiplyExact(cents, (long) item.getQuantity()));
+        }
+        long total = totalWithShipping(subtotal);
+        order.setTotalPrice(toAmount(total).doubleValue());
+        return total;
+    }
+
+    // a cart item was added, changed or removed
+    public void cartChanged(Long cartId) {
+        if (cartId != null) {
+            afterCommit(() -> carts.invalidate(cartId));
+        }
+    }
+
+    // a product price changed or a product was removed
+    public void pricesChanged() {
+        afterCommit(priceVersion::incrementAndGet);
+    }
+
+    public Map<String, Object> getStats() {
+        CacheStats stats = carts.stats();
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("size", carts.estimatedSize());
+        result.put("hits", stats.hitCount());
+        result.put("misses", stats.missCount());
+        result.put("hitRate", stats.hitRate());
+        result.put("priceVersion", priceVersion.get());
+        return result;
+    }
+
+    // PHP amount -> centavos, rounded half up
+    public static long toCents(double amount) {
+        return toCents(BigDecimal.valueOf(amount));
+    }
+
+    public static long toCents(BigDecimal amount) {
+        return amount.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    public static BigDecimal toAmount(long cents) {
+        return BigDecimal.valueOf(cents, 2);
+    }
+
+    // order total in centavos, shipping included
+    public long totalWithShipping(long subtotalCents) {
+        return subtotalCents + shippingFor(subtotalCents);
+    }
+
+    private long shippingFor(long subtotalCents) {
+        return subtotalCents > 0 ? shippingFeeCents : 0;
+    }
+
+    private Priced load(Long cartId) {
+        // taken before the read: a price change during the load marks the result stale
+        long version = priceVersion.get();
+        List<CartItemView> items = cartItemRepo.findViewsByCartId(cartId);
+        List<CartTotals.Line> lines = new ArrayList<>(items.size());
+        long subtotal = 0;
+        int totalItems = 0;
+        for (CartItemView item : items) {
+            long unit = toCents(item.productPrice());
+            long line = Math.multiplyExact(unit, (long) item.quantity());
+            lines.add(new CartTotals.Line(item.cartItemId(), item.productID(), item.productName(), item.quantity(),
+                    toAmount(unit), toAmount(line)));
+            subtotal = Math.addExact(subtotal, line);
+            totalItems += item.quantity();
+        }
+        long shipping = shippingFor(subtotal);
+        return new Priced(version, new CartTotals(cartId, List.copyOf(lines), totalItems, toAmount(subtotal),
+                toAmount(shipping), toAmount(subtotal + shipping)));
+    }
+
+    private static boolean inWriteTransaction() {
+        return TransactionSynchronizationManager.isActualTransactionActive()
+                && !TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                // after a rollback too, dropping an entry is always safe
+                action.run();
+            }
+        });
+    }
+}
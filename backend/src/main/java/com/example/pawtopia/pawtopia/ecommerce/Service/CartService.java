@@ -14,6 +14,9 @@ public class CartService {
     @Autowired
     CartRepo cartRepo;
 
+    @Autowired
+    CartPricingService cartPricingService;
+
     public CartService() {
         super();
         // TODO Auto-generated constructor stub
@@ -21,7 +24,9 @@ public class CartService {
 
     //Create of CRUD
     public Cart postCartRecord(Cart cart) {
-        return cartRepo.save(cart);
+        Cart saved = cartRepo.save(cart);
+        cartPricingService.cartChanged(saved.getCartId());
+        return saved;
     }
 
     //Read of CRUD
@@ -63,6 +68,7 @@ public class CartService {
         String msg = "";
         if (cartRepo.findById(cartId).isPresent()) {
             cartRepo.deleteById(cartId);
+            cartPricingService.cartChanged(cartId);
             msg = "Cart Successfully deleted";
         }else {
             msg = cartId + " NOT found";
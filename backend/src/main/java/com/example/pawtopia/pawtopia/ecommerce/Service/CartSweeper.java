@@ -0,0 +1,171 @@
+package com.example.pawtopia.pawtopia.ecommerce.Service;
+
+import com.example.pawtopia.pawtopia.ecommerce.Repository.CartItemRepo;
+import com.example.pawtopia.pawtopia.ecommerce.Repository.CartSweepRepo.SweepCandidates;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+// Background cleanup of cart_item. Carts with no change for cart.sweeper.ttl-days are
+// archived to cart_item_archive (or purged), then duplicate rows of one product in a cart
+// are merged. Works in batches of short transactions with a pause in between, and at
+// most max-batches per run, so it never holds many locks or hogs the database.
+@Service
+public class CartSweeper {
+
+    private static final Logger logger = LoggerFactory.getLogger(CartSweeper.class);
+
+    // cursor start, older than any cart item
+    private static final LocalDateTime EPOCH = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    private final CartItemRepo cartItemRepo;
+    private final CartPricingService cartPricingService;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final Duration ttl;
+    private final boolean archive;
+    private final int batchSize;
+    private final int maxBatches;
+    private final long pauseMs;
+
+    private final AtomicLong runs = new AtomicLong();
+    private final AtomicLong cartsSwept = new AtomicLong();
+    private final AtomicLong rowsSwept = new AtomicLong();
+    private final AtomicLong rowsCompacted = new AtomicLong();
+    private final AtomicLong totalRunMs = new AtomicLong();
+    private final AtomicLong lastRunMs = new AtomicLong();
+    private final AtomicReference<Instant> lastRunAt = new AtomicReference<>();
+
+    public CartSweeper(CartItemRepo cartItemRepo, CartPricingService cartPricingService,
+                       PlatformTransactionManager transactionManager,
+                       @Value("${cart.sweeper.enabled:true}") boolean enabled,
+                       @Value("${cart.sweeper.ttl-days:30}") long ttlDays,
+                       @Value("${cart.sweeper.archive:true}") boolean archive,
+                       @Value("${cart.sweeper.batch-size:500}") int batchSize,
+                       @Value("${cart.sweeper.max-batches:50}") int maxBatches,
+                       @Value("${cart.sweeper.pause-ms:200}") long pauseMs) {
+        this.cartItemRepo = cartItemRepo;
+        this.cartPricingService = cartPricingService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.ttl = Duration.ofDays(ttlDays);
+        this.archive = archive;
+        this.batchSize = batchSize;
+        this.maxBatches = maxBatches;
+        this.pauseMs = pauseMs;
+    }
+
+    @Scheduled(initialDelayString = "${cart.sweeper.initial-delay-ms:60000}",
+            fixedDelayString = "${cart.sweeper.interval-ms:3600000}")
+    public void scheduledRun() {
+        if (enabled) {
+            run();
+        }
+    }
+
+    // one sweep and compaction pass; returns the rows swept and compacted
+    public Map<String, Long> run() {
+        long start = System.nanoTime();
+        long swept = sweepIdleCarts(LocalDateTime.now().minus(ttl));
+        long compacted = compact();
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+        runs.incrementAndGet();
+        totalRunMs.addAndGet(elapsedMs);
+        lastRunMs.set(elapsedMs);
+        lastRunAt.set(Instant.now());
+        if (swept > 0 || compacted > 0) {
+            logger.info("Cart sweep: {} idle rows {}, {} duplicate rows merged in {} ms",
+                    swept, archive ? "archived" : "purged", compacted, elapsedMs);
+        }
+        return Map.of("rowsSwept", swept, "rowsCompacted", compacted, "elapsedMs", elapsedMs);
+    }
+
+    private long sweepIdleCarts(LocalDateTime cutoff) {
+        long rows = 0;
+        LocalDateTime afterUpdated = EPOCH;
+        int afterCartItemId = 0;
+        // the cursor moves past carts that turned out not to be idle (or were locked),
+        // so a run always reaches the rest
+        for (int batch = 0; batch < maxBatches; batch++) {
+            SweepCandidates candidates = cartItemRepo.findSweepCandidates(cutoff, afterUpdated, afterCartItemId,
+                    batchSize);
+            if (candidates.rows() == 0) {
+                break;
+            }
+            Map<Long, Integer> swept = transactionTemplate.execute(status ->
+                    cartItemRepo.sweepCarts(candidates.cartIds(), cutoff, archive ? Instant.now() : null));
+            swept.forEach((cartId, count) -> cartPricingService.cartChanged(cartId));
+            cartsSwept.addAndGet(swept.size());
+            long batchRows = swept.values().stream().mapToLong(Integer::longValue).sum();
+            rowsSwept.addAndGet(batchRows);
+            rows += batchRows;
+
+            if (candidates.rows() < batchSize || !pause()) {
+                break;
+            }
+            afterUpdated = candidates.lastUpdated();
+            afterCartItemId = candidates.cartItemId();
+        }
+        return rows;
+    }
+
+    private long compact() {
+        long rows = 0;
+        for (int batch = 0; batch < maxBatches; batch++) {
+            Map<Long, Integer> removed = transactionTemplate.execute(status ->
+                    cartItemRepo.compactDuplicates(batchSize));
+            if (removed.isEmpty()) {
+                break;
+            }
+            removed.forEach((cartId, count) -> cartPricingService.cartChanged(cartId));
+            long batchRows = removed.values().stream().mapToLong(Integer::longValue).sum();
+            rowsCompacted.addAndGet(batchRows);
+            rows += batchRows;
+            if (!pause()) {
+                break;
+            }
+        }
+        return rows;
+    }
+
+    // rate limit between batches, false when the thread was interrupted (shutdown)
+    private boolean pause() {
+        if (pauseMs <= 0) {
+            return true;
+        }
+        try {
+            Thread.sleep(pauseMs);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("runs", runs.get());
+        stats.put("cartsSwept", cartsSwept.get());
+        stats.put("rowsSwept", rowsSwept.get());
+        stats.put("rowsCompacted", rowsCompacted.get());
+        stats.put("lastRunAt", lastRunAt.get());
+        stats.put("lastRunMs", lastRunMs.get());
+        stats.put("totalRunMs", totalRunMs.get());
+        stats.put("ttlDays", ttl.toDays());
+        stats.put("archive", archive);
+        return stats;
+    }
+}
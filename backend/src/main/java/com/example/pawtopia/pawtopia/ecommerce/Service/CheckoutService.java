@@ -0,0 +1,124 @@
+package com.example.pawtopia.pawtopia.ecommerce.Service;
+
+import com.example.pawtopia.pawtopia.ecommerce.DTO.CheckoutRequest;
+import com.example.pawtopia.pawtopia.ecommerce.Entity.Order;
+import com.example.pawtopia.pawtopia.ecommerce.Entity.OrderStatus;
+import com.example.pawtopia.pawtopia.ecommerce.Entity.PaymentStatus;
+import com.example.pawtopia.pawtopia.ecommerce.Entity.User;
+import com.example.pawtopia.pawtopia.ecommerce.Exception.InsufficientStockException;
+import com.example.pawtopia.pawtopia.ecommerce.Repository.CartItemBatchRepo.CartRow;
+import com.example.pawtopia.pawtopia.ecommerce.Repository.CartItemRepo;
+import com.example.pawtopia.pawtopia.ecommerce.Repository.CheckoutRepo.CartStock;
+import com.example.pawtopia.pawtopia.ecommerce.Repository.OrderItemRepo;
+import com.example.pawtopia.pawtopia.ecommerce.Repository.OrderRepo;
+import com.example.pawtopia.pawtopia.ecommerce.Repository.UserRepo;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+// Turns the buyer's cart into an order on the server. The cart row is locked, then the
+// products it asks for (in id order) and their stock is checked; stock is taken, the
+// order items are copied from the cart rows and the rows are removed with one statement
+// each. All of it commits or rolls back together, and the client only names the payment
+// method instead of sending the order with every item.
+@Service
+public class CheckoutService {
+
+    // the format the clients have always sent as orderDate
+    private static final DateTimeFormatter ORDER_DATE = DateTimeFormatter.ofPattern("MMMM d, yyyy", Locale.US);
+
+    private final OrderRepo orderRepo;
+    private final OrderItemRepo orderItemRepo;
+    private final CartItemRepo cartItemRepo;
+    private final UserRepo userRepo;
+    private final CartPricingService cartPricingService;
+    private final SalesAnalyticsService salesAnalyticsService;
+    private final TransactionTemplate transactionTemplate;
+
+    public CheckoutService(OrderRepo orderRepo, OrderItemRepo orderItemRepo, CartItemRepo cartItemRepo,
+                           UserRepo userRepo, CartPricingService cartPricingService,
+                           SalesAnalyticsService salesAnalyticsService, PlatformTransactionManager transactionManager) {
+        this.orderRepo = orderRepo;
+        this.orderItemRepo = orderItemRepo;
+        this.cartItemRepo = cartItemRepo;
+        this.userRepo = userRepo;
+        this.cartPricingService = cartPricingService;
+        this.salesAnalyticsService = salesAnalyticsService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    // IllegalArgumentException without a payment method or with nothing to buy,
+    // NoSuchElementException for an item that isn't in this cart,
+    // InsufficientStockException when a product has fewer units left than the cart asks for
+    public Order checkout(Long userId, CheckoutRequest request) {
+        if (request == null || request.paymentMethod() == null || request.paymentMethod().isBlank()) {
+            throw new IllegalArgumentException("Payment method is required");
+        }
+        return transactionTemplate.execute(status -> checkoutInTransaction(userId, request));
+    }
+
+    private Order checkoutInTransaction(Long userId, CheckoutRequest request) {
+        User user = userRepo.findById(userId)
+                .orElseThrow(() -> new NoSuchElementException("User not found"));
+        // a concurrent cart write or second checkout of this cart waits here
+        List<Integer> cartItemIds = selectedItems(cartItemRepo.lockCart(userId), request.cartItemIds());
+        if (cartItemIds.isEmpty()) {
+            throw new IllegalArgumentException("Cart is empty");
+        }
+
+        long subtotal = 0;
+        for (CartStock stock : orderRepo.lockCartStock(cartItemIds)) {
+            if (stock.requested() > stock.available()) {
+                throw new InsufficientStockException(stock.productId(), stock.requested(), stock.available());
+            }
+            subtotal = Math.addExact(subtotal, Math.multiplyExact(CartPricingService.toCents(stock.price()),
+                    (long) stock.requested()));
+        }
+        // the products are locked and were checked above, so none of them can come up short
+        orderRepo.reserveCartStock(cartItemIds);
+
+        Order order = new Order();
+        order.setUser(user);
+        order.setPlacedAt(Instant.now());
+        order.setOrderDate(salesAnalyticsService.today().format(ORDER_DATE));
+        order.setPaymentMethod(request.paymentMethod());
+        order.setOrderStatus(OrderStatus.PENDING);
+        order.setPaymentStatus(PaymentStatus.PENDING);
+        order.setTotalPrice(CartPricingService.toAmount(cartPricingService.totalWithShipping(subtotal)).doubleValue());
+        Order saved = orderRepo.save(order);
+
+        orderRepo.insertOrderItemsFromCart(saved.getOrderID(), cartItemIds);
+        cartItemRepo.deleteItems(cartItemIds);
+        saved.setOrderItems(new ArrayList<>(orderItemRepo.findByOrder_OrderIDOrderByOrderItemID(saved.getOrderID())));
+
+        salesAnalyticsService.orderAdded(saved);
+        cartPricingService.cartChanged(userId);
+        // no ORDER_PLACED outbox event: the purchased cart rows it would clear are already gone
+        return saved;
+    }
+
+    // the requested items in cart order, all of the cart when none are named
+    private static List<Integer> selectedItems(List<CartRow> rows, List<Integer> requested) {
+        List<Integer> cartItemIds = rows.stream().map(CartRow::cartItemId).toList();
+        if (requested == null || requested.isEmpty()) {
+            return cartItemIds;
+        }
+        Set<Integer> inCart = new HashSet<>(cartItemIds);
+        Set<Integer> wanted = new HashSet<>(requested);
+        for (Integer cartItemId : wanted) {
+            if (!inCart.contains(cartItemId)) {
+                throw new NoSuchElementException("Cart item not found with ID: " + cartItemId);
+            }
+        }
+        return cartItemIds.stream().filter(wanted::contains).toList();
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.pawtopia.pawtopia.ecommerce.Service;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Minimal lock-free circuit breaker: opens after N consecutive failures, rejects calls
+// while open, then lets a single trial call through; its result closes or re-opens it.
+public class CircuitBreaker {
+
+    private final int failureThreshold;
+    private final long openMillis;
+
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private final AtomicLong openedAt = new AtomicLong(0);
+    private final AtomicBoolean trialInFlight = new AtomicBoolean(false);
+
+    public CircuitBreaker(int failureThreshold, long openMillis) {
+        this.failureThreshold = failureThreshold;
+        this.openMillis = openMillis;
+    }
+
+    public boolean tryAcquire() {
+        long opened = openedAt.get();
+        if (opened == 0) {
+            return true;
+        }
+        if (System.currentTimeMillis() - opened < openMillis) {
+            return false;
+        }
+        // half-open, only one caller gets to probe
+        return trialInFlight.compareAndSet(false, true);
+    }
+
+    public void onSuccess() {
+        consecutiveFailures.set(0);
+        openedAt.set(0);
+        trialInFlight.set(false);
+    }
+
+    public void onFailure() {
+        if (consecutiveFailures.incrementAndGet() >= failureThreshold || trialInFlight.get()) {
+            openedAt.set(System.currentTimeMillis());
+        }
+        trialInFlight.set(false);
+    }
+
+    public String getState() {
+        long opened = openedAt.get();
+        if (opened == 0) {
+            return "CLOSED";
+        }
+        return System.currentTimeMillis() - opened < openMillis ? "OPEN" : "HALF_OPEN";
+    }
+}
@@ -1,6 +1,7 @@
 package com.example.pawtopia.pawtopia.ecommerce.Service;
 
 
+import com.example.pawtopia.pawtopia.ecommerce.Config.AuthenticatedUser;
 import com.example.pawtopia.pawtopia.ecommerce.Entity.Admin;
 import com.example.pawtopia.pawtopia.ecommerce.Entity.User;
 import com.example.pawtopia.pawtopia.ecommerce.Repository.AdminRepo;
@@ -20,41 +21,51 @@ public class CustomerUserDetailsService implements UserDetailsService {
 
     private final UserRepo userRepo;
     private final AdminRepo adminRepo;
+    private final UserDetailsCache userDetailsCache;
 
-    private final ThreadLocal<String> authType = new ThreadLocal<>();
-
-    public CustomerUserDetailsService(UserRepo userRepo, AdminRepo adminRepo) {
+    public CustomerUserDetailsService(UserRepo userRepo, AdminRepo adminRepo, UserDetailsCache userDetailsCache) {
         this.userRepo = userRepo;
         this.adminRepo = adminRepo;
+        this.userDetailsCache = userDetailsCache;
 
     }
 
-    public void setAuthType(String type) {
-        this.authType.set(type);
+    // Plain UserDetailsService contract (customer logins through the DaoAuthenticationProvider)
+    @Override
+    public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
+        return loadUserByUsername(username, AuthType.CUSTOMER);
     }
 
+    // The auth type is passed in on every call, nothing is kept per thread so this
+    // is safe to call from any (virtual) thread and cannot leak between requests
+    public UserDetails loadUserByUsername(String username, AuthType authType) throws UsernameNotFoundException {
+        return userDetailsCache.get(authType, username, () -> loadFromDatabase(authType, username));
+    }
 
-    @Override
-    public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        String currentAuthType = authType.get();
+    // UserDetailsService view bound to one auth type, e.g. for the admin login provider
+    public UserDetailsService forAuthType(AuthType authType) {
+        return username -> loadUserByUsername(username, authType);
+    }
 
-        if ("ADMIN".equals(currentAuthType)) {
+    private UserDetails loadFromDatabase(AuthType authType, String username) {
+        if (authType == AuthType.ADMIN) {
             Admin admin = adminRepo.findByUsername(username)
                     .orElseThrow(() -> new UsernameNotFoundException("Admin not found: " + username));
 
-            return new org.springframework.security.core.userdetails.User(
+            return new AuthenticatedUser(
                     admin.getUsername(),
                     admin.getPassword(),
+                    null,
                     Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + admin.getRole()))
             );
         } else {
-            // Default to USER auth type
             User user = userRepo.findByUsername(username)
                     .orElseThrow(() -> new UsernameNotFoundException("User not found: " + username));
 
-            return new org.springframework.security.core.userdetails.User(
+            return new AuthenticatedUser(
                     user.getUsername(),
                     user.getPassword(),
+                    user.getUserId(),
                     Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + user.getRole()))
             );
         }
@@ -0,0 +1,218 @@
+package com.example.pawtopia.pawtopia.ecommerce.Service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Resized copies of stored images (stored as "<hash>_w<width>") so list views and order
+// history don't download the full upload. Resizing is CPU work and runs on a small fixed
+// pool with a bounded queue: when the queue is full the job is dropped instead of making
+// the uploading request wait, and BlobController falls back to the original image and
+// asks for the variants again on a later request.
+@Service
+public class ImageVariantService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ImageVariantService.class);
+
+    private final BlobStore blobStore;
+    private final int[] widths;
+    private final long maxPixels;
+    private final ThreadPoolExecutor executor;
+
+    // hashes with a job queued or running, so repeated requests don't queue duplicates
+    private final Set<String> pending = ConcurrentHashMap.newKeySet();
+
+    // hashes already processed, e.g. images narrower than every variant width, which
+    // would otherwise be decoded again on each thumbnail request
+    private final Cache<String, Boolean> processed = Caffeine.newBuilder().maximumSize(10_000).build();
+
+    private final AtomicLong generated = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+
+    public ImageVariantService(BlobStore blobStore,
+                               @Value("${image.variants.widths:160,480,1024}") int[] widths,
+                               @Value("${image.variants.threads:2}") int threads,
+                               @Value("${image.variants.queue-capacity:100}") int queueCapacity,
+                               @Value("${image.variants.max-pixels:40000000}") long maxPixels) {
+        this.blobStore = blobStore;
+        this.widths = Arrays.stream(widths).sorted().toArray();
+        this.maxPixels = maxPixels;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                task -> {
+                    Thread thread = new Thread(task, "image-variants-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    public static String variantKey(String key, int width) {
+        return key + "_w" + width;
+    }
+
+    // Queues variant generation for a stored image reference, returns false when the
+    // work was dropped because the pool is saturated. Non-blob values are ignored.
+    public boolean requestVariants(String image) {
+        String key = ProductImageService.keyOf(image);
+        if (key == null || processed.getIfPresent(key) != null || !pending.add(key)) {
+            return true;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    generate(key);
+                } finally {
+                    pending.remove(key);
+                }
+            });
+            return true;
+        } catch (RejectedExecutionException e) {
+            pending.remove(key);
+            rejected.incrementAndGet();
+            logger.debug("Image variant queue full, skipped {}", key);
+            return false;
+        }
+    }
+
+    // true once every variant the image can have exists
+    public boolean isProcessed(String key) {
+        return processed.getIfPresent(key) != null;
+    }
+
+    // Smallest configured width that covers the requested one, null when the request is
+    // larger than every variant (the original is the best match then).
+    public Integer variantWidthFor(int requestedWidth) {
+        for (int width : widths) {
+            if (width >= requestedWidth) {
+                return width;
+            }
+        }
+        return null;
+    }
+
+    public Map<String, Object> getStats() {
+        return Map.of(
+                "queued", executor.getQueue().size(),
+                "active", executor.getActiveCount(),
+                "generated", generated.get(),
+                "rejected", rejected.get(),
+                "failed", failed.get());
+    }
+
+    void generate(String key) {
+        try {
+            Optional<BlobStore.Blob> found = blobStore.open(key);
+            if (found.isEmpty()) {
+                return;
+            }
+            byte[] original;
+            try (BlobStore.Blob blob = found.get()) {
+                ByteArrayOutputStream out = new ByteArrayOutputStream((int) blob.size());
+                blob.transferTo(0, blob.size(), Channels.newChannel(out));
+                original = out.toByteArray();
+            }
+
+            BufferedImage image = decode(original);
+            if (image == null) {
+                processed.put(key, Boolean.TRUE);
+                return;
+            }
+            boolean alpha = image.getColorModel().hasAlpha();
+            for (int width : widths) {
+                // never upscale, requests for larger sizes get the original
+                if (width >= image.getWidth()) {
+                    break;
+                }
+                String variant = variantKey(key, width);
+                if (!blobStore.exists(variant)) {
+                    blobStore.putDerived(variant, encode(resize(image, width), alpha));
+                    generated.incrementAndGet();
+                }
+            }
+            processed.put(key, Boolean.TRUE);
+        } catch (IOException | RuntimeException e) {
+            failed.incrementAndGet();
+            logger.warn("Could not create image variants for {}: {}", key, e.toString());
+        }
+    }
+
+    // checks the dimensions from the header first, so a tiny file claiming a huge
+    // canvas can't allocate gigabytes; null for formats ImageIO can't read (e.g. webp)
+    private BufferedImage decode(byte[] bytes) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(new ByteArrayInputStream(bytes))) {
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+            if (!readers.hasNext()) {
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                if ((long) reader.getWidth(0) * reader.getHeight(0) > maxPixels) {
+                    logger.warn("Image too large to resize: {}x{}", reader.getWidth(0), reader.getHeight(0));
+                    return null;
+                }
+                return reader.read(0);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    private static BufferedImage resize(BufferedImage image, int width) {
+        int height = Math.max(1, (int) Math.round((double) image.getHeight() * width / image.getWidth()));
+        boolean alpha = image.getColorModel().hasAlpha();
+        BufferedImage resized = new BufferedImage(width, height,
+                alpha ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = resized.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.drawImage(image, 0, 0, width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+        return resized;
+    }
+
+    // jpeg for opaque images (much smaller), png when transparency has to be kept
+    private static byte[] encode(BufferedImage image, boolean alpha) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, alpha ? "png" : "jpeg", out);
+        return out.toByteArray();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.pawtopia.pawtopia.ecommerce.Service;
+
+import com.example.pawtopia.pawtopia.ecommerce.Entity.OrderItem;
+import com.example.pawtopia.pawtopia.ecommerce.Exception.InsufficientStockException;
+import com.example.pawtopia.pawtopia.ecommerce.Repository.ProductRepo;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.NoSuchElementException;
+import java.util.TreeMap;
+
+// Stock reservation for order placement. Each product is decremented with one conditional
+// UPDATE (no read-modify-write in Java, so concurrent orders can't lose updates or
+// oversell), all of them sent as one JDBC batch. Runs inside the caller's transaction:
+// a failure on any line rolls back the lines already reserved.
+@Service
+public class InventoryService {
+
+    private final ProductRepo productRepo;
+
+    public InventoryService(ProductRepo productRepo) {
+        this.productRepo = productRepo;
+    }
+
+    @Transactional
+    public void reserve(List<OrderItem> orderItems) {
+        // one UPDATE per product, taken in id order so two orders sharing products lock
+        // the rows in the same order and can't deadlock
+        Map<Integer, Integer> quantities = new TreeMap<>();
+        for (OrderItem orderItem : orderItems) {
+            if (orderItem.getQuantity() <= 0) {
+                throw new IllegalArgumentException("Invalid quantity for product " + orderItem.getProductId());
+            }
+            if (orderItem.getProductId() == null) {
+                throw new IllegalArgumentException("Order item without a product");
+            }
+            quantities.merge(orderItem.getProductId(), orderItem.getQuantity(), Integer::sum);
+        }
+        if (quantities.isEmpty()) {
+            return;
+        }
+
+        Set<Integer> existing = new HashSet<>(productRepo.findExistingIds(quantities.keySet()));
+        for (Integer productId : quantities.keySet()) {
+            if (!existing.contains(productId)) {
+                throw new NoSuchElementException("Product not found with ID: " + productId);
+            }
+        }
+
+        int[] updated = productRepo.reserveStockBatch(quantities);
+        List<Integer> productIds = new ArrayList<>(quantities.keySet());
+        for (int i = 0; i < updated.length; i++) {
+            if (updated[i] == 0) {
+                int productId = productIds.get(i);
+                throw new InsufficientStockException(productId, quantities.get(productId),
+                        productRepo.findQuantityById(productId));
+            }
+        }
+    }
+
+    // stock of a declined order goes back on sale
+    @Transactional
+    public int release(int orderId) {
+        return productRepo.releaseStockForOrder(orderId);
+    }
+}
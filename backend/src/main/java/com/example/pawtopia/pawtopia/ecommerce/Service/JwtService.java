@@ -5,9 +5,11 @@ import com.example.pawtopia.pawtopia.ecommerce.Entity.User;
 import com.example.pawtopia.pawtopia.ecommerce.Repository.AdminRepo;
 import com.example.pawtopia.pawtopia.ecommerce.Repository.UserRepo;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
@@ -24,6 +26,8 @@ import java.util.function.Function;
 @Service
 public class JwtService {
 
+    public static final long TOKEN_VALIDITY_MS = 60 * 60 * 1000;
+
     @Autowired
     private AdminRepo adminRepo;
     @Autowired
@@ -43,9 +47,21 @@ public class JwtService {
 //        }
 //    }
 
-    private Key getKey(){
+    // decoded once at startup, the secret never changes while running
+    private Key signingKey;
+    private JwtParser jwtParser;
+
+    @PostConstruct
+    public void initKey() {
         byte[] keyBytes = Decoders.BASE64.decode(secretKey);
-        return Keys.hmacShaKeyFor(keyBytes);
+        signingKey = Keys.hmacShaKeyFor(keyBytes);
+        jwtParser = Jwts.parserBuilder()
+                .setSigningKey(signingKey)
+                .build();
+    }
+
+    private Key getKey(){
+        return signingKey;
     }
 
     public String generateToken(String username) {
@@ -64,6 +80,7 @@ public class JwtService {
                 Optional<User> user = userRepo.findByUsername(username);
                 if (user.isPresent()) {
                     claims.put("role", "ROLE_CUSTOMER");
+                    claims.put("userId", user.get().getUserId());
                 }
             }
         } catch (Exception e) {
@@ -76,7 +93,7 @@ public class JwtService {
                 .addClaims(claims)
                 .setSubject(username)
                 .setIssuedAt(new Date(System.currentTimeMillis()))
-                .setExpiration(new Date(System.currentTimeMillis() + 60 * 60 * 1000))
+                .setExpiration(new Date(System.currentTimeMillis() + TOKEN_VALIDITY_MS))
                 .signWith(getKey())
                 .compact();
 
@@ -99,6 +116,7 @@ public class JwtService {
                 Optional<User> user = userRepo.findByUsername(username);
                 if (user.isPresent()) {
                     claims.put("role", "ROLE_CUSTOMER");
+                    claims.put("userId", user.get().getUserId());
                 }
             }
         } catch (Exception e) {
@@ -111,7 +129,7 @@ public class JwtService {
                 .addClaims(claims)
                 .setSubject(username)
                 .setIssuedAt(new Date(System.currentTimeMillis()))
-                .setExpiration(new Date(System.currentTimeMillis() + 60 * 60 * 1000))
+                .setExpiration(new Date(System.currentTimeMillis() + TOKEN_VALIDITY_MS))
                 .signWith(getKey())
                 .compact();
 
@@ -138,15 +156,23 @@ public class JwtService {
     }
 
     private Claims extractAllClaims(String token){
-        return Jwts.parserBuilder()
-                .setSigningKey(getKey())
-                .build().parseClaimsJws(token).getBody();
+        return verifyToken(token);
     }
 
-    public boolean validateToken(String token, UserDetails userDetails) {
-        final String userName = extractUserName(token);
-        return (userName.equals(userDetails.getUsername()) && !isTokenExpired(token));
+    // Parses and verifies the signature once, callers should reuse the returned claims
+    // for the rest of the request instead of calling the extract methods one by one.
+    // Throws JwtException (ExpiredJwtException, SignatureException...) on a bad token.
+    public Claims verifyToken(String token) {
+        return jwtParser.parseClaimsJws(token).getBody();
+    }
 
+    public boolean validateToken(Claims claims, UserDetails userDetails) {
+        return claims.getSubject().equals(userDetails.getUsername())
+                && !claims.getExpiration().before(new Date());
+    }
+
+    public boolean validateToken(String token, UserDetails userDetails) {
+        return validateToken(verifyToken(token), userDetails);
     }
 
     private boolean isTokenExpired(String token){
@@ -0,0 +1,129 @@
+package com.example.pawtopia.pawtopia.ecommerce.Service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.regex.Pattern;
+
+// Blobs as files under blob.store.path, fanned out as ab/cd/<hash>. Writes go to a temp
+// file and are moved into place atomically, so readers never see a partial blob.
+// Local to one instance: multi-instance deployments need a shared volume or another
+// BlobStore implementation.
+@Service
+public class LocalFileBlobStore implements BlobStore {
+
+    private static final Pattern KEY = Pattern.compile("[0-9a-f]{64}(_[a-z0-9]+)?");
+
+    private final Path root;
+
+    public LocalFileBlobStore(@Value("${blob.store.path:./data/blobs}") String rootPath) throws IOException {
+        this.root = Path.of(rootPath).toAbsolutePath();
+        Files.createDirectories(root);
+    }
+
+    @Override
+    public String put(byte[] content) throws IOException {
+        String key = sha256(content);
+        write(key, content);
+        return key;
+    }
+
+    @Override
+    public void putDerived(String key, byte[] content) throws IOException {
+        if (!KEY.matcher(key).matches()) {
+            throw new IllegalArgumentException("Invalid blob key: " + key);
+        }
+        write(key, content);
+    }
+
+    private void write(String key, byte[] content) throws IOException {
+        Path target = pathOf(key);
+        if (Files.exists(target)) {
+            return;
+        }
+        Files.createDirectories(target.getParent());
+        Path temp = Files.createTempFile(target.getParent(), key, ".tmp");
+        try {
+            Files.write(temp, content);
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (FileAlreadyExistsException e) {
+            // written concurrently by another upload of the same bytes
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    @Override
+    public Optional<Blob> open(String key) throws IOException {
+        if (!exists(key)) {
+            return Optional.empty();
+        }
+        FileChannel channel = FileChannel.open(pathOf(key), StandardOpenOption.READ);
+        return Optional.of(new FileBlob(channel));
+    }
+
+    @Override
+    public boolean exists(String key) {
+        return key != null && KEY.matcher(key).matches() && Files.exists(pathOf(key));
+    }
+
+    private Path pathOf(String key) {
+        return root.resolve(key.substring(0, 2)).resolve(key.substring(2, 4)).resolve(key);
+    }
+
+    private static String sha256(byte[] content) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private record FileBlob(FileChannel channel) implements Blob {
+
+        @Override
+        public long size() throws IOException {
+            return channel.size();
+        }
+
+        // FileChannel.transferTo; the kernel only skips the copy into user space when the
+        // target is a FileChannel or SocketChannel, other channels get a buffered copy
+        @Override
+        public long transferTo(long position, long count, WritableByteChannel target) throws IOException {
+            long sent = 0;
+            while (sent < count) {
+                long n = channel.transferTo(position + sent, count - sent, target);
+                if (n <= 0) {
+                    break;
+                }
+                sent += n;
+            }
+            return sent;
+        }
+
+        @Override
+        public byte[] head(int length) throws IOException {
+            ByteBuffer buffer = ByteBuffer.allocate((int) Math.min(length, channel.size()));
+            channel.read(buffer, 0);
+            return buffer.array();
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+    }
+}
@@ -0,0 +1,198 @@
+package com.example.pawtopia.pawtopia.ecommerce.Service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+// Admin export of every order with its items, written to the response as rows are read.
+// PostgreSQL only streams a result set (instead of buffering all of it in the driver)
+// inside a transaction with a fetch size, so the query runs in a read-only transaction
+// and memory stays constant however many orders there are.
+@Service
+public class OrderExportService {
+
+    public enum Format { CSV, NDJSON }
+
+    // one row per order item (orders without items appear once with empty item columns),
+    // sorted so the items of an order are consecutive
+    private static final String EXPORT_QUERY =
+            "SELECT o.order_id, o.order_date, o.order_status, o.payment_status, o.payment_method, o.total_price, " +
+            "u.user_id, u.username, oi.order_itemid, oi.product_id, oi.order_item_name, oi.quantity, oi.price " +
+            "FROM orders o LEFT JOIN users u ON u.user_id = o.user_id " +
+            "LEFT JOIN order_item oi ON oi.order_id = o.order_id " +
+            "ORDER BY o.order_id, oi.order_itemid";
+
+    private static final String CSV_HEADER = "order_id,order_date,order_status,payment_status,payment_method," +
+            "total_price,user_id,username,order_item_id,product_id,item_name,quantity,price\n";
+
+    // EXPORT_QUERY columns holding free text (customer or admin input), 1-based
+    private static final boolean[] TEXT_COLUMNS =
+            {false, false, true, true, true, true, false, false, true, false, false, true, false, false};
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ObjectMapper objectMapper;
+
+    public OrderExportService(DataSource dataSource, PlatformTransactionManager transactionManager,
+                              ObjectMapper objectMapper,
+                              @Value("${order.export.fetch-size:1000}") int fetchSize) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(fetchSize);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.objectMapper = objectMapper;
+    }
+
+    public void export(Format format, OutputStream out) {
+        readOnlyTransaction.executeWithoutResult(status -> {
+            try {
+                if (format == Format.CSV) {
+                    writeCsv(out);
+                } else {
+                    writeNdjson(out);
+                }
+            } catch (IOException e) {
+                // client went away, nothing left to send
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    private void writeCsv(OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+        writer.write(CSV_HEADER);
+        jdbcTemplate.query(EXPORT_QUERY, (RowCallbackHandler) rs -> {
+            try {
+                for (int column = 1; column <= 13; column++) {
+                    if (column > 1) {
+                        writer.write(',');
+                    }
+                    String value = rs.getString(column);
+                    writeCsvValue(writer, TEXT_COLUMNS[column] ? textCell(value) : value);
+                }
+                writer.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        writer.flush();
+    }
+
+    // quotes values containing separators, quotes or line breaks (RFC 4180)
+    static void writeCsvValue(Writer writer, String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+
+    // Text starting like a formula (=, +, -, @, tab, CR) would be evaluated when the export
+    // is opened in a spreadsheet; a leading ' makes it plain text (OWASP CSV injection).
+    static String textCell(String value) {
+        if (value == null || value.isEmpty() || "=+-@\t\r".indexOf(value.charAt(0)) < 0) {
+            return value;
+        }
+        return "'" + value;
+    }
+
+    // one JSON object per order and line, items nested; an order is closed when the next
+    // order id shows up, so only the current order is ever held
+    private void writeNdjson(OutputStream out) throws IOException {
+        JsonGenerator json = objectMapper.getFactory().createGenerator(out);
+        json.setRootValueSeparator(null);
+        NdjsonRowHandler handler = new NdjsonRowHandler(json);
+        jdbcTemplate.query(EXPORT_QUERY, handler);
+        handler.finish();
+        json.flush();
+    }
+
+    private static final class NdjsonRowHandler implements RowCallbackHandler {
+
+        private final JsonGenerator json;
+        private long currentOrderId = -1;
+
+        NdjsonRowHandler(JsonGenerator json) {
+            this.json = json;
+        }
+
+        @Override
+        public void processRow(ResultSet rs) throws SQLException {
+            try {
+                long orderId = rs.getLong("order_id");
+                if (orderId != currentOrderId) {
+                    finish();
+                    startOrder(rs);
+                    currentOrderId = orderId;
+                }
+                if (rs.getObject("order_itemid") != null) {
+                    json.writeStartObject();
+                    json.writeNumberField("orderItemID", rs.getInt("order_itemid"));
+                    writeNullableInt("productId", rs, "product_id");
+                    json.writeStringField("orderItemName", rs.getString("order_item_name"));
+                    json.writeNumberField("quantity", rs.getInt("quantity"));
+                    json.writeNumberField("price", rs.getDouble("price"));
+                    json.writeEndObject();
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        private void startOrder(ResultSet rs) throws SQLException, IOException {
+            json.writeStartObject();
+            json.writeNumberField("orderID", rs.getInt("order_id"));
+            json.writeStringField("orderDate", rs.getString("order_date"));
+            json.writeStringField("orderStatus", rs.getString("order_status"));
+            json.writeStringField("paymentStatus", rs.getString("payment_status"));
+            json.writeStringField("paymentMethod", rs.getString("payment_method"));
+            double totalPrice = rs.getDouble("total_price");
+            if (rs.wasNull()) {
+                json.writeNullField("totalPrice");
+            } else {
+                json.writeNumberField("totalPrice", totalPrice);
+            }
+            writeNullableInt("userId", rs, "user_id");
+            json.writeStringField("username", rs.getString("username"));
+            json.writeArrayFieldStart("orderItems");
+        }
+
+        private void writeNullableInt(String field, ResultSet rs, String column) throws SQLException, IOException {
+            long value = rs.getLong(column);
+            if (rs.wasNull()) {
+                json.writeNullField(field);
+            } else {
+                json.writeNumberField(field, value);
+            }
+        }
+
+        void finish() throws IOException {
+            if (currentOrderId != -1) {
+                json.writeEndArray();
+                json.writeEndObject();
+                json.writeRaw('\n');
+            }
+        }
+    }
+}
@@ -3,8 +3,10 @@ package com.example.pawtopia.pawtopia.ecommerce.Service;
 import com.example.pawtopia.pawtopia.ecommerce.Entity.Order;
 import com.example.pawtopia.pawtopia.ecommerce.Entity.OrderItem;
 import com.example.pawtopia.pawtopia.ecommerce.Repository.OrderItemRepo;
+import com.example.pawtopia.pawtopia.ecommerce.Repository.OrderRepo;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import javax.naming.NameNotFoundException;
 import java.util.List;
@@ -16,12 +18,34 @@ public class OrderItemService {
     @Autowired
     OrderItemRepo oirepo;
 
+    @Autowired
+    ProductImageService productImageService;
+
+    @Autowired
+    OrderRepo orepo;
+
+    @Autowired
+    SalesAnalyticsService salesAnalyticsService;
+
     public OrderItemService() {
         super();
     }
 
+    // item changes re-apply the order to the sales rollups (units and item revenue)
+    @Transactional
     public OrderItem postOrderItemRecord(OrderItem orderItem) {
-        return oirepo.save(orderItem);
+        orderItem.setOrderItemImage(productImageService.toReference(orderItem.getOrderItemImage()));
+        Order order = orderItem.getOrder() == null || orderItem.getOrder().getOrderID() == null
+                ? null
+                : orepo.findById(orderItem.getOrder().getOrderID()).orElse(null);
+        if (order == null) {
+            return oirepo.save(orderItem);
+        }
+        orderItem.setOrder(order);
+        salesAnalyticsService.orderRemoved(order);
+        OrderItem saved = oirepo.save(orderItem);
+        salesAnalyticsService.orderAdded(order);
+        return saved;
     }
 //public OrderItem postOrderItemRecord(OrderItem orderItem) {
 //    // Attach the managed Order entity to avoid detached entity error
@@ -38,17 +62,24 @@ public class OrderItemService {
     }
 
     @SuppressWarnings("finally")
+    @Transactional
     public OrderItem putOrderItemDetails(int id, OrderItem newOrderItemDetails) {
         OrderItem orderItem = new OrderItem();
 
         try {
             orderItem = oirepo.findById(id).get();
+            if (orderItem.getOrder() != null) {
+                salesAnalyticsService.orderRemoved(orderItem.getOrder());
+            }
 
             orderItem.setOrderItemName(newOrderItemDetails.getOrderItemName());
-            orderItem.setOrderItemImage(newOrderItemDetails.getOrderItemImage());
+            orderItem.setOrderItemImage(productImageService.toReference(newOrderItemDetails.getOrderItemImage()));
             orderItem.setPrice(newOrderItemDetails.getPrice());
             orderItem.setQuantity(newOrderItemDetails.getQuantity());
             orderItem.setIsRated(newOrderItemDetails.isRated());
+            if (orderItem.getOrder() != null) {
+                salesAnalyticsService.orderAdded(orderItem.getOrder());
+            }
         } catch(NoSuchElementException nex) {
             throw new NameNotFoundException("Order " + id + " not found");
         } finally {
@@ -56,10 +87,20 @@ public class OrderItemService {
         }
     }
 
+    @Transactional
     public String deleteItemOrder(int id) {
         String msg = "";
-        if(oirepo.findById(id).isPresent()) {
-            oirepo.deleteById(id);
+        OrderItem orderItem = oirepo.findById(id).orElse(null);
+        if(orderItem != null) {
+            Order order = orderItem.getOrder();
+            if (order != null) {
+                salesAnalyticsService.orderRemoved(order);
+                order.getOrderItems().remove(orderItem);
+            }
+            oirepo.delete(orderItem);
+            if (order != null) {
+                salesAnalyticsService.orderAdded(order);
+            }
             msg = "Order successfully deleted!";
         } else {
             msg = id +  " NOT found";
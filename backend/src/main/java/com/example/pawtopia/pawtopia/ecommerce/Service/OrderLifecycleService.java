@@ -0,0 +1,131 @@
+package com.example.pawtopia.pawtopia.ecommerce.Service;
+
+import com.example.pawtopia.pawtopia.ecommerce.Entity.Order;
+import com.example.pawtopia.pawtopia.ecommerce.Entity.OrderStatus;
+import com.example.pawtopia.pawtopia.ecommerce.Exception.IllegalOrderTransitionException;
+import com.example.pawtopia.pawtopia.ecommerce.Repository.OrderRepo;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+// Status changes and admin edits of existing orders. Orders carry a @Version, so two
+// writers that loaded the same version can't both commit; the loser's transaction is
+// rolled back and run again against the fresh row (where the transition may no longer
+// be allowed). Committed status changes are published as OrderStatusChangedEvent.
+@Service
+public class OrderLifecycleService {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderLifecycleService.class);
+
+    private final OrderRepo orderRepo;
+    private final SalesAnalyticsService salesAnalyticsService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final int maxAttempts;
+    private final long backoffMs;
+
+    public OrderLifecycleService(OrderRepo orderRepo, SalesAnalyticsService salesAnalyticsService,
+                                 ApplicationEventPublisher eventPublisher, PlatformTransactionManager transactionManager,
+                                 @Value("${order.update.max-attempts:3}") int maxAttempts,
+                                 @Value("${order.update.backoff-ms:20}") long backoffMs) {
+        this.orderRepo = orderRepo;
+        this.salesAnalyticsService = salesAnalyticsService;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.maxAttempts = maxAttempts;
+        this.backoffMs = backoffMs;
+    }
+
+    // Moves the order to target. Asking for the status it already has is a no-op, so a
+    // repeated admin click or callback doesn't fail.
+    public Order transition(int orderId, OrderStatus target) {
+        return withRetry(() -> transactionTemplate.execute(status -> {
+            Order order = load(orderId);
+            if (order.getOrderStatus() == target) {
+                return order;
+            }
+            salesAnalyticsService.orderRemoved(order);
+            OrderStatus from = moveTo(order, target);
+            salesAnalyticsService.orderAdded(order);
+            Order saved = orderRepo.saveAndFlush(order);
+            eventPublisher.publishEvent(new OrderStatusChangedEvent(orderId, from, target, Instant.now()));
+            return saved;
+        }));
+    }
+
+    // Edit of an order's details by its customer. A changed orderStatus goes through the same
+    // transition rules; paymentStatus in the request is ignored, it follows the status.
+    // totalPrice and user are ignored too: the total is priced on the server when the order
+    // is placed (and is what gets charged), and an order never changes hands.
+    public Order updateDetails(int orderId, Order changes) {
+        return withRetry(() -> transactionTemplate.execute(status -> {
+            Order order = load(orderId);
+            salesAnalyticsService.orderRemoved(order);
+
+            order.setOrderDate(changes.getOrderDate());
+            order.setPaymentMethod(changes.getPaymentMethod());
+            OrderStatus target = changes.getOrderStatus();
+            OrderStatus from = order.getOrderStatus();
+            boolean statusChanged = target != null && target != from;
+            if (statusChanged) {
+                moveTo(order, target);
+            }
+
+            salesAnalyticsService.orderAdded(order);
+            Order saved = orderRepo.saveAndFlush(order);
+            if (statusChanged) {
+                eventPublisher.publishEvent(new OrderStatusChangedEvent(orderId, from, target, Instant.now()));
+            }
+            return saved;
+        }));
+    }
+
+    private Order load(int orderId) {
+        return orderRepo.findById(orderId)
+                .orElseThrow(() -> new NoSuchElementException("Order " + orderId + " not found"));
+    }
+
+    // validates and applies the transition, returns the previous status
+    private static OrderStatus moveTo(Order order, OrderStatus target) {
+        OrderStatus from = order.getOrderStatus();
+        if (from == null || !from.canMoveTo(target)) {
+            throw new IllegalOrderTransitionException(order.getOrderID(), from, target);
+        }
+        order.setOrderStatus(target);
+        order.setPaymentStatus(target.paymentStatusOnEntry(order.getPaymentStatus()));
+        return from;
+    }
+
+    private <T> T withRetry(Supplier<T> attempt) {
+        for (int i = 1; ; i++) {
+            try {
+                return attempt.get();
+            } catch (OptimisticLockingFailureException e) {
+                if (i >= maxAttempts) {
+                    throw e;
+                }
+                logger.debug("Order changed concurrently, retrying (attempt {} of {})", i + 1, maxAttempts);
+                sleep(backoffMs * i + ThreadLocalRandom.current().nextLong(backoffMs + 1));
+            }
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while retrying an order update", e);
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package com.example.pawtopia.pawtopia.ecommerce.Service;
+
+import java.time.Instant;
+import java.util.List;
+
+// Outbox payload of a new order
+public record OrderPlacedMessage(int orderId, Long userId, Instant placedAt, List<Integer> productIds) {
+}
@@ -2,17 +2,18 @@ package com.example.pawtopia.pawtopia.ecommerce.Service;
 
 import com.example.pawtopia.pawtopia.ecommerce.Entity.Order;
 import com.example.pawtopia.pawtopia.ecommerce.Entity.OrderItem;
-import com.example.pawtopia.pawtopia.ecommerce.Entity.Product;
+import com.example.pawtopia.pawtopia.ecommerce.Entity.OrderStatus;
+import com.example.pawtopia.pawtopia.ecommerce.Entity.PaymentStatus;
 import com.example.pawtopia.pawtopia.ecommerce.Entity.User;
 import com.example.pawtopia.pawtopia.ecommerce.Repository.OrderRepo;
-import com.example.pawtopia.pawtopia.ecommerce.Repository.ProductRepo;
 import com.example.pawtopia.pawtopia.ecommerce.Repository.UserRepo;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
-import javax.naming.NameNotFoundException;
+import java.time.Instant;
 import java.util.List;
-import java.util.NoSuchElementException;
+import java.util.Objects;
 import java.util.Optional;
 
 @Service
@@ -22,41 +23,59 @@ public class OrderService {
     OrderRepo orepo;
 
     @Autowired
-    ProductRepo productRepository;
+    UserRepo userRepo;
 
     @Autowired
-    UserRepo userRepo;
+    ProductImageService productImageService;
+
+    @Autowired
+    InventoryService inventoryService;
+
+    @Autowired
+    SalesAnalyticsService salesAnalyticsService;
+
+    @Autowired
+    OrderLifecycleService orderLifecycleService;
+
+    @Autowired
+    OutboxService outboxService;
+
+    @Autowired
+    CartPricingService cartPricingService;
 
     public OrderService() {
         super();
     }
 
+    // stock reservation, the order insert and its outbox event commit or roll back together;
+    // the follow-up work (clearing the cart) runs later from the outbox
+    @Transactional
     public Order postOrderRecord(Order order) {
         Long userId = order.getUser().getUserId();
+        order.setPlacedAt(Instant.now());
         User user = userRepo.findById(userId)
                 .orElseThrow(() -> new RuntimeException("User not found"));
         order.setUser(user);
 
-        // Set default orderStatus to PENDING if not provided
-        if (order.getOrderStatus() == null || order.getOrderStatus().trim().isEmpty()) {
-            order.setOrderStatus("PENDING");
-        }
+        // every order starts the lifecycle unpaid, whatever the client sent
+        order.setOrderStatus(OrderStatus.PENDING);
+        order.setPaymentStatus(PaymentStatus.PENDING);
 
         if (order.getOrderItems() != null) {
+            inventoryService.reserve(order.getOrderItems());
             for (OrderItem orderItem : order.getOrderItems()) {
-                Optional<Product> optionalProduct = productRepository.findById(Integer.parseInt(orderItem.getProductId()));
-                if (optionalProduct.isPresent()) {
-                    Product product = optionalProduct.get();
-                    product.setQuantity(product.getQuantity() - orderItem.getQuantity());
-                    product.setQuantitySold(product.getQuantitySold() + orderItem.getQuantity());
-                    productRepository.save(product);
-                } else {
-                    throw new RuntimeException("Product not found with ID: " + orderItem.getProductId());
-                }
+                orderItem.setOrderItemImage(productImageService.toReference(orderItem.getOrderItemImage()));
                 orderItem.setOrder(order);
             }
         }
-        return orepo.save(order);
+        // item prices and the total come from the catalog, not from the client
+        cartPricingService.priceOrder(userId, order);
+        Order saved = orepo.save(order);
+        salesAnalyticsService.orderAdded(saved);
+        outboxService.enqueue(OutboxService.ORDER_PLACED, new OrderPlacedMessage(saved.getOrderID(), userId,
+                saved.getPlacedAt(), saved.getOrderItems() == null ? List.of() : saved.getOrderItems().stream()
+                        .map(OrderItem::getProductId).filter(Objects::nonNull).distinct().toList()));
+        return saved;
     }
 
     public OrderService(OrderRepo orderRepository) {
@@ -76,42 +95,22 @@ public class OrderService {
         return orepo.findAll();
     }
 
-    @SuppressWarnings("finally")
+    // throws NoSuchElementException for an unknown id (nothing is saved)
     public Order putOrderDetails(int id, Order newOrderDetails) {
-        Order order = new Order();
-
-        try {
-            order = orepo.findById(id).get();
-
-            order.setOrderDate(newOrderDetails.getOrderDate());
-            order.setPaymentMethod(newOrderDetails.getPaymentMethod());
-            order.setPaymentStatus(newOrderDetails.getPaymentStatus());
-            order.setOrderStatus(newOrderDetails.getOrderStatus());
-            order.setTotalPrice(newOrderDetails.getTotalPrice());
-            order.setUser(newOrderDetails.getUser());
-        } catch(NoSuchElementException nex) {
-            throw new NameNotFoundException("Order " + id + " not found");
-        } finally {
-            return orepo.save(order);
-        }
+        return orderLifecycleService.updateDetails(id, newOrderDetails);
     }
 
-    public Order updateOrderStatus(int id, String status) {
-        Order order = orepo.findById(id)
-                .orElseThrow(() -> new NoSuchElementException("Order " + id + " not found"));
-        order.setOrderStatus(status);
-        if (status.equals("APPROVED")) {
-            order.setPaymentStatus("PAID");
-        } else if (status.equals("DECLINED")) {
-            order.setPaymentStatus("CANCELLED");
-        }
-        return orepo.save(order);
+    public Order updateOrderStatus(int id, OrderStatus status) {
+        return orderLifecycleService.transition(id, status);
     }
 
+    @Transactional
     public String deleteOrder(int id) {
         String msg = "";
-        if(orepo.findById(id).isPresent()) {
-            orepo.deleteById(id);
+        Optional<Order> order = orepo.findById(id);
+        if(order.isPresent()) {
+            salesAnalyticsService.orderRemoved(order.get());
+            orepo.delete(order.get());
             msg = "Order successfully deleted!";
         } else {
             msg = id +  " NOT found";
@@ -119,8 +118,9 @@ public class OrderService {
         return msg;
     }
 
+    // revenue of paid orders, read from the daily rollups
     public Double getTotalIncome() {
-        return orepo.calculateTotalIncome();
+        return salesAnalyticsService.getTotalIncome().doubleValue();
     }
 
     public Order findById(Integer orderId) {
@@ -0,0 +1,11 @@
+package com.example.pawtopia.pawtopia.ecommerce.Service;
+
+import com.example.pawtopia.pawtopia.ecommerce.Entity.OrderStatus;
+
+import java.time.Instant;
+
+// Published by OrderLifecycleService inside the transaction that changed the status.
+// Listeners that do follow-up work should use @TransactionalEventListener so they only
+// see transitions that were committed.
+public record OrderStatusChangedEvent(int orderId, OrderStatus from, OrderStatus to, Instant changedAt) {
+}
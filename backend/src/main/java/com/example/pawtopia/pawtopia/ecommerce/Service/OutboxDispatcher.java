@@ -0,0 +1,135 @@
+package com.example.pawtopia.pawtopia.ecommerce.Service;
+
+import com.example.pawtopia.pawtopia.ecommerce.Repository.OutboxClaimRepo.ClaimedEvent;
+import com.example.pawtopia.pawtopia.ecommerce.Repository.OutboxRepo;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Drains outbox_event in the background. A batch is claimed in one short transaction
+// (UPDATE ... FOR UPDATE SKIP LOCKED, so several instances can poll the same table),
+// then every event gets its own transaction: handlers + delete. A failed event is
+// retried with exponential backoff; a claimed event whose instance died becomes due
+// again when its lease runs out. Delivery is therefore at least once.
+@Service
+public class OutboxDispatcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(OutboxDispatcher.class);
+
+    private static final int MAX_ERROR_LENGTH = 2000;
+
+    private final OutboxRepo outboxRepo;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final Map<String, List<OutboxHandler<?>>> handlers = new HashMap<>();
+    private final boolean enabled;
+    private final int batchSize;
+    private final Duration lease;
+    private final int maxAttempts;
+    private final long retryBackoffMs;
+
+    public OutboxDispatcher(OutboxRepo outboxRepo, ObjectMapper objectMapper,
+                            PlatformTransactionManager transactionManager, List<OutboxHandler<?>> handlers,
+                            @Value("${outbox.enabled:true}") boolean enabled,
+                            @Value("${outbox.batch-size:50}") int batchSize,
+                            @Value("${outbox.lease-seconds:60}") long leaseSeconds,
+                            @Value("${outbox.max-attempts:10}") int maxAttempts,
+                            @Value("${outbox.retry-backoff-ms:1000}") long retryBackoffMs) {
+        this.outboxRepo = outboxRepo;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        for (OutboxHandler<?> handler : handlers) {
+            this.handlers.computeIfAbsent(handler.eventType(), type -> new ArrayList<>()).add(handler);
+        }
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.lease = Duration.ofSeconds(leaseSeconds);
+        this.maxAttempts = maxAttempts;
+        this.retryBackoffMs = retryBackoffMs;
+    }
+
+    @Scheduled(fixedDelayString = "${outbox.poll-interval-ms:1000}")
+    public void poll() {
+        if (!enabled) {
+            return;
+        }
+        // keep going while batches come back full
+        while (dispatchBatch() == batchSize) {
+        }
+    }
+
+    // claims and delivers one batch, returns how many events were claimed
+    public int dispatchBatch() {
+        Instant now = Instant.now();
+        List<ClaimedEvent> batch = transactionTemplate.execute(status ->
+                outboxRepo.claimBatch(batchSize, now, now.plus(lease), maxAttempts));
+        for (ClaimedEvent event : batch) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    deliver(event);
+                    outboxRepo.deleteEvent(event.id());
+                });
+            } catch (RuntimeException e) {
+                onFailure(event, e);
+            }
+        }
+        return batch.size();
+    }
+
+    private void deliver(ClaimedEvent event) {
+        List<OutboxHandler<?>> eventHandlers = handlers.get(event.eventType());
+        if (eventHandlers == null) {
+            // kept for a later version that knows the type
+            throw new IllegalStateException("No outbox handler for " + event.eventType());
+        }
+        for (OutboxHandler<?> handler : eventHandlers) {
+            handle(handler, event.payload());
+        }
+    }
+
+    private <T> void handle(OutboxHandler<T> handler, String payload) {
+        try {
+            handler.handle(objectMapper.readValue(payload, handler.payloadType()));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unreadable outbox payload for " + handler.eventType(), e);
+        }
+    }
+
+    private void onFailure(ClaimedEvent event, RuntimeException e) {
+        // 1x, 2x, 4x ... the base delay, at most an hour
+        long delayMs = Math.min(retryBackoffMs << Math.min(event.attempts() - 1, 20), Duration.ofHours(1).toMillis());
+        String error = e.toString();
+        transactionTemplate.executeWithoutResult(status -> outboxRepo.markFailed(event.id(),
+                Instant.now().plusMillis(delayMs), error.substring(0, Math.min(error.length(), MAX_ERROR_LENGTH))));
+        if (event.attempts() >= maxAttempts) {
+            logger.error("Outbox event {} ({}) failed {} times, giving up", event.id(), event.eventType(),
+                    event.attempts(), e);
+        } else {
+            logger.warn("Outbox event {} ({}) failed, attempt {} of {}: {}", event.id(), event.eventType(),
+                    event.attempts(), maxAttempts, error);
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("pending", outboxRepo.countPending(maxAttempts));
+        stats.put("failed", outboxRepo.countFailed(maxAttempts));
+        stats.put("oldestPending", outboxRepo.findOldestPending(maxAttempts));
+        stats.put("handlers", handlers.keySet());
+        return stats;
+    }
+}
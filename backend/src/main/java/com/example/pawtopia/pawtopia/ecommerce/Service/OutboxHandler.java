@@ -0,0 +1,13 @@
+package com.example.pawtopia.pawtopia.ecommerce.Service;
+
+// Receives outbox events of one type. handle runs in the transaction that deletes the
+// event, so database work commits exactly once with it; anything outside the database
+// can be repeated (delivery is at least once) and has to be idempotent.
+public interface OutboxHandler<T> {
+
+    String eventType();
+
+    Class<T> payloadType();
+
+    void handle(T payload);
+}
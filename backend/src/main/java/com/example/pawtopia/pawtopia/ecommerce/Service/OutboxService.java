@@ -0,0 +1,46 @@
+package com.example.pawtopia.pawtopia.ecommerce.Service;
+
+import com.example.pawtopia.pawtopia.ecommerce.Entity.OutboxEvent;
+import com.example.pawtopia.pawtopia.ecommerce.Repository.OutboxRepo;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+
+// Writes outbox events. Always joins the caller's transaction (MANDATORY), so an event
+// exists exactly when the change it describes has committed.
+@Service
+public class OutboxService {
+
+    public static final String ORDER_PLACED = "ORDER_PLACED";
+    public static final String ORDER_STATUS_CHANGED = "ORDER_STATUS_CHANGED";
+
+    private final OutboxRepo outboxRepo;
+    private final ObjectMapper objectMapper;
+
+    public OutboxService(OutboxRepo outboxRepo, ObjectMapper objectMapper) {
+        this.outboxRepo = outboxRepo;
+        this.objectMapper = objectMapper;
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueue(String eventType, Object payload) {
+        try {
+            outboxRepo.save(new OutboxEvent(eventType, objectMapper.writeValueAsString(payload), Instant.now()));
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Outbox payload can't be serialised: " + payload, e);
+        }
+    }
+
+    // status changes are published in-process by OrderLifecycleService; this makes them
+    // durable, inside the same transaction
+    @EventListener
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void onOrderStatusChanged(OrderStatusChangedEvent event) {
+        enqueue(ORDER_STATUS_CHANGED, event);
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.pawtopia.pawtopia.ecommerce.Service;
+
+import com.example.pawtopia.pawtopia.ecommerce.Entity.Order;
+import com.example.pawtopia.pawtopia.ecommerce.Exception.IdempotencyKeyReusedException;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+
+// Checkout-session creation with de-duplication in front of PaymongoClient.
+// Both caches hold futures, so a retry that arrives while the first call is still
+// running waits for that call instead of starting another one. Failed calls are
+// dropped from the caches and can be retried. An Idempotency-Key stays bound to the
+// order and amount it was first used for; reusing it for another payment is refused.
+@Service
+public class PaymentService {
+
+    private record PaymentLinkKey(Integer orderId, long amount) {}
+
+    // the request an Idempotency-Key was first used for, and its call
+    private record IdempotentCall(PaymentLinkKey request, CompletableFuture<String> checkoutUrl) {}
+
+    private final PaymongoClient paymongoClient;
+
+    // (order, amount) -> checkout url, lives as long as the PayMongo link does
+    private final AsyncCache<PaymentLinkKey, String> paymentLinks;
+
+    // "username:Idempotency-Key" -> request + checkout url
+    private final Cache<String, IdempotentCall> idempotentRequests;
+
+    public PaymentService(PaymongoClient paymongoClient,
+                          @Value("${paymongo.link-ttl-minutes:60}") long linkTtlMinutes,
+                          @Value("${paymongo.idempotency-ttl-minutes:10}") long idempotencyTtlMinutes,
+                          @Value("${paymongo.cache-max-size:10000}") long maxSize) {
+        this.paymongoClient = paymongoClient;
+        this.paymentLinks = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofMinutes(linkTtlMinutes))
+                .buildAsync();
+        this.idempotentRequests = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofMinutes(idempotencyTtlMinutes))
+                .build();
+    }
+
+    public CompletableFuture<String> createCheckoutUrl(Order order, String username, String idempotencyKey) {
+        long amount = CartPricingService.toCents(order.getTotalPrice());
+        if (idempotencyKey == null || idempotencyKey.isBlank()) {
+            return checkoutFor(order, amount);
+        }
+        String key = username + ":" + idempotencyKey;
+        PaymentLinkKey request = new PaymentLinkKey(order.getOrderID(), amount);
+        IdempotentCall call = idempotentRequests.get(key,
+                k -> new IdempotentCall(request, checkoutFor(order, amount)));
+        if (!call.request().equals(request)) {
+            return CompletableFuture.failedFuture(new IdempotencyKeyReusedException(idempotencyKey));
+        }
+        call.checkoutUrl().whenComplete((url, error) -> {
+            if (error != null) {
+                idempotentRequests.asMap().remove(key, call);
+            }
+        });
+        return call.checkoutUrl();
+    }
+
+    private CompletableFuture<String> checkoutFor(Order order, long amount) {
+        // an order that was never saved has nothing stable to key the link on
+        if (order.getOrderID() == null) {
+            return paymongoClient.createCheckoutUrl(amount, order.getDescription(), order.getRemarks());
+        }
+        return paymentLinks.get(new PaymentLinkKey(order.getOrderID(), amount),
+                (key, executor) -> paymongoClient.createCheckoutUrl(amount, order.getDescription(), order.getRemarks()));
+    }
+}
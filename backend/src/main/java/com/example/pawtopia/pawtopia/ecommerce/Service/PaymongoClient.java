@@ -0,0 +1,160 @@
+package com.example.pawtopia.pawtopia.ecommerce.Service;
+
+import com.example.pawtopia.pawtopia.ecommerce.Exception.PaymentGatewayException;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Semaphore;
+
+// Outbound PayMongo calls. One shared HttpClient (keeps connections alive and reuses
+// them), calls run asynchronously so no request thread waits on PayMongo, a bulkhead
+// caps in-flight calls and a circuit breaker stops calling a failing API.
+@Service
+public class PaymongoClient {
+
+    private static final Logger logger = LoggerFactory.getLogger(PaymongoClient.class);
+
+    private final ObjectMapper objectMapper;
+    private final HttpClient httpClient;
+    private final URI checkoutUri;
+    private final String authorization;
+    private final Duration requestTimeout;
+    private final String successUrl;
+    private final String failedUrl;
+    private final Semaphore bulkhead;
+    private final CircuitBreaker circuitBreaker;
+
+    public PaymongoClient(ObjectMapper objectMapper,
+                          @Value("${PAYMONGO_URL}") String paymongoUrl,
+                          @Value("${PAYMONGO_SECRET}") String paymongoSecretKey,
+                          @Value("${paymongo.connect-timeout-ms:2000}") long connectTimeoutMs,
+                          @Value("${paymongo.request-timeout-ms:5000}") long requestTimeoutMs,
+                          @Value("${paymongo.redirect.success:http://localhost:5173/payment-success}") String successUrl,
+                          @Value("${paymongo.redirect.failed:http://localhost:5173}") String failedUrl,
+                          @Value("${paymongo.max-concurrent-calls:20}") int maxConcurrentCalls,
+                          @Value("${paymongo.circuit.failure-threshold:5}") int failureThreshold,
+                          @Value("${paymongo.circuit.open-ms:30000}") long openMs) {
+        this.objectMapper = objectMapper;
+        this.httpClient = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofMillis(connectTimeoutMs))
+                .build();
+        this.checkoutUri = URI.create(paymongoUrl);
+        this.authorization = "Basic " + Base64.getEncoder()
+                .encodeToString((paymongoSecretKey + ":").getBytes(StandardCharsets.UTF_8));
+        this.requestTimeout = Duration.ofMillis(requestTimeoutMs);
+        this.successUrl = successUrl;
+        this.failedUrl = failedUrl;
+        this.bulkhead = new Semaphore(maxConcurrentCalls);
+        this.circuitBreaker = new CircuitBreaker(failureThreshold, openMs);
+    }
+
+    // Creates a checkout session and completes with its checkout_url.
+    // Fails with PaymentGatewayException (503 when rejected locally, 504 on timeout,
+    // 502 on I/O errors, PayMongo's own status on an error response).
+    public CompletableFuture<String> createCheckoutUrl(long amount, String description, String remarks) {
+        HttpRequest request = HttpRequest.newBuilder(checkoutUri)
+                .timeout(requestTimeout)
+                .header("Accept", "application/json")
+                .header("Content-Type", "application/json")
+                .header("Authorization", authorization)
+                .POST(HttpRequest.BodyPublishers.ofByteArray(checkoutBody(amount, description, remarks)))
+                .build();
+
+        if (!bulkhead.tryAcquire()) {
+            return CompletableFuture.failedFuture(
+                    new PaymentGatewayException(503, "Too many payment requests in progress, try again"));
+        }
+        if (!circuitBreaker.tryAcquire()) {
+            bulkhead.release();
+            return CompletableFuture.failedFuture(
+                    new PaymentGatewayException(503, "Payment provider unavailable, try again later"));
+        }
+
+        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+                .handle((response, error) -> {
+                    bulkhead.release();
+                    if (error != null) {
+                        circuitBreaker.onFailure();
+                        Throwable cause = error instanceof CompletionException && error.getCause() != null
+                                ? error.getCause()
+                                : error;
+                        logger.warn("PayMongo call failed: {}", cause.toString());
+                        if (cause instanceof HttpTimeoutException) {
+                            throw new PaymentGatewayException(504, "PayMongo request timed out", cause);
+                        }
+                        throw new PaymentGatewayException(502, "PayMongo request failed: " + cause.getMessage(), cause);
+                    }
+
+                    // 4xx means our request was wrong, not that PayMongo is unhealthy
+                    if (response.statusCode() >= 500) {
+                        circuitBreaker.onFailure();
+                    } else {
+                        circuitBreaker.onSuccess();
+                    }
+                    if (response.statusCode() < 200 || response.statusCode() >= 300) {
+                        throw new PaymentGatewayException(response.statusCode(), "PayMongo API Error: " + response.body());
+                    }
+                    return readCheckoutUrl(response.body());
+                });
+    }
+
+    public String getCircuitState() {
+        return circuitBreaker.getState();
+    }
+
+    // written field by field with a streaming generator, no string concatenation/escaping bugs
+    private byte[] checkoutBody(long amount, String description, String remarks) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(256);
+        try (JsonGenerator json = objectMapper.getFactory().createGenerator(out)) {
+            json.writeStartObject();
+            json.writeObjectFieldStart("data");
+            json.writeObjectFieldStart("attributes");
+            json.writeNumberField("amount", amount);
+            json.writeStringField("description", description);
+            json.writeStringField("remarks", remarks);
+            json.writeArrayFieldStart("payment_method_allowed");
+            json.writeString("gcash");
+            json.writeEndArray();
+            json.writeObjectFieldStart("redirect");
+            json.writeStringField("success", successUrl);
+            json.writeStringField("failed", failedUrl);
+            json.writeEndObject();
+            json.writeEndObject();
+            json.writeEndObject();
+            json.writeEndObject();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    private String readCheckoutUrl(String responseBody) {
+        try {
+            JsonNode checkoutUrl = objectMapper.readTree(responseBody).path("data").path("attributes").path("checkout_url");
+            if (!checkoutUrl.isTextual()) {
+                throw new PaymentGatewayException(502, "PayMongo response has no checkout_url");
+            }
+            return checkoutUrl.asText();
+        } catch (IOException e) {
+            throw new PaymentGatewayException(502, "Unreadable PayMongo response", e);
+        }
+    }
+}
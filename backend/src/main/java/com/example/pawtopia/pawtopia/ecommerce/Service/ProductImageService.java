@@ -0,0 +1,199 @@
+package com.example.pawtopia.pawtopia.ecommerce.Service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Keeps image bytes out of tblproduct/order_item: uploaded data: URLs are written to the
+// BlobStore and the column only keeps a "blob:<sha256>" reference, which BlobUrlSerializer
+// turns back into a /api/blob/<sha256> URL in responses. Only done when blob.store.persistent
+// says the store outlives the container; otherwise images stay inline in the row, as a
+// reference to a blob lost on redeploy can't be repaired.
+@Service
+public class ProductImageService {
+
+    public static final String BLOB_REF_PREFIX = "blob:";
+
+    // our own blob URL coming back from a client (e.g. an unchanged image on product edit)
+    private static final Pattern BLOB_URL = Pattern.compile(".*/api/blob/([0-9a-f]{64})(\\?.*)?");
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductImageService.class);
+
+    private final BlobStore blobStore;
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean storePersistent;
+    private final boolean migrateOnStartup;
+    private final int migrateBatchSize;
+
+    public ProductImageService(BlobStore blobStore, JdbcTemplate jdbcTemplate,
+                               @Value("${blob.store.persistent:false}") boolean storePersistent,
+                               @Value("${blob.migrate-on-startup:false}") boolean migrateOnStartup,
+                               @Value("${blob.migrate-batch-size:20}") int migrateBatchSize) {
+        this.blobStore = blobStore;
+        this.jdbcTemplate = jdbcTemplate;
+        this.storePersistent = storePersistent;
+        this.migrateOnStartup = migrateOnStartup;
+        this.migrateBatchSize = migrateBatchSize;
+        if (!storePersistent) {
+            logger.warn("blob.store.persistent is false, uploaded images are kept inline in the database");
+        }
+    }
+
+    // data: URL -> stored blob reference (kept inline without a persistent store), blob URL
+    // -> reference, anything else unchanged. IllegalArgumentException when a base64 data:
+    // URL doesn't decode.
+    public String toReference(String image) {
+        if (image == null || image.isBlank()) {
+            return image;
+        }
+        byte[] content = decodeDataUrl(image);
+        if (content != null && !storePersistent) {
+            return image;
+        }
+        if (content != null) {
+            try {
+                return BLOB_REF_PREFIX + blobStore.put(content);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not store image", e);
+            }
+        }
+        Matcher blobUrl = BLOB_URL.matcher(image);
+        if (blobUrl.matches()) {
+            return BLOB_REF_PREFIX + blobUrl.group(1);
+        }
+        return image;
+    }
+
+    // sha256 key of a reference, null for legacy/external image values
+    public static String keyOf(String image) {
+        return image != null && image.startsWith(BLOB_REF_PREFIX) ? image.substring(BLOB_REF_PREFIX.length()) : null;
+    }
+
+    // bytes of a base64 data: URL, null for anything else
+    private static byte[] decodeDataUrl(String image) {
+        if (!image.startsWith("data:")) {
+            return null;
+        }
+        int comma = image.indexOf(',');
+        if (comma < 0 || !image.substring(0, comma).endsWith(";base64")) {
+            return null;
+        }
+        return Base64.getMimeDecoder().decode(image.substring(comma + 1));
+    }
+
+    // Off by default (blob.migrate-on-startup). A failure is logged, it never stops startup.
+    @EventListener(ApplicationReadyEvent.class)
+    public void migrateOnStartup() {
+        if (!migrateOnStartup) {
+            return;
+        }
+        try {
+            migrateInlineImages();
+        } catch (RuntimeException e) {
+            logger.error("Inline image migration not run: {}", e.getMessage());
+        }
+    }
+
+    // One-off move of rows saved before the blob store existed, run from POST /admin/images/migrate.
+    // The column is only rewritten once the blob reads back with the same bytes; the original
+    // data: URL is the only copy until then. Refused unless blob.store.persistent says the
+    // store outlives the container, since a lost store can't be rebuilt from the references.
+    // Walks the tables by id in small batches; rows that don't decode are logged and left
+    // as they are, and re-running only picks up what is still inline.
+    public Map<String, Integer> migrateInlineImages() {
+        if (!storePersistent) {
+            throw new IllegalStateException("blob.store.path is not marked persistent (blob.store.persistent), "
+                    + "inline images are left in place");
+        }
+        int[] products = migrateColumn("tblproduct", "productid", "product_image");
+        int[] orderItems = migrateColumn("order_item", "order_itemid", "order_item_image");
+        if (products[0] + orderItems[0] + products[1] + orderItems[1] > 0) {
+            logger.info("Moved inline images to the blob store: {} products, {} order items ({} rows skipped)",
+                    products[0], orderItems[0], products[1] + orderItems[1]);
+        }
+        Map<String, Integer> result = new LinkedHashMap<>();
+        result.put("products", products[0]);
+        result.put("orderItems", orderItems[0]);
+        result.put("skipped", products[1] + orderItems[1]);
+        return result;
+    }
+
+    // {migrated, skipped}
+    private int[] migrateColumn(String table, String idColumn, String imageColumn) {
+        String select = "SELECT " + idColumn + " AS id, " + imageColumn + " AS image FROM " + table
+                + " WHERE " + idColumn + " > ? AND " + imageColumn + " LIKE 'data:%' ORDER BY " + idColumn + " LIMIT ?";
+        String update = "UPDATE " + table + " SET " + imageColumn + " = ? WHERE " + idColumn + " = ? AND "
+                + imageColumn + " = ?";
+
+        int migrated = 0;
+        int skipped = 0;
+        long lastId = 0;
+        while (true) {
+            List<Map<String, Object>> rows = jdbcTemplate.queryForList(select, lastId, migrateBatchSize);
+            if (rows.isEmpty()) {
+                return new int[]{migrated, skipped};
+            }
+            for (Map<String, Object> row : rows) {
+                lastId = ((Number) row.get("id")).longValue();
+                String image = (String) row.get("image");
+                byte[] content;
+                try {
+                    content = decodeDataUrl(image);
+                } catch (IllegalArgumentException e) {
+                    logger.warn("Skipping {} {}: image is not valid base64 ({})", table, lastId, e.getMessage());
+                    skipped++;
+                    continue;
+                }
+                if (content == null) {
+                    continue;
+                }
+                String key = storeVerified(content);
+                if (key == null) {
+                    logger.warn("Skipping {} {}: stored image did not read back intact", table, lastId);
+                    skipped++;
+                    continue;
+                }
+                // only if the row wasn't changed since it was read
+                migrated += jdbcTemplate.update(update, BLOB_REF_PREFIX + key, lastId, image);
+            }
+        }
+    }
+
+    // key of the stored content, null when the blob doesn't read back byte for byte
+    private String storeVerified(byte[] content) {
+        try {
+            String key = blobStore.put(content);
+            Optional<BlobStore.Blob> stored = blobStore.open(key);
+            if (stored.isEmpty()) {
+                return null;
+            }
+            try (BlobStore.Blob blob = stored.get()) {
+                if (blob.size() != content.length) {
+                    return null;
+                }
+                ByteArrayOutputStream copy = new ByteArrayOutputStream(content.length);
+                blob.transferTo(0, content.length, Channels.newChannel(copy));
+                return Arrays.equals(copy.toByteArray(), content) ? key : null;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not store image", e);
+        }
+    }
+}
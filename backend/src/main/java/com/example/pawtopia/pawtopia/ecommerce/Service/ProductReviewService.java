@@ -1,15 +1,23 @@
 package com.example.pawtopia.pawtopia.ecommerce.Service;
 
+import com.example.pawtopia.pawtopia.ecommerce.DTO.CursorPage;
+import com.example.pawtopia.pawtopia.ecommerce.DTO.ReviewView;
+import com.example.pawtopia.pawtopia.ecommerce.Entity.OrderStatus;
 import com.example.pawtopia.pawtopia.ecommerce.Entity.ProductReview;
-import com.example.pawtopia.pawtopia.ecommerce.Repository.OrderRepo;
+import com.example.pawtopia.pawtopia.ecommerce.Repository.OrderItemRepo;
 import com.example.pawtopia.pawtopia.ecommerce.Repository.ProductReviewRepo;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.NoSuchElementException;
+import java.util.Optional;
 
 @Service
 public class ProductReviewService {
@@ -18,7 +26,10 @@ public class ProductReviewService {
     private ProductReviewRepo productReviewRepo;
 
     @Autowired
-    private OrderRepo orderRepo;
+    private OrderItemRepo orderItemRepo;
+
+    @Autowired
+    private RatingSummaryService ratingSummaryService;
 
     private static final Logger logger = LoggerFactory.getLogger(ProductReviewService.class);
 
@@ -26,31 +37,33 @@ public class ProductReviewService {
         super();
     }
 
+    @Transactional
     public ProductReview postProductReviewRecord(ProductReview review) {
         try {
             logger.info("Attempting to save review: {}", review);
             if (review.getRatings() < 1 || review.getRatings() > 5) {
                 throw new IllegalArgumentException("Rating must be between 1 and 5");
             }
-            boolean canReview = orderRepo.findByUser_UserId(review.getUser().getUserId())
-                    .stream()
-                    .anyMatch(order -> order.getOrderStatus().equals("APPROVED") &&
-                            order.getOrderItems().stream()
-                                    .anyMatch(item -> item.getProductId().equals(String.valueOf(review.getProduct().getProductID()))));
+            boolean canReview = orderItemRepo.hasPurchased(review.getUser().getUserId(),
+                    review.getProduct().getProductID(), OrderStatus.PAID);
             if (!canReview) {
                 throw new IllegalStateException("User can only review products from approved orders");
             }
 
             // Check for existing review for the same product, user, and order
-            boolean alreadyReviewed = productReviewRepo.findAll().stream()
-                    .anyMatch(r -> r.getProduct().getProductID() == review.getProduct().getProductID() &&
-                            r.getUser().getUserId().equals(review.getUser().getUserId()) &&
-                            r.getOrderID() == review.getOrderID());
-            if (alreadyReviewed) {
+            if (productReviewRepo.existsReview(review.getProduct().getProductID(),
+                    review.getUser().getUserId(), review.getOrderID())) {
                 throw new IllegalStateException("User has already reviewed this product for this order");
             }
 
-            ProductReview savedReview = productReviewRepo.save(review);
+            ProductReview savedReview;
+            try {
+                savedReview = productReviewRepo.save(review);
+            } catch (DataIntegrityViolationException e) {
+                // a concurrent request saved the same review first
+                throw new IllegalStateException("User has already reviewed this product for this order");
+            }
+            ratingSummaryService.reviewAdded(savedReview.getProduct().getProductID(), savedReview.getRatings());
             logger.info("Review saved successfully: {}, username: {}", savedReview, savedReview.getUsername());
             return savedReview;
         } catch (Exception e) {
@@ -70,21 +83,30 @@ public class ProductReviewService {
                 .orElseThrow(() -> new NoSuchElementException("Review with id " + id + " not found."));
     }
 
+    @Transactional
     public ProductReview updateReview(int id, ProductReview productReviewRecord) {
         logger.info("Updating review with ID: {}", id);
+        if (productReviewRecord.getRatings() < 1 || productReviewRecord.getRatings() > 5) {
+            throw new IllegalArgumentException("Rating must be between 1 and 5");
+        }
         ProductReview existingReview = productReviewRepo.findById(id)
                 .orElseThrow(() -> new NoSuchElementException("Review with id " + id + " not found."));
+        ratingSummaryService.ratingChanged(existingReview.getProduct().getProductID(),
+                existingReview.getRatings(), productReviewRecord.getRatings());
         existingReview.setRatings(productReviewRecord.getRatings());
         existingReview.setComment(productReviewRecord.getComment());
         existingReview.setOrderID(productReviewRecord.getOrderID());
         return productReviewRepo.save(existingReview);
     }
 
+    @Transactional
     public String deleteReview(int id) {
         logger.info("Deleting review with ID: {}", id);
         String msg;
-        if (productReviewRepo.existsById(id)) {
-            productReviewRepo.deleteById(id);
+        Optional<ProductReview> review = productReviewRepo.findById(id);
+        if (review.isPresent()) {
+            ratingSummaryService.reviewRemoved(review.get().getProduct().getProductID(), review.get().getRatings());
+            productReviewRepo.delete(review.get());
             msg = "Review record successfully deleted.";
         } else {
             msg = "Review with id " + id + " not found.";
@@ -92,6 +114,35 @@ public class ProductReviewService {
         return msg;
     }
 
+    // one projection query per page, sort = newest|rating
+    public CursorPage<ReviewView> getReviewFeed(int productId, String sort, String cursor, int size) {
+        boolean byRating = "rating".equals(sort);
+        if (!byRating && !"newest".equals(sort)) {
+            throw new IllegalArgumentException("Unknown sort: " + sort);
+        }
+        Limit limit = Limit.of(size + 1);
+
+        List<ReviewView> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = byRating
+                    ? productReviewRepo.findTopRated(productId, limit)
+                    : productReviewRepo.findNewest(productId, limit);
+        } else {
+            String[] lastRow = CursorPage.decodeCursor(cursor);
+            int lastId = Integer.parseInt(lastRow[1]);
+            rows = byRating
+                    ? productReviewRepo.findTopRatedAfter(productId, Integer.parseInt(lastRow[0]), lastId, limit)
+                    : productReviewRepo.findNewestAfter(productId, lastId, limit);
+        }
+
+        if (rows.size() <= size) {
+            return new CursorPage<>(rows, null);
+        }
+        List<ReviewView> page = new ArrayList<>(rows.subList(0, size));
+        ReviewView last = page.get(size - 1);
+        return new CursorPage<>(page, CursorPage.encodeCursor(byRating ? last.ratings() : "", last.reviewID()));
+    }
+
     public List<ProductReview> getReviewsByProductId(int productId) {
         return productReviewRepo.findReviewsByProductId(productId);
     }
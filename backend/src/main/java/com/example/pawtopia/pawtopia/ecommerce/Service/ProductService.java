@@ -1,12 +1,29 @@
 package com.example.pawtopia.pawtopia.ecommerce.Service;
 
+import com.example.pawtopia.pawtopia.ecommerce.DTO.CursorPage;
+import com.example.pawtopia.pawtopia.ecommerce.DTO.ProductSummary;
+import com.example.pawtopia.pawtopia.ecommerce.DTO.RatingSummary;
+import com.example.pawtopia.pawtopia.ecommerce.DTO.TopSeller;
 import com.example.pawtopia.pawtopia.ecommerce.Entity.Product;
+import com.example.pawtopia.pawtopia.ecommerce.Repository.OrderItemRepo;
 import com.example.pawtopia.pawtopia.ecommerce.Repository.ProductRepo;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.NoSuchElementException;
+import java.util.Objects;
 
 @Service
 public class ProductService {
@@ -14,16 +31,165 @@ public class ProductService {
 
     ProductRepo prepo;
 
+    @Autowired
+    ProductImageService productImageService;
+
+    @Autowired
+    ImageVariantService imageVariantService;
+
+    @Autowired
+    OrderItemRepo orderItemRepo;
+
+    @Autowired
+    RatingSummaryService ratingSummaryService;
+
+    @Autowired
+    CartPricingService cartPricingService;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // catalog sort parameter -> Product attribute
+    private static final Map<String, String> CATALOG_SORT_FIELDS = Map.of(
+            "price", "productPrice",
+            "name", "productName",
+            "quantitySold", "quantitySold");
+
+    // what a NULL sort value (rows from before the columns were NOT NULL) is read as, in
+    // the ORDER BY, the cursor and the comparison alike, so such rows page like any other
+    private static final Map<String, Object> CATALOG_SORT_NULLS = Map.of(
+            "price", 0.0,
+            "name", "",
+            "quantitySold", 0);
+
     public Product postProductRecord(Product product) {
+        product.setProductImage(productImageService.toReference(product.getProductImage()));
+        imageVariantService.requestVariants(product.getProductImage());
         return prepo.save(product);
     }
 
     public List<Product> getAllProduct() {
-        return prepo.findAll();
+        List<Product> products = prepo.findAll();
+        Map<Integer, RatingSummary> ratings = ratingSummaryService.getSummaries(
+                products.stream().map(Product::getProductID).toList());
+        for (Product product : products) {
+            product.setRatingSummary(ratings.getOrDefault(product.getProductID(), RatingSummary.EMPTY));
+        }
+        return products;
+    }
+
+    // Keyset-paginated catalog: WHERE (sortField, id) > (cursor) ORDER BY sortField, id,
+    // so every page costs the same no matter how deep it is. Selects only the list
+    // columns, never the reviews; an image still stored inline as a data: URL is read
+    // as null so its bytes stay in the database.
+    public CursorPage<ProductSummary> getCatalog(String productType, Double minPrice, Double maxPrice,
+                                                 String sort, String direction, String cursor, int size) {
+        String sortField = CATALOG_SORT_FIELDS.get(sort);
+        if (sortField == null) {
+            throw new IllegalArgumentException("Unknown sort: " + sort);
+        }
+        boolean ascending = !"desc".equalsIgnoreCase(direction);
+
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<ProductSummary> query = cb.createQuery(ProductSummary.class);
+        Root<Product> product = query.from(Product.class);
+        Expression<Comparable<Object>> sortValue = sortKey(cb, product.get(sortField), CATALOG_SORT_NULLS.get(sort));
+        Path<Integer> idPath = product.get("ProductID");
+
+        List<Predicate> filters = new ArrayList<>();
+        if (productType != null && !productType.isBlank()) {
+            filters.add(cb.equal(product.get("productType"), productType));
+        }
+        if (minPrice != null) {
+            filters.add(cb.ge(product.get("productPrice"), minPrice));
+        }
+        if (maxPrice != null) {
+            filters.add(cb.le(product.get("productPrice"), maxPrice));
+        }
+        if (cursor != null && !cursor.isBlank()) {
+            String[] lastRow = CursorPage.decodeCursor(cursor);
+            Comparable<?> lastValue = switch (sort) {
+                case "price" -> Double.valueOf(lastRow[0]);
+                case "quantitySold" -> Integer.valueOf(lastRow[0]);
+                default -> lastRow[0];
+            };
+            filters.add(afterCursor(cb, sortValue, lastValue, idPath, Integer.parseInt(lastRow[1]), ascending));
+        }
+
+        query.select(cb.construct(ProductSummary.class,
+                        idPath,
+                        product.get("productName"),
+                        product.get("productType"),
+                        product.get("productPrice"),
+                        product.get("quantity"),
+                        product.get("quantitySold"),
+                        withoutInlineImage(cb, product.get("productImage"))))
+                .where(filters.toArray(new Predicate[0]))
+                .orderBy(ascending ? cb.asc(sortValue) : cb.desc(sortValue),
+                        ascending ? cb.asc(idPath) : cb.desc(idPath));
+
+        // one extra row tells us whether there is a next page
+        List<ProductSummary> rows = entityManager.createQuery(query)
+                .setMaxResults(size + 1)
+                .getResultList();
+        List<ProductSummary> page = withRatings(rows.subList(0, Math.min(size, rows.size())));
+        if (rows.size() <= size) {
+            return new CursorPage<>(page, null);
+        }
+
+        ProductSummary last = page.get(size - 1);
+        Object lastValue = switch (sort) {
+            case "price" -> last.productPrice();
+            case "quantitySold" -> last.quantitySold();
+            default -> last.productName();
+        };
+        return new CursorPage<>(page, CursorPage.encodeCursor(
+                Objects.requireNonNullElse(lastValue, CATALOG_SORT_NULLS.get(sort)), last.productID()));
+    }
+
+    // ratings for the whole page in one IN query instead of a lookup per row
+    private List<ProductSummary> withRatings(List<ProductSummary> rows) {
+        Map<Integer, RatingSummary> ratings = ratingSummaryService.getSummaries(
+                rows.stream().map(ProductSummary::productID).toList());
+        List<ProductSummary> merged = new ArrayList<>(rows.size());
+        for (ProductSummary row : rows) {
+            merged.add(row.withRating(ratings.getOrDefault(row.productID(), RatingSummary.EMPTY)));
+        }
+        return merged;
+    }
+
+    private static Expression<String> withoutInlineImage(CriteriaBuilder cb, Path<String> image) {
+        return cb.<String>selectCase()
+                .when(cb.like(image, "data:%"), cb.nullLiteral(String.class))
+                .otherwise(image);
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Expression<Comparable<Object>> sortKey(CriteriaBuilder cb, Path column, Object nullValue) {
+        return cb.coalesce(column, nullValue);
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Predicate afterCursor(CriteriaBuilder cb, Expression sortValue, Comparable lastValue,
+                                         Path<Integer> idPath, int lastId, boolean ascending) {
+        if (ascending) {
+            return cb.or(cb.greaterThan(sortValue, lastValue),
+                    cb.and(cb.equal(sortValue, lastValue), cb.greaterThan(idPath, lastId)));
+        }
+        return cb.or(cb.lessThan(sortValue, lastValue),
+                cb.and(cb.equal(sortValue, lastValue), cb.lessThan(idPath, lastId)));
+    }
+
+    public List<TopSeller> getTopSellers(int limit) {
+        return orderItemRepo.findTopSellers(PageRequest.of(0, limit));
     }
 
     public Product getProductById(int productID) {
-        return prepo.findById(productID).orElse(null);
+        Product product = prepo.findById(productID).orElse(null);
+        if (product != null) {
+            product.setRatingSummary(ratingSummaryService.getSummary(productID));
+        }
+        return product;
     }
 
 
@@ -31,6 +197,7 @@ public class ProductService {
         Product existingProduct = prepo.findById(id)
                 .orElseThrow(() -> new NoSuchElementException("Product with id " + id + " not found."));
 
+        boolean priceChanged = existingProduct.getProductPrice() != productRecord.getProductPrice();
         existingProduct.setProductName(productRecord.getProductName());
         existingProduct.setProductPrice(productRecord.getProductPrice());
         existingProduct.setDescription(productRecord.getDescription());
@@ -38,16 +205,23 @@ public class ProductService {
         existingProduct.setQuantity(productRecord.getQuantity());
 
         if (productRecord.getProductImage() != null) {
-            existingProduct.setProductImage(productRecord.getProductImage());
+            existingProduct.setProductImage(productImageService.toReference(productRecord.getProductImage()));
+            imageVariantService.requestVariants(existingProduct.getProductImage());
         }
 
-        return prepo.save(existingProduct);
+        Product saved = prepo.save(existingProduct);
+        if (priceChanged) {
+            cartPricingService.pricesChanged();
+        }
+        return saved;
     }
 
     public String deleteProduct(int id) {
         String msg;
         if (prepo.existsById(id)) {
             prepo.deleteById(id);
+            // its cart items went with it
+            cartPricingService.pricesChanged();
             msg = "Product record successfully deleted.";
         } else {
             msg = "Product with id " + id + " not found.";
@@ -55,16 +229,8 @@ public class ProductService {
         return msg;
     }
 
+    // one SUM in the database instead of loading every product
     public int calculateTotalQuantitySold() {
-        // Fetch all products
-        List<Product> products = prepo.findAll();
-
-        // Calculate total quantitySold
-        int totalQuantitySold = 0;
-        for (Product product : products) {
-            totalQuantitySold += product.getQuantitySold();
-        }
-
-        return totalQuantitySold;
+        return (int) prepo.sumQuantitySold();
     }
 }
\ No newline at end of file
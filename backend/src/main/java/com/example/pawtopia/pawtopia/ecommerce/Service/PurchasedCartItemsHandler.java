@@ -0,0 +1,43 @@
+package com.example.pawtopia.pawtopia.ecommerce.Service;
+
+import com.example.pawtopia.pawtopia.ecommerce.Repository.CartItemRepo;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+// Takes the ordered products out of the buyer's cart. Items changed after the order was
+// placed (the product added again) are left alone.
+@Component
+public class PurchasedCartItemsHandler implements OutboxHandler<OrderPlacedMessage> {
+
+    private final CartItemRepo cartItemRepo;
+    private final CartPricingService cartPricingService;
+
+    public PurchasedCartItemsHandler(CartItemRepo cartItemRepo, CartPricingService cartPricingService) {
+        this.cartItemRepo = cartItemRepo;
+        this.cartPricingService = cartPricingService;
+    }
+
+    @Override
+    public String eventType() {
+        return OutboxService.ORDER_PLACED;
+    }
+
+    @Override
+    public Class<OrderPlacedMessage> payloadType() {
+        return OrderPlacedMessage.class;
+    }
+
+    @Override
+    public void handle(OrderPlacedMessage message) {
+        if (message.userId() == null || message.productIds().isEmpty()) {
+            return;
+        }
+        // CartItem.lastUpdated is a server-local LocalDateTime
+        LocalDateTime placedAt = LocalDateTime.ofInstant(message.placedAt(), ZoneId.systemDefault());
+        if (cartItemRepo.deleteOrderedItems(message.userId(), message.productIds(), placedAt) > 0) {
+            cartPricingService.cartChanged(message.userId());
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.pawtopia.pawtopia.ecommerce.Service;
+
+import com.example.pawtopia.pawtopia.ecommerce.DTO.RatingSummary;
+import com.example.pawtopia.pawtopia.ecommerce.Entity.ProductRatingSummary;
+import com.example.pawtopia.pawtopia.ecommerce.Repository.ProductRatingSummaryRepo;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+// Keeps product_rating_summary in step with the reviews table. Called from
+// ProductReviewService inside the transaction that writes the review.
+@Service
+public class RatingSummaryService {
+
+    private final ProductRatingSummaryRepo summaryRepo;
+
+    public RatingSummaryService(ProductRatingSummaryRepo summaryRepo) {
+        this.summaryRepo = summaryRepo;
+    }
+
+    @Transactional
+    public void reviewAdded(int productId, int rating) {
+        summaryRepo.applyDelta(productId, rating, 1);
+    }
+
+    @Transactional
+    public void reviewRemoved(int productId, int rating) {
+        summaryRepo.applyDelta(productId, rating, -1);
+    }
+
+    @Transactional
+    public void ratingChanged(int productId, int oldRating, int newRating) {
+        if (oldRating != newRating) {
+            summaryRepo.applyDelta(productId, oldRating, -1);
+            summaryRepo.applyDelta(productId, newRating, 1);
+        }
+    }
+
+    public RatingSummary getSummary(int productId) {
+        return RatingSummary.of(summaryRepo.findById(productId).orElse(null));
+    }
+
+    // one IN query for a page of products; products without reviews are absent
+    public Map<Integer, RatingSummary> getSummaries(Collection<Integer> productIds) {
+        Map<Integer, RatingSummary> summaries = new HashMap<>();
+        if (productIds.isEmpty()) {
+            return summaries;
+        }
+        for (ProductRatingSummary summary : summaryRepo.findByProductIdIn(productIds)) {
+            summaries.put(summary.getProductId(), RatingSummary.of(summary));
+        }
+        return summaries;
+    }
+}
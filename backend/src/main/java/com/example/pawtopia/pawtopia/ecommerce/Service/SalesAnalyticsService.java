@@ -0,0 +1,106 @@
+package com.example.pawtopia.pawtopia.ecommerce.Service;
+
+import com.example.pawtopia.pawtopia.ecommerce.DTO.ProductSales;
+import com.example.pawtopia.pawtopia.ecommerce.DTO.SalesTotals;
+import com.example.pawtopia.pawtopia.ecommerce.Entity.Order;
+import com.example.pawtopia.pawtopia.ecommerce.Entity.OrderStatus;
+import com.example.pawtopia.pawtopia.ecommerce.Entity.SalesDaily;
+import com.example.pawtopia.pawtopia.ecommerce.Repository.ProductSalesDailyRepo;
+import com.example.pawtopia.pawtopia.ecommerce.Repository.SalesDailyRepo;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.List;
+
+// Keeps sales_daily and product_sales_daily in step with the orders table. Every change
+// to an order is applied as "remove the order as it was, add it as it is now", called
+// from OrderService/OrderItemService inside the transaction that changes the order.
+// Range queries read one row per day (and product) and status, however many orders
+// those days hold.
+@Service
+public class SalesAnalyticsService {
+
+    // statuses whose revenue counts as income
+    public static final List<String> INCOME_STATUSES = OrderStatus.PAID.stream().map(Enum::name).toList();
+
+    // first key of the per-day advisory locks, keeps them apart from other advisory locks
+    private static final int DAY_LOCK_NAMESPACE = 0x5a1e5;
+
+    private final SalesDailyRepo salesDailyRepo;
+    private final ProductSalesDailyRepo productSalesDailyRepo;
+    private final ZoneId zone;
+
+    public SalesAnalyticsService(SalesDailyRepo salesDailyRepo, ProductSalesDailyRepo productSalesDailyRepo,
+                                 @Value("${analytics.zone:Asia/Manila}") String zone) {
+        this.salesDailyRepo = salesDailyRepo;
+        this.productSalesDailyRepo = productSalesDailyRepo;
+        this.zone = ZoneId.of(zone);
+    }
+
+    @Transactional
+    public void orderAdded(Order order) {
+        apply(order, 1);
+    }
+
+    // call before changing or deleting the order (or its items)
+    @Transactional
+    public void orderRemoved(Order order) {
+        apply(order, -1);
+    }
+
+    private void apply(Order order, int delta) {
+        LocalDate day = dayOf(order);
+        String status = statusOf(order);
+        // a status change decrements one status row and increments another; without the
+        // lock two orders moving in opposite directions deadlock on those rows
+        salesDailyRepo.lockDay(DAY_LOCK_NAMESPACE, (int) day.toEpochDay());
+        salesDailyRepo.applyDelta(day, status, order.getOrderID(), revenueOf(order), delta);
+        productSalesDailyRepo.applyDelta(day, status, order.getOrderID(), delta);
+    }
+
+    public List<SalesDaily> getDailySales(LocalDate from, LocalDate to) {
+        return salesDailyRepo.findByDayBetweenOrderByDayAscOrderStatusAsc(from, to);
+    }
+
+    public List<SalesTotals> getTotals(LocalDate from, LocalDate to) {
+        return salesDailyRepo.sumByStatus(from, to);
+    }
+
+    public List<ProductSales> getTopProducts(LocalDate from, LocalDate to, int limit) {
+        return productSalesDailyRepo.findTopProducts(from, to, INCOME_STATUSES, Limit.of(limit));
+    }
+
+    public List<SalesTotals> getProductTotals(int productId, LocalDate from, LocalDate to) {
+        return productSalesDailyRepo.sumByStatus(productId, from, to);
+    }
+
+    public BigDecimal getTotalIncome() {
+        return salesDailyRepo.sumRevenue(INCOME_STATUSES);
+    }
+
+    public LocalDate today() {
+        return LocalDate.now(zone);
+    }
+
+    // orders without placedAt are the ones the startup backfill couldn't date
+    LocalDate dayOf(Order order) {
+        return order.getPlacedAt() == null ? today() : order.getPlacedAt().atZone(zone).toLocalDate();
+    }
+
+    static String statusOf(Order order) {
+        return order.getOrderStatus() == null ? OrderStatus.PENDING.name() : order.getOrderStatus().name();
+    }
+
+    // same rounding as the backfill in SchemaMigrations, so removals cancel out exactly
+    static BigDecimal revenueOf(Order order) {
+        return order.getTotalPrice() == null
+                ? BigDecimal.ZERO
+                : BigDecimal.valueOf(order.getTotalPrice()).setScale(2, RoundingMode.HALF_UP);
+    }
+}
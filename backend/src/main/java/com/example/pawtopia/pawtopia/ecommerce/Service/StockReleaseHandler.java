@@ -0,0 +1,41 @@
+package com.example.pawtopia.pawtopia.ecommerce.Service;
+
+import com.example.pawtopia.pawtopia.ecommerce.Entity.OrderStatus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+// Puts the stock of a declined order back. Outbox delivery is at least once (an expired
+// lease or a retry after a lost commit runs the event again), so the release is guarded
+// by the order's stock_released flag, set in the same transaction as the stock update.
+@Component
+public class StockReleaseHandler implements OutboxHandler<OrderStatusChangedEvent> {
+
+    private static final Logger logger = LoggerFactory.getLogger(StockReleaseHandler.class);
+
+    private final InventoryService inventoryService;
+
+    public StockReleaseHandler(InventoryService inventoryService) {
+        this.inventoryService = inventoryService;
+    }
+
+    @Override
+    public String eventType() {
+        return OutboxService.ORDER_STATUS_CHANGED;
+    }
+
+    @Override
+    public Class<OrderStatusChangedEvent> payloadType() {
+        return OrderStatusChangedEvent.class;
+    }
+
+    @Override
+    public void handle(OrderStatusChangedEvent event) {
+        if (event.to() == OrderStatus.DECLINED) {
+            int products = inventoryService.release(event.orderId());
+            if (products > 0) {
+                logger.info("Released stock of declined order {} ({} products)", event.orderId(), products);
+            }
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.pawtopia.pawtopia.ecommerce.Service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.jsonwebtoken.Claims;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+
+// Local, in-memory replacement for the per-request user lookup: when an account is
+// changed or deleted we remember the time, and tokens issued before it are rejected.
+// Entries only need to live as long as a token does. Not shared between instances.
+@Service
+public class TokenRevocationService {
+
+    private final boolean enabled;
+
+    // username -> revocation time in epoch seconds
+    private final Cache<String, Long> revokedAt;
+
+    public TokenRevocationService(@Value("${jwt.revocation.enabled:true}") boolean enabled,
+                                  @Value("${jwt.revocation.max-entries:100000}") long maxEntries) {
+        this.enabled = enabled;
+        this.revokedAt = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterWrite(Duration.ofMillis(JwtService.TOKEN_VALIDITY_MS))
+                .build();
+    }
+
+    // every token of this user issued up to now stops working
+    public void revokeTokens(String username) {
+        if (enabled && username != null) {
+            revokedAt.put(username, System.currentTimeMillis() / 1000);
+        }
+    }
+
+    public boolean isRevoked(Claims claims) {
+        if (!enabled) {
+            return false;
+        }
+        Long revokedSeconds = revokedAt.getIfPresent(claims.getSubject());
+        if (revokedSeconds == null) {
+            return false;
+        }
+        // iat only has second precision, a token issued in the same second as the
+        // revocation is let through rather than locking out a fresh login
+        return claims.getIssuedAt() == null
+                || claims.getIssuedAt().getTime() / 1000 < revokedSeconds;
+    }
+}
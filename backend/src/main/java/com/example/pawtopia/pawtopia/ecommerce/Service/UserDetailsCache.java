@@ -0,0 +1,79 @@
+package com.example.pawtopia.pawtopia.ecommerce.Service;
+
+import com.example.pawtopia.pawtopia.ecommerce.Config.AuthenticatedUser;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+// Size-bounded, TTL-evicting cache in front of the user/admin lookups done by
+// CustomerUserDetailsService. Only used when the principal is database backed
+// (jwt.stateless-auth=false or tokens without a role claim) and for logins.
+@Service
+public class UserDetailsCache {
+
+    private record Key(AuthType authType, String username) {}
+
+    // Immutable copy, a fresh UserDetails is built on every hit because Spring
+    // erases the credentials of the instance it was handed after a login
+    private record Entry(String username, String password, Long userId,
+                         List<GrantedAuthority> authorities) {}
+
+    private final boolean enabled;
+    private final Cache<Key, Entry> cache;
+
+    public UserDetailsCache(@Value("${userdetails.cache.enabled:true}") boolean enabled,
+                            @Value("${userdetails.cache.max-size:1000}") long maxSize,
+                            @Value("${userdetails.cache.ttl-seconds:300}") long ttlSeconds) {
+        this.enabled = enabled;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+    }
+
+    public UserDetails get(AuthType authType, String username, Supplier<UserDetails> loader) {
+        if (!enabled) {
+            return loader.get();
+        }
+        // a UsernameNotFoundException from the loader is not cached
+        Entry entry = cache.get(new Key(authType, username), key -> toEntry(loader.get()));
+        return new AuthenticatedUser(entry.username(), entry.password(), entry.userId(), entry.authorities());
+    }
+
+    public void invalidate(AuthType authType, String username) {
+        if (username != null) {
+            cache.invalidate(new Key(authType, username));
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        CacheStats stats = cache.stats();
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("size", cache.estimatedSize());
+        result.put("hits", stats.hitCount());
+        result.put("misses", stats.missCount());
+        result.put("evictions", stats.evictionCount());
+        result.put("hitRate", stats.hitRate());
+        return result;
+    }
+
+    private static Entry toEntry(UserDetails userDetails) {
+        Collection<? extends GrantedAuthority> authorities = userDetails.getAuthorities();
+        Long userId = userDetails instanceof AuthenticatedUser authenticatedUser
+                ? authenticatedUser.getUserId()
+                : null;
+        return new Entry(userDetails.getUsername(), userDetails.getPassword(), userId, List.copyOf(authorities));
+    }
+}
@@ -30,6 +30,12 @@ public class UserService {
     @Autowired
     AuthenticationManager authenticationManager;
 
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+
+    @Autowired
+    private UserDetailsCache userDetailsCache;
+
     // register bago na user
     public String signUp(User user) {
         Optional<User> existingUser = userRepo.findByUsername(user.getUsername());
@@ -117,6 +123,9 @@ public class UserService {
     public String updateUser(Long userId, User updatedUser) {
         User existingUser = userRepo.findById(userId)
                 .orElseThrow(() -> new EntityNotFoundException("User not found with ID: " + userId));
+        String previousUsername = existingUser.getUsername();
+        String previousRole = existingUser.getRole();
+        boolean passwordChanged = false;
 
         // Update username if provided and not already taken
         if (updatedUser.getUsername() != null && !updatedUser.getUsername().isEmpty()) {
@@ -130,6 +139,7 @@ public class UserService {
         // Update password if provided
         if (updatedUser.getPassword() != null && !updatedUser.getPassword().isEmpty()) {
             existingUser.setPassword(passwordEncoder.encode(updatedUser.getPassword()));
+            passwordChanged = true;
         }
 
         // Update email if provided and not already taken
@@ -157,15 +167,23 @@ public class UserService {
         }
 
         userRepo.save(existingUser);
+        // old tokens still carry the previous username/role in their claims, and a new
+        // password should end other sessions; name/email/address edits keep the session
+        if (passwordChanged || !previousUsername.equals(existingUser.getUsername())
+                || !Objects.equals(previousRole, existingUser.getRole())) {
+            tokenRevocationService.revokeTokens(previousUsername);
+        }
+        userDetailsCache.invalidate(AuthType.CUSTOMER, previousUsername);
         return "User updated successfully!";
     }
 
     // Delete user (remains the same as before)
     public String deleteUser(Long userId) {
-        if (!userRepo.existsById(userId)) {
-            throw new EntityNotFoundException("User not found with ID: " + userId);
-        }
-        userRepo.deleteById(userId);
+        User user = userRepo.findById(userId)
+                .orElseThrow(() -> new EntityNotFoundException("User not found with ID: " + userId));
+        userRepo.delete(user);
+        tokenRevocationService.revokeTokens(user.getUsername());
+        userDetailsCache.invalidate(AuthType.CUSTOMER, user.getUsername());
         return "User deleted successfully!";
     }
 
@@ -235,6 +253,7 @@ public class UserService {
 
     // Update a user - useful for OAuth
     public User updateUser(User user) {
+        userDetailsCache.invalidate(AuthType.CUSTOMER, user.getUsername());
         return userRepo.save(user);
     }
 
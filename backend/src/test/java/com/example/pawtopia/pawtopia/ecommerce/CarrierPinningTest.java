@@ -0,0 +1,122 @@
+package com.example.pawtopia.pawtopia.ecommerce;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// On Java 21 a virtual thread that blocks inside a synchronized block/method pins its
+// carrier thread. Flags synchronized in our own code (comments and string literals are
+// skipped), use a java.util.concurrent lock instead. A synchronized section that never
+// blocks can stay when its line carries the ALLOWED marker comment.
+class CarrierPinningTest {
+
+    private static final Pattern SYNCHRONIZED = Pattern.compile("\\bsynchronized\\b");
+    static final String ALLOWED = "pinning: non-blocking";
+
+    @Test
+    void noSynchronizedInMainSources() throws IOException {
+        List<String> offenders = new ArrayList<>();
+        try (Stream<Path> files = Files.walk(Path.of("src/main/java"))) {
+            for (Path file : files.filter(f -> f.toString().endsWith(".java")).toList()) {
+                for (int line : synchronizedLines(Files.readString(file))) {
+                    offenders.add(file + ":" + line);
+                }
+            }
+        }
+        assertTrue(offenders.isEmpty(), "synchronized pins virtual threads: " + offenders);
+    }
+
+    @Test
+    void commentsAndLiteralsAreNotFlagged() {
+        String source = """
+                /**
+                 * Not {@code synchronized}, see below.
+                 */
+                class A {
+                    /* synchronized */ String a = "synchronized \\" synchronized";
+                    char q = '"'; String b = "x"; // synchronized
+                    String c = \"""
+                        synchronized
+                        \""";
+                }
+                """;
+
+        assertEquals(List.of(), synchronizedLines(source));
+    }
+
+    @Test
+    void codeIsFlaggedUnlessMarked() {
+        String source = """
+                class A {
+                    String s = "/*";
+                    synchronized void a() {}
+                    void b() { synchronized (this) { n++; } } // %s
+                    void c() { synchronized (this) {} }
+                }
+                """.formatted(ALLOWED);
+
+        assertEquals(List.of(3, 5), synchronizedLines(source));
+    }
+
+    // 1-based lines using synchronized in code, without the ALLOWED marker
+    static List<Integer> synchronizedLines(String source) {
+        String[] code = codeOnly(source).split("\n", -1);
+        String[] original = source.split("\n", -1);
+        List<Integer> lines = new ArrayList<>();
+        for (int i = 0; i < code.length; i++) {
+            if (SYNCHRONIZED.matcher(code[i]).find() && !original[i].contains(ALLOWED)) {
+                lines.add(i + 1);
+            }
+        }
+        return lines;
+    }
+
+    // the source with comments and string, text block and char literals blanked out;
+    // line breaks are kept so line numbers still match
+    static String codeOnly(String source) {
+        StringBuilder code = new StringBuilder(source.length());
+        int i = 0;
+        while (i < source.length()) {
+            int end;
+            if (source.startsWith("//", i)) {
+                end = source.indexOf('\n', i);
+            } else if (source.startsWith("/*", i)) {
+                end = source.indexOf("*/", i + 2);
+                end = end < 0 ? -1 : end + 2;
+            } else if (source.startsWith("\"\"\"", i)) {
+                end = literalEnd(source, i + 3, "\"\"\"");
+            } else if (source.charAt(i) == '"' || source.charAt(i) == '\'') {
+                end = literalEnd(source, i + 1, String.valueOf(source.charAt(i)));
+            } else {
+                code.append(source.charAt(i++));
+                continue;
+            }
+            end = end < 0 ? source.length() : end;
+            for (; i < end; i++) {
+                code.append(source.charAt(i) == '\n' ? '\n' : ' ');
+            }
+        }
+        return code.toString();
+    }
+
+    // index after the closing quote, skipping backslash escapes
+    private static int literalEnd(String source, int from, String quote) {
+        for (int i = from; i < source.length(); i++) {
+            if (source.charAt(i) == '\\') {
+                i++;
+            } else if (source.startsWith(quote, i)) {
+                return i + quote.length();
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.pawtopia.pawtopia.ecommerce.Config;
+
+import com.example.pawtopia.pawtopia.ecommerce.PostgresTest;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// The startup migrations against a schema created by Hibernate (each test rolls back)
+class SchemaMigrationsTest extends PostgresTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private SchemaMigrations migrations;
+    private Long userId;
+    private int reviewed;
+
+    @BeforeEach
+    void reviews() {
+        migrations = new SchemaMigrations(jdbcTemplate, entityManagerFactory, "Asia/Manila");
+        userId = jdbcTemplate.queryForObject("INSERT INTO users (username, password, email) "
+                + "VALUES ('reviewer', 'x', 'reviewer@test') RETURNING user_id", Long.class);
+        reviewed = insertProduct();
+        int orderId = 1;
+        for (int rating : new int[]{5, 4, 4}) {
+            insertReview(reviewed, rating, orderId++);
+        }
+    }
+
+    private void insertReview(int productId, int rating, int orderId) {
+        jdbcTemplate.update("INSERT INTO reviews (ratings, productid, userid, orderid) VALUES (?, ?, ?, ?)",
+                rating, productId, userId, orderId);
+    }
+
+    private int insertProduct() {
+        return jdbcTemplate.queryForObject("INSERT INTO tblproduct (product_name, product_price, quantity, "
+                + "quantity_sold) VALUES ('p', 1, 1, 0) RETURNING productid", Integer.class);
+    }
+
+    private List<Map<String, Object>> summaries() {
+        return jdbcTemplate.queryForList("SELECT product_id, review_count, rating_sum, star4, star5 "
+                + "FROM product_rating_summary ORDER BY product_id");
+    }
+
+    @Test
+    void ratingSummariesAreBuiltWhenTheTableIsEmpty() {
+        migrations.migrate();
+
+        assertEquals(List.of(Map.of("product_id", reviewed, "review_count", 3L, "rating_sum", 13L,
+                "star4", 2L, "star5", 1L)), summaries());
+    }
+
+    @Test
+    void ratingSummariesAreNotRebuiltOnceMaintained() {
+        migrations.migrate();
+        // written behind RatingSummaryService's back, only a full rebuild would count it
+        insertReview(insertProduct(), 2, 1);
+
+        migrations.migrate();
+
+        assertEquals(List.of(Map.of("product_id", reviewed, "review_count", 3L, "rating_sum", 13L,
+                "star4", 2L, "star5", 1L)), summaries());
+    }
+
+    private boolean reviewConstraintExists() {
+        return jdbcTemplate.queryForObject("SELECT EXISTS (SELECT 1 FROM pg_constraint "
+                + "WHERE conname = 'uk_review_product_user_order')", Boolean.class);
+    }
+
+    @Test
+    void duplicateReviewsAreArchivedBeforeTheConstraintIsAdded() {
+        // a database from before the constraint, holding a second review of order 1
+        jdbcTemplate.execute("ALTER TABLE reviews DROP CONSTRAINT uk_review_product_user_order");
+        insertReview(reviewed, 1, 1);
+
+        migrations.migrate();
+
+        assertTrue(reviewConstraintExists());
+        assertEquals(List.of(Map.of("ratings", 5, "orderid", 1), Map.of("ratings", 4, "orderid", 2),
+                Map.of("ratings", 4, "orderid", 3)),
+                jdbcTemplate.queryForList("SELECT ratings, orderid FROM reviews ORDER BY reviewid"));
+        assertEquals(List.of(Map.of("ratings", 1, "orderid", 1)),
+                jdbcTemplate.queryForList("SELECT ratings, orderid FROM reviews_duplicate_archive"));
+    }
+
+    @Test
+    void reviewStepIsSkippedOnceTheConstraintExists() {
+        migrations.migrate();
+
+        assertTrue(reviewConstraintExists());
+        assertNull(jdbcTemplate.queryForObject("SELECT to_regclass('reviews_duplicate_archive')::text", String.class));
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.pawtopia.pawtopia.ecommerce.Controller;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class BlobControllerTest {
+
+    @Test
+    void closedRange() {
+        assertArrayEquals(new long[]{0, 99}, BlobController.parseRange("bytes=0-99", 1000));
+        assertArrayEquals(new long[]{10, 10}, BlobController.parseRange("bytes=10-10", 1000));
+        // an end past the blob is cut to its last byte
+        assertArrayEquals(new long[]{900, 999}, BlobController.parseRange("bytes=900-5000", 1000));
+    }
+
+    @Test
+    void suffixRange() {
+        assertArrayEquals(new long[]{900, 999}, BlobController.parseRange("bytes=-100", 1000));
+        // longer than the blob: all of it
+        assertArrayEquals(new long[]{0, 999}, BlobController.parseRange("bytes=-5000", 1000));
+    }
+
+    @Test
+    void openEndedRange() {
+        assertArrayEquals(new long[]{500, 999}, BlobController.parseRange("bytes=500-", 1000));
+        assertArrayEquals(new long[]{999, 999}, BlobController.parseRange("bytes=999-", 1000));
+    }
+
+    @Test
+    void unsatisfiableOrUnsupportedRanges() {
+        assertNull(BlobController.parseRange("bytes=1000-", 1000));
+        assertNull(BlobController.parseRange("bytes=1000-1100", 1000));
+        assertNull(BlobController.parseRange("bytes=50-10", 1000));
+        assertNull(BlobController.parseRange("bytes=-0", 1000));
+        assertNull(BlobController.parseRange("bytes=0-0", 0));
+        // several ranges aren't supported, the caller answers 416
+        assertNull(BlobController.parseRange("bytes=0-10,20-30", 1000));
+        assertNull(BlobController.parseRange("items=0-10", 1000));
+        assertNull(BlobController.parseRange("bytes=abc-", 1000));
+        assertNull(BlobController.parseRange("bytes=10", 1000));
+    }
+}
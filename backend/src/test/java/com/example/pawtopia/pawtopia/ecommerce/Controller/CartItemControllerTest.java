@@ -0,0 +1,88 @@
+package com.example.pawtopia.pawtopia.ecommerce.Controller;
+
+import com.example.pawtopia.pawtopia.ecommerce.Config.AuthenticatedUser;
+import com.example.pawtopia.pawtopia.ecommerce.DTO.CartItemView;
+import com.example.pawtopia.pawtopia.ecommerce.Entity.User;
+import com.example.pawtopia.pawtopia.ecommerce.Repository.UserRepo;
+import com.example.pawtopia.pawtopia.ecommerce.Service.CartItemService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@ExtendWith(MockitoExtension.class)
+class CartItemControllerTest {
+
+    private static final CartItemView BOWL = new CartItemView(3, 2, LocalDateTime.of(2025, 10, 18, 9, 30),
+            12, "Bowl", "Accessories", 149.5, "blob:abc", 40);
+
+    @Mock
+    private CartItemService cartItemServ;
+
+    @Mock
+    private UserRepo userRepo;
+
+    @InjectMocks
+    private CartItemController cartItemController;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.standaloneSetup(cartItemController).build();
+    }
+
+    @Test
+    void myCartListsTheCustomersItems() throws Exception {
+        when(cartItemServ.getCartItemsOf(7L)).thenReturn(List.of(BOWL));
+
+        mockMvc.perform(get("/api/cartItem/myCart")
+                        .principal(new UsernamePasswordAuthenticationToken(
+                                new AuthenticatedUser("anna", "", 7L, List.of()), null, List.of())))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].cartItemId").value(3))
+                .andExpect(jsonPath("$[0].quantity").value(2))
+                .andExpect(jsonPath("$[0].productID").value(12))
+                .andExpect(jsonPath("$[0].productName").value("Bowl"))
+                .andExpect(jsonPath("$[0].productPrice").value(149.5))
+                .andExpect(jsonPath("$[0].productImage").value("http://localhost/api/blob/abc"))
+                .andExpect(jsonPath("$[0].stock").value(40));
+    }
+
+    @Test
+    void tokenWithoutUserIdIsResolvedByUsername() throws Exception {
+        User anna = new User();
+        anna.setUserId(9L);
+        when(userRepo.findByUsername("anna")).thenReturn(Optional.of(anna));
+        when(cartItemServ.getCartItemsOf(9L)).thenReturn(List.of());
+
+        mockMvc.perform(get("/api/cartItem/myCart")
+                        .principal(new UsernamePasswordAuthenticationToken("anna", null, List.of())))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(0));
+    }
+
+    @Test
+    void myCartNeedsALogin() throws Exception {
+        mockMvc.perform(get("/api/cartItem/myCart"))
+                .andExpect(status().isUnauthorized());
+
+        verifyNoInteractions(cartItemServ);
+    }
+}
@@ -0,0 +1,135 @@
+package com.example.pawtopia.pawtopia.ecommerce.Controller;
+
+import com.example.pawtopia.pawtopia.ecommerce.Entity.Order;
+import com.example.pawtopia.pawtopia.ecommerce.Entity.OrderStatus;
+import com.example.pawtopia.pawtopia.ecommerce.Entity.PaymentStatus;
+import com.example.pawtopia.pawtopia.ecommerce.Entity.User;
+import com.example.pawtopia.pawtopia.ecommerce.Service.OrderService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@ExtendWith(MockitoExtension.class)
+class OrderControllerTest {
+
+    // what the mobile app's OrderRepository posts
+    private static final String MOBILE_ORDER = """
+            {"orderDate":"2025-10-18","paymentMethod":"Cash on Delivery","paymentStatus":"PENDING",
+             "orderStatus":"%s","totalPrice":229.99,
+             "orderItems":[{"orderItemName":"Cat Food","orderItemImage":"","price":199.99,"quantity":1,"productId":"12"}],
+             "user":{"userId":7,"username":"anna"}}""";
+
+    @Mock
+    private OrderService oserv;
+
+    @InjectMocks
+    private OrderController orderController;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.standaloneSetup(orderController).build();
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("anna", null, List.of()));
+    }
+
+    @AfterEach
+    void clearAuthentication() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void mobileOrderWithLegacyStatusIsAccepted() throws Exception {
+        when(oserv.postOrderRecord(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        mockMvc.perform(post("/api/order/postOrderRecord")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(MOBILE_ORDER.formatted("To Receive")))
+                .andExpect(status().isOk());
+
+        ArgumentCaptor<Order> posted = ArgumentCaptor.forClass(Order.class);
+        verify(oserv).postOrderRecord(posted.capture());
+        assertEquals(OrderStatus.PENDING, posted.getValue().getOrderStatus());
+        assertEquals(PaymentStatus.PENDING, posted.getValue().getPaymentStatus());
+        assertEquals(12, posted.getValue().getOrderItems().get(0).getProductId());
+    }
+
+    @Test
+    void statusNamesAreReadInAnyCase() throws Exception {
+        when(oserv.postOrderRecord(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        mockMvc.perform(post("/api/order/postOrderRecord")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(MOBILE_ORDER.formatted("pending")))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void unknownStatusIsABadRequest() throws Exception {
+        mockMvc.perform(post("/api/order/postOrderRecord")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(MOBILE_ORDER.formatted("Teleported")))
+                .andExpect(status().isBadRequest());
+
+        verify(oserv, never()).postOrderRecord(any());
+    }
+
+    private static Order ownedBy(String username) {
+        User owner = new User();
+        owner.setUsername(username);
+        Order order = new Order();
+        order.setOrderID(5);
+        order.setTotalPrice(229.99);
+        order.setUser(owner);
+        return order;
+    }
+
+    @Test
+    void customerCannotEditAnotherCustomersOrder() throws Exception {
+        when(oserv.findById(5)).thenReturn(ownedBy("ben"));
+
+        mockMvc.perform(put("/api/order/putOrderDetails").param("id", "5")
+                        .principal(new UsernamePasswordAuthenticationToken("anna", null, List.of()))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"totalPrice\":1,\"user\":{\"userId\":7,\"username\":\"anna\"}}"))
+                .andExpect(status().isNotFound());
+
+        verify(oserv, never()).putOrderDetails(anyInt(), any());
+    }
+
+    @Test
+    void customerEditsTheirOwnOrder() throws Exception {
+        when(oserv.findById(5)).thenReturn(ownedBy("anna"));
+        when(oserv.putOrderDetails(eq(5), any())).thenReturn(ownedBy("anna"));
+
+        mockMvc.perform(put("/api/order/putOrderDetails").param("id", "5")
+                        .principal(new UsernamePasswordAuthenticationToken("anna", null, List.of()))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"paymentMethod\":\"GCash\",\"totalPrice\":1}"))
+                .andExpect(status().isOk());
+    }
+}
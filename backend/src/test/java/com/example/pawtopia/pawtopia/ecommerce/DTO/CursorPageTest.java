@@ -0,0 +1,43 @@
+package com.example.pawtopia.pawtopia.ecommerce.DTO;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CursorPageTest {
+
+    private static String encode(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void cursorRoundTrips() {
+        assertArrayEquals(new String[]{"149.5", "42"}, CursorPage.decodeCursor(CursorPage.encodeCursor(149.5, 42)));
+        assertArrayEquals(new String[]{"", "7"}, CursorPage.decodeCursor(CursorPage.encodeCursor("", 7)));
+    }
+
+    @Test
+    void separatorInTheSortValueSurvives() {
+        String cursor = CursorPage.encodeCursor("Cat | Dog Bowl ñ", 3);
+
+        assertArrayEquals(new String[]{"Cat | Dog Bowl ñ", "3"}, CursorPage.decodeCursor(cursor));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"not base64!", "%%%"})
+    void undecodableCursorIsRejected(String cursor) {
+        assertThrows(IllegalArgumentException.class, () -> CursorPage.decodeCursor(cursor));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"no separator", "name|", "name|abc", "name|1; DROP TABLE x", "name|99999999999"})
+    void tamperedCursorIsRejected(String raw) {
+        assertThrows(IllegalArgumentException.class, () -> CursorPage.decodeCursor(encode(raw)));
+    }
+}
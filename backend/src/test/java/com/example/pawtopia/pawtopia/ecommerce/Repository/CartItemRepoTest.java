@@ -0,0 +1,64 @@
+package com.example.pawtopia.pawtopia.ecommerce.Repository;
+
+import com.example.pawtopia.pawtopia.ecommerce.PostgresTest;
+import com.example.pawtopia.pawtopia.ecommerce.DTO.CartItemView;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// The cart page projection against PostgreSQL (each test rolls back)
+class CartItemRepoTest extends PostgresTest {
+
+    private static final LocalDateTime ADDED = LocalDateTime.of(2025, 10, 18, 9, 30);
+
+    @Autowired
+    private CartItemRepo cartItemRepo;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private long insertCart(String username) {
+        Long userId = jdbcTemplate.queryForObject("INSERT INTO users (username, password, email) "
+                + "VALUES (?, 'x', ?) RETURNING user_id", Long.class, username, username + "@test");
+        jdbcTemplate.update("INSERT INTO cart (user_id) VALUES (?)", userId);
+        return userId;
+    }
+
+    private int insertProduct(String name, double price, int stock, String image) {
+        return jdbcTemplate.queryForObject("INSERT INTO tblproduct (product_name, product_type, product_price, "
+                + "quantity, quantity_sold, product_image) VALUES (?, 'Toys', ?, ?, 0, ?) RETURNING productid",
+                Integer.class, name, price, stock, image);
+    }
+
+    private int insertItem(long cartId, int productId, int quantity) {
+        return jdbcTemplate.queryForObject("INSERT INTO cart_item (cart_id, product_id, quantity, last_updated) "
+                + "VALUES (?, ?, ?, ?) RETURNING cart_item_id", Integer.class, cartId, productId, quantity, ADDED);
+    }
+
+    @Test
+    void viewsCarryTheProductFieldsOfOneCart() {
+        long anna = insertCart("anna");
+        long ben = insertCart("ben");
+        int ball = insertProduct("Ball", 49.75, 12, "blob:abc");
+        int rope = insertProduct("Rope", 99.0, 0, null);
+        int first = insertItem(anna, ball, 2);
+        int second = insertItem(anna, rope, 1);
+        insertItem(ben, ball, 5);
+
+        List<CartItemView> views = cartItemRepo.findViewsByCartId(anna);
+
+        assertEquals(List.of(
+                new CartItemView(first, 2, ADDED, ball, "Ball", "Toys", 49.75, "blob:abc", 12),
+                new CartItemView(second, 1, ADDED, rope, "Rope", "Toys", 99.0, null, 0)), views);
+    }
+
+    @Test
+    void emptyCartHasNoViews() {
+        assertEquals(List.of(), cartItemRepo.findViewsByCartId(insertCart("anna")));
+    }
+}
@@ -0,0 +1,174 @@
+package com.example.pawtopia.pawtopia.ecommerce.Repository;
+
+import com.example.pawtopia.pawtopia.ecommerce.PostgresTest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Duplicate compaction against PostgreSQL, including a quantity change that races it
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class CartSweepRepoTest extends PostgresTest {
+
+    private static final LocalDateTime OLDER = LocalDateTime.of(2025, 10, 1, 8, 0);
+    private static final LocalDateTime NEWER = LocalDateTime.of(2025, 10, 18, 9, 30);
+
+    @Autowired
+    private CartItemRepo cartItemRepo;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transaction;
+    private final List<Long> cartIds = new ArrayList<>();
+    private int ball;
+    private int rope;
+
+    @BeforeEach
+    void products() {
+        transaction = new TransactionTemplate(transactionManager);
+        ball = insertProduct();
+        rope = insertProduct();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        for (long cartId : cartIds) {
+            jdbcTemplate.update("DELETE FROM cart_item WHERE cart_id = ?", cartId);
+            jdbcTemplate.update("DELETE FROM cart WHERE user_id = ?", cartId);
+            jdbcTemplate.update("DELETE FROM users WHERE user_id = ?", cartId);
+        }
+        jdbcTemplate.update("DELETE FROM tblproduct WHERE productid IN (?, ?)", ball, rope);
+    }
+
+    private int insertProduct() {
+        return jdbcTemplate.queryForObject("INSERT INTO tblproduct (product_name, product_price, quantity, "
+                + "quantity_sold) VALUES ('p', 1, 100, 0) RETURNING productid", Integer.class);
+    }
+
+    private long insertCart() {
+        String username = "shopper" + System.nanoTime();
+        Long userId = jdbcTemplate.queryForObject("INSERT INTO users (username, password, email) "
+                + "VALUES (?, 'x', ?) RETURNING user_id", Long.class, username, username + "@test");
+        jdbcTemplate.update("INSERT INTO cart (user_id) VALUES (?)", userId);
+        cartIds.add(userId);
+        return userId;
+    }
+
+    private int insertItem(long cartId, int productId, int quantity, LocalDateTime lastUpdated) {
+        return jdbcTemplate.queryForObject("INSERT INTO cart_item (cart_id, product_id, quantity, last_updated) "
+                + "VALUES (?, ?, ?, ?) RETURNING cart_item_id", Integer.class, cartId, productId, quantity,
+                Timestamp.valueOf(lastUpdated));
+    }
+
+    private List<Map<String, Object>> items(long cartId) {
+        return jdbcTemplate.queryForList("SELECT cart_item_id, product_id, quantity, last_updated FROM cart_item "
+                + "WHERE cart_id = ? ORDER BY cart_item_id", cartId);
+    }
+
+    private Map<Long, Integer> compact(int limit) {
+        return transaction.execute(status -> cartItemRepo.compactDuplicates(limit));
+    }
+
+    @Test
+    void duplicatesMergeIntoTheOldestRow() {
+        long cart = insertCart();
+        int kept = insertItem(cart, ball, 1, OLDER);
+        insertItem(cart, ball, 2, NEWER);
+        int single = insertItem(cart, rope, 4, OLDER);
+        insertItem(cart, ball, 3, OLDER);
+
+        assertEquals(Map.of(cart, 2), compact(10));
+
+        assertEquals(List.of(
+                Map.of("cart_item_id", kept, "product_id", ball, "quantity", 6, "last_updated", Timestamp.valueOf(NEWER)),
+                Map.of("cart_item_id", single, "product_id", rope, "quantity", 4, "last_updated", Timestamp.valueOf(OLDER))),
+                items(cart));
+        assertEquals(Map.of(), compact(10));
+    }
+
+    @Test
+    void limitCountsCarts() {
+        long first = insertCart();
+        long second = insertCart();
+        for (long cart : List.of(first, second)) {
+            insertItem(cart, ball, 1, OLDER);
+            insertItem(cart, ball, 1, OLDER);
+            insertItem(cart, rope, 1, OLDER);
+            insertItem(cart, rope, 1, OLDER);
+        }
+
+        assertEquals(Map.of(first, 2), compact(1));
+        assertEquals(Map.of(second, 2), compact(1));
+    }
+
+    // A writer outside the cart lock (CartItemService through JPA) changes a duplicate's
+    // quantity while compaction runs; the merge has to wait for it and count the new value.
+    @Test
+    void quantityChangeDuringCompactionIsKept() throws Exception {
+        long cart = insertCart();
+        int kept = insertItem(cart, ball, 1, OLDER);
+        int changed = insertItem(cart, ball, 2, OLDER);
+        CountDownLatch updated = new CountDownLatch(1);
+        CountDownLatch commit = new CountDownLatch(1);
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(2)) {
+            Future<?> writer = executor.submit(() -> transaction.executeWithoutResult(status -> {
+                jdbcTemplate.update("UPDATE cart_item SET quantity = 10 WHERE cart_item_id = ?", changed);
+                updated.countDown();
+                await(commit);
+            }));
+            assertTrue(updated.await(10, TimeUnit.SECONDS));
+            Future<Map<Long, Integer>> compaction = executor.submit(() -> compact(10));
+            awaitLockWait();
+            commit.countDown();
+
+            writer.get(10, TimeUnit.SECONDS);
+            assertEquals(Map.of(cart, 1), compaction.get(10, TimeUnit.SECONDS));
+        }
+        assertEquals(List.of(Map.of("cart_item_id", kept, "product_id", ball, "quantity", 11,
+                "last_updated", Timestamp.valueOf(OLDER))), items(cart));
+    }
+
+    // until some session waits for a row lock, i.e. compaction reached the locked item
+    private void awaitLockWait() throws InterruptedException {
+        for (int i = 0; i < 200; i++) {
+            if (jdbcTemplate.queryForObject("SELECT COUNT(*) FROM pg_stat_activity WHERE wait_event_type = 'Lock'",
+                    Integer.class) > 0) {
+                return;
+            }
+            Thread.sleep(50);
+        }
+        throw new AssertionError("compaction never waited for the writer");
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
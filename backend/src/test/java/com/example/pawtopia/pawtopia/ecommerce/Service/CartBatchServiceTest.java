@@ -0,0 +1,83 @@
+package com.example.pawtopia.pawtopia.ecommerce.Service;
+
+import com.example.pawtopia.pawtopia.ecommerce.DTO.CartOperation;
+import com.example.pawtopia.pawtopia.ecommerce.DTO.CartOperation.Type;
+import com.example.pawtopia.pawtopia.ecommerce.Repository.CartItemBatchRepo.CartRow;
+import com.example.pawtopia.pawtopia.ecommerce.Repository.CartItemRepo;
+import com.example.pawtopia.pawtopia.ecommerce.Repository.ProductRepo;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CartBatchServiceTest {
+
+    private final CartItemRepo cartItemRepo = mock(CartItemRepo.class);
+    private final ProductRepo productRepo = mock(ProductRepo.class);
+    private final CartPricingService cartPricingService = mock(CartPricingService.class);
+    private final CartBatchService service;
+
+    CartBatchServiceTest() {
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        service = new CartBatchService(cartItemRepo, productRepo, cartPricingService, transactionManager, 10);
+        // cart 1: item 10 = 2 x product 100, item 11 = 1 x product 101
+        when(cartItemRepo.lockCart(1L)).thenReturn(List.of(new CartRow(10, 100, 2), new CartRow(11, 101, 1)));
+    }
+
+    @Test
+    void operationsAreFoldedIntoOneWritePerKind() {
+        when(productRepo.findExistingIds(any())).thenReturn(List.of(102));
+
+        service.apply(1L, List.of(
+                new CartOperation(Type.ADD, null, 100, 3),
+                new CartOperation(Type.SET, 11, null, 0),
+                new CartOperation(Type.ADD, null, 102, 1),
+                new CartOperation(Type.ADD, null, 102, 1)));
+
+        verify(cartItemRepo).updateQuantities(eq(Map.of(10, 5)), any());
+        verify(cartItemRepo).deleteItems(List.of(11));
+        verify(cartItemRepo).insertItems(eq(1L), eq(Map.of(102, 2)), any());
+        verify(cartPricingService).cartChanged(1L);
+    }
+
+    @Test
+    void batchThatChangesNothingWritesNothing() {
+        service.apply(1L, List.of(
+                new CartOperation(Type.REMOVE, null, 100, null),
+                new CartOperation(Type.SET, null, 100, 2)));
+
+        verify(cartItemRepo, never()).updateQuantities(anyMap(), any());
+        verify(cartItemRepo, never()).deleteItems(any());
+        verify(cartItemRepo, never()).insertItems(anyLong(), anyMap(), any());
+        verify(cartPricingService, never()).cartChanged(any());
+    }
+
+    @Test
+    void itemOfAnotherCartRejectsTheWholeBatch() {
+        assertThrows(NoSuchElementException.class, () -> service.apply(1L, List.of(
+                new CartOperation(Type.SET, 10, null, 4),
+                new CartOperation(Type.REMOVE, 99, null, null))));
+
+        verify(cartItemRepo, never()).updateQuantities(anyMap(), any());
+    }
+
+    @Test
+    void negativeQuantityIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> service.apply(1L, List.of(
+                new CartOperation(Type.ADD, null, 100, -1))));
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.pawtopia.pawtopia.ecommerce.Service;
+
+import com.example.pawtopia.pawtopia.ecommerce.DTO.CartItemView;
+import com.example.pawtopia.pawtopia.ecommerce.DTO.CartTotals;
+import com.example.pawtopia.pawtopia.ecommerce.Entity.Order;
+import com.example.pawtopia.pawtopia.ecommerce.Entity.OrderItem;
+import com.example.pawtopia.pawtopia.ecommerce.Repository.CartItemRepo;
+import com.example.pawtopia.pawtopia.ecommerce.Repository.ProductRepo;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CartPricingServiceTest {
+
+    private final CartItemRepo cartItemRepo = mock(CartItemRepo.class);
+    private final ProductRepo productRepo = mock(ProductRepo.class);
+    private final CartPricingService service =
+            new CartPricingService(cartItemRepo, productRepo, new BigDecimal("30.00"), 100, 30);
+
+    private static CartItemView item(int cartItemId, int productId, double price, int quantity) {
+        return new CartItemView(cartItemId, quantity, null, productId, "P" + productId, null, price, null, 100);
+    }
+
+    @Test
+    void totalsAreExactInCents() {
+        // 0.1 * 3 + 0.2 is 0.5000000000000001 in double arithmetic
+        when(cartItemRepo.findViewsByCartId(1L)).thenReturn(List.of(item(10, 1, 0.1, 3), item(11, 2, 0.2, 1)));
+
+        CartTotals totals = service.priceCart(1L);
+
+        assertEquals(new BigDecimal("0.30"), totals.lines().get(0).lineTotal());
+        assertEquals(new BigDecimal("0.50"), totals.subtotal());
+        assertEquals(new BigDecimal("30.50"), totals.total());
+        assertEquals(4, totals.totalItems());
+    }
+
+    @Test
+    void pricesAreMemoizedUntilTheCartOrAPriceChanges() {
+        when(cartItemRepo.findViewsByCartId(1L)).thenReturn(List.of(item(10, 1, 99.99, 2)));
+
+        service.priceCart(1L);
+        service.priceCart(1L);
+        verify(cartItemRepo, times(1)).findViewsByCartId(1L);
+
+        service.cartChanged(1L);
+        service.priceCart(1L);
+        verify(cartItemRepo, times(2)).findViewsByCartId(1L);
+
+        service.pricesChanged();
+        service.priceCart(1L);
+        verify(cartItemRepo, times(3)).findViewsByCartId(1L);
+    }
+
+    @Test
+    void orderIsPricedFromTheCatalogNotTheClient() {
+        when(cartItemRepo.findViewsByCartId(7L)).thenReturn(List.of(item(10, 1, 19.99, 1)));
+        when(productRepo.findPrices(List.of(2))).thenReturn(List.of(new ProductRepo.ProductPrice(2, 5.05)));
+        OrderItem inCart = new OrderItem();
+        inCart.setProductId(1);
+        inCart.setQuantity(3);
+        inCart.setPrice(0.01);
+        OrderItem notInCart = new OrderItem();
+        notInCart.setProductId(2);
+        notInCart.setQuantity(1);
+        Order order = new Order();
+        order.setOrderItems(List.of(inCart, notInCart));
+        order.setTotalPrice(1.0);
+
+        long totalCents = service.priceOrder(7L, order);
+
+        // 3 x 19.99 + 5.05 + 30.00 shipping
+        assertEquals(9502, totalCents);
+        assertEquals(95.02, order.getTotalPrice());
+        assertEquals(19.99, inCart.getPrice());
+        verify(productRepo, times(1)).findPrices(any());
+    }
+
+    @Test
+    void emptyOrderHasNoShipping() {
+        Order order = new Order();
+
+        assertEquals(0, service.priceOrder(7L, order));
+        verify(productRepo, never()).findPrices(any());
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.pawtopia.pawtopia.ecommerce.Service;
+
+import com.example.pawtopia.pawtopia.ecommerce.Repository.CartItemRepo;
+import com.example.pawtopia.pawtopia.ecommerce.Repository.CartSweepRepo.SweepCandidates;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CartSweeperTest {
+
+    private final CartItemRepo cartItemRepo = mock(CartItemRepo.class);
+    private final CartPricingService cartPricingService = mock(CartPricingService.class);
+
+    private CartSweeper sweeper(int maxBatches) {
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        return new CartSweeper(cartItemRepo, cartPricingService, transactionManager, true, 30, true, 2, maxBatches, 0);
+    }
+
+    @Test
+    void cursorMovesPastCartsThatWereNotIdle() {
+        LocalDateTime t1 = LocalDateTime.of(2025, 1, 1, 0, 0);
+        LocalDateTime t2 = LocalDateTime.of(2025, 1, 2, 0, 0);
+        when(cartItemRepo.findSweepCandidates(any(), any(), eq(0), eq(2)))
+                .thenReturn(new SweepCandidates(Set.of(1L, 2L), 2, t1, 7));
+        when(cartItemRepo.findSweepCandidates(any(), eq(t1), eq(7), eq(2)))
+                .thenReturn(new SweepCandidates(Set.of(3L), 1, t2, 9));
+        // cart 2 got a fresh item, only cart 1 of the first batch is swept
+        when(cartItemRepo.sweepCarts(eq(Set.of(1L, 2L)), any(), any())).thenReturn(Map.of(1L, 4));
+        when(cartItemRepo.sweepCarts(eq(Set.of(3L)), any(), any())).thenReturn(Map.of(3L, 1));
+        when(cartItemRepo.compactDuplicates(anyInt())).thenReturn(Map.of());
+
+        CartSweeper sweeper = sweeper(10);
+        Map<String, Long> run = sweeper.run();
+
+        assertEquals(5L, run.get("rowsSwept"));
+        assertEquals(2L, sweeper.getStats().get("cartsSwept"));
+        verify(cartPricingService).cartChanged(1L);
+        verify(cartPricingService).cartChanged(3L);
+        verify(cartPricingService, never()).cartChanged(2L);
+    }
+
+    @Test
+    void runStopsAfterMaxBatches() {
+        when(cartItemRepo.findSweepCandidates(any(), any(), anyInt(), anyInt()))
+                .thenReturn(new SweepCandidates(Set.of(1L), 2, LocalDateTime.of(2025, 1, 1, 0, 0), 1));
+        when(cartItemRepo.sweepCarts(any(), any(), any())).thenReturn(Map.of());
+        when(cartItemRepo.compactDuplicates(anyInt())).thenReturn(Map.of(5L, 1));
+
+        sweeper(3).run();
+
+        verify(cartItemRepo, times(3)).sweepCarts(any(), any(), any());
+        verify(cartItemRepo, times(3)).compactDuplicates(2);
+    }
+}
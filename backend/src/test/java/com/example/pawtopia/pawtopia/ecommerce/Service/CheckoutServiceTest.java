@@ -0,0 +1,104 @@
+package com.example.pawtopia.pawtopia.ecommerce.Service;
+
+import com.example.pawtopia.pawtopia.ecommerce.DTO.CheckoutRequest;
+import com.example.pawtopia.pawtopia.ecommerce.Entity.Order;
+import com.example.pawtopia.pawtopia.ecommerce.Entity.OrderStatus;
+import com.example.pawtopia.pawtopia.ecommerce.Entity.User;
+import com.example.pawtopia.pawtopia.ecommerce.Exception.InsufficientStockException;
+import com.example.pawtopia.pawtopia.ecommerce.Repository.CartItemBatchRepo.CartRow;
+import com.example.pawtopia.pawtopia.ecommerce.Repository.CartItemRepo;
+import com.example.pawtopia.pawtopia.ecommerce.Repository.CheckoutRepo.CartStock;
+import com.example.pawtopia.pawtopia.ecommerce.Repository.OrderItemRepo;
+import com.example.pawtopia.pawtopia.ecommerce.Repository.OrderRepo;
+import com.example.pawtopia.pawtopia.ecommerce.Repository.ProductRepo;
+import com.example.pawtopia.pawtopia.ecommerce.Repository.UserRepo;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CheckoutServiceTest {
+
+    private final OrderRepo orderRepo = mock(OrderRepo.class);
+    private final OrderItemRepo orderItemRepo = mock(OrderItemRepo.class);
+    private final CartItemRepo cartItemRepo = mock(CartItemRepo.class);
+    private final UserRepo userRepo = mock(UserRepo.class);
+    private final SalesAnalyticsService salesAnalyticsService = mock(SalesAnalyticsService.class);
+    private final CheckoutService service;
+
+    CheckoutServiceTest() {
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        CartPricingService cartPricingService = new CartPricingService(cartItemRepo, mock(ProductRepo.class),
+                new BigDecimal("30.00"), 100, 10);
+        service = new CheckoutService(orderRepo, orderItemRepo, cartItemRepo, userRepo, cartPricingService,
+                salesAnalyticsService, transactionManager);
+
+        User user = new User();
+        user.setUserId(1L);
+        when(userRepo.findById(1L)).thenReturn(Optional.of(user));
+        when(salesAnalyticsService.today()).thenReturn(LocalDate.of(2025, 10, 18));
+        when(orderRepo.save(any())).thenAnswer(invocation -> {
+            Order order = invocation.getArgument(0);
+            order.setOrderID(7);
+            return order;
+        });
+        // cart 1: item 10 = 2 x product 100, item 11 = 1 x product 101, item 12 = 1 x product 102
+        when(cartItemRepo.lockCart(1L)).thenReturn(List.of(
+                new CartRow(10, 100, 2), new CartRow(11, 101, 1), new CartRow(12, 102, 1)));
+    }
+
+    @Test
+    void selectedItemsBecomeTheOrder() {
+        when(orderRepo.lockCartStock(List.of(10, 12))).thenReturn(List.of(
+                new CartStock(100, 2, 5, 199.99), new CartStock(102, 1, 1, 0.1)));
+
+        Order order = service.checkout(1L, new CheckoutRequest("GCash", List.of(12, 10)));
+
+        // 2 x 199.99 + 0.10 + 30.00 shipping
+        assertEquals(430.08, order.getTotalPrice());
+        assertEquals(OrderStatus.PENDING, order.getOrderStatus());
+        assertEquals("October 18, 2025", order.getOrderDate());
+        verify(orderRepo).reserveCartStock(List.of(10, 12));
+        verify(orderRepo).insertOrderItemsFromCart(7, List.of(10, 12));
+        verify(cartItemRepo).deleteItems(List.of(10, 12));
+        verify(salesAnalyticsService).orderAdded(order);
+    }
+
+    @Test
+    void shortStockPlacesNothing() {
+        when(orderRepo.lockCartStock(List.of(10, 11, 12))).thenReturn(List.of(
+                new CartStock(100, 2, 1, 10.0), new CartStock(101, 1, 1, 10.0), new CartStock(102, 1, 1, 10.0)));
+
+        InsufficientStockException e = assertThrows(InsufficientStockException.class,
+                () -> service.checkout(1L, new CheckoutRequest("COD", null)));
+
+        assertEquals(100, e.getProductId());
+        verify(orderRepo, never()).reserveCartStock(any());
+        verify(orderRepo, never()).save(any());
+        verify(cartItemRepo, never()).deleteItems(any());
+    }
+
+    @Test
+    void itemOutsideTheCartIsRejected() {
+        assertThrows(NoSuchElementException.class,
+                () -> service.checkout(1L, new CheckoutRequest("COD", List.of(10, 99))));
+
+        verify(orderRepo, never()).lockCartStock(any());
+        verify(orderRepo, never()).insertOrderItemsFromCart(anyInt(), any());
+    }
+}
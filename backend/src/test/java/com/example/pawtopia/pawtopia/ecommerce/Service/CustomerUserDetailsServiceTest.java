@@ -0,0 +1,74 @@
+package com.example.pawtopia.pawtopia.ecommerce.Service;
+
+import com.example.pawtopia.pawtopia.ecommerce.Entity.Admin;
+import com.example.pawtopia.pawtopia.ecommerce.Entity.User;
+import com.example.pawtopia.pawtopia.ecommerce.Repository.AdminRepo;
+import com.example.pawtopia.pawtopia.ecommerce.Repository.UserRepo;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class CustomerUserDetailsServiceTest {
+
+    private static final int REQUESTS = 20_000;
+
+    // the same username exists in both tables, so a lookup that picks up another
+    // request's auth type returns the wrong role
+    private CustomerUserDetailsService newService(UserDetailsCache cache) {
+        UserRepo userRepo = mock(UserRepo.class);
+        AdminRepo adminRepo = mock(AdminRepo.class);
+
+        User user = new User();
+        user.setUserId(7L);
+        user.setUsername("shared");
+        user.setPassword("user-hash");
+        user.setRole("CUSTOMER");
+        when(userRepo.findByUsername("shared")).thenReturn(Optional.of(user));
+        when(adminRepo.findByUsername("shared")).thenReturn(Optional.of(new Admin("shared", "admin-hash", "ADMIN")));
+
+        return new CustomerUserDetailsService(userRepo, adminRepo, cache);
+    }
+
+    @Test
+    void noAuthTypeLeakBetweenConcurrentRequests() throws Exception {
+        assertNoLeak(newService(new UserDetailsCache(false, 10, 60)));
+    }
+
+    @Test
+    void noAuthTypeLeakBetweenConcurrentRequestsWithCache() throws Exception {
+        assertNoLeak(newService(new UserDetailsCache(true, 10, 60)));
+    }
+
+    private void assertNoLeak(CustomerUserDetailsService service) throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<String>> results = new ArrayList<>();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < REQUESTS; i++) {
+                AuthType authType = i % 2 == 0 ? AuthType.ADMIN : AuthType.CUSTOMER;
+                results.add(executor.submit(() -> {
+                    start.await();
+                    UserDetails details = service.loadUserByUsername("shared", authType);
+                    return authType + "=" + details.getAuthorities().iterator().next().getAuthority();
+                }));
+            }
+            start.countDown();
+
+            for (int i = 0; i < REQUESTS; i++) {
+                String expected = i % 2 == 0 ? "ADMIN=ROLE_ADMIN" : "CUSTOMER=ROLE_CUSTOMER";
+                assertEquals(expected, results.get(i).get());
+            }
+        }
+    }
+}
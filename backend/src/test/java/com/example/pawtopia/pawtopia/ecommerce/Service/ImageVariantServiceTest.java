@@ -0,0 +1,81 @@
+package com.example.pawtopia.pawtopia.ecommerce.Service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.channels.Channels;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ImageVariantServiceTest {
+
+    private static final String KEY = "a".repeat(64);
+
+    private static byte[] png(int width, int height) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB), "png", out);
+        return out.toByteArray();
+    }
+
+    private static int widthOf(BlobStore store, String key) throws Exception {
+        try (BlobStore.Blob blob = store.open(key).orElseThrow()) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            blob.transferTo(0, blob.size(), Channels.newChannel(out));
+            return ImageIO.read(new ByteArrayInputStream(out.toByteArray())).getWidth();
+        }
+    }
+
+    @Test
+    void createsVariantsNarrowerThanTheOriginal(@TempDir Path dir) throws Exception {
+        BlobStore store = new LocalFileBlobStore(dir.toString());
+        String key = store.put(png(600, 300));
+        ImageVariantService service = new ImageVariantService(store, new int[]{160, 480, 1024}, 1, 10, 40_000_000);
+
+        service.generate(key);
+
+        assertEquals(160, widthOf(store, ImageVariantService.variantKey(key, 160)));
+        assertEquals(480, widthOf(store, ImageVariantService.variantKey(key, 480)));
+        // no upscaled copy, ?w=1024 gets the original
+        assertFalse(store.exists(ImageVariantService.variantKey(key, 1024)));
+        assertEquals(160, service.variantWidthFor(100));
+        assertEquals(null, service.variantWidthFor(2000));
+    }
+
+    @Test
+    void dropsWorkInsteadOfBlockingWhenSaturated() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        BlobStore store = mock(BlobStore.class);
+        when(store.open(anyString())).thenAnswer(invocation -> {
+            started.countDown();
+            release.await();
+            return Optional.empty();
+        });
+        ImageVariantService service = new ImageVariantService(store, new int[]{160}, 1, 1, 40_000_000);
+        try {
+            assertTrue(service.requestVariants("blob:" + KEY));
+            started.await();
+            assertTrue(service.requestVariants("blob:" + "b".repeat(64)));
+
+            long begin = System.nanoTime();
+            assertFalse(service.requestVariants("blob:" + "c".repeat(64)));
+            assertTrue(System.nanoTime() - begin < 1_000_000_000L);
+            assertEquals(1L, service.getStats().get("rejected"));
+        } finally {
+            release.countDown();
+            service.shutdown();
+        }
+    }
+}
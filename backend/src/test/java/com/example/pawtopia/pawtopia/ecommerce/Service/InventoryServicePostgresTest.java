@@ -0,0 +1,184 @@
+package com.example.pawtopia.pawtopia.ecommerce.Service;
+
+import com.example.pawtopia.pawtopia.ecommerce.PostgresTest;
+import com.example.pawtopia.pawtopia.ecommerce.Entity.OrderItem;
+import com.example.pawtopia.pawtopia.ecommerce.Entity.OrderStatus;
+import com.example.pawtopia.pawtopia.ecommerce.Exception.InsufficientStockException;
+import com.example.pawtopia.pawtopia.ecommerce.Repository.ProductRepo;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// The conditional stock UPDATE under concurrent checkouts and the release of a declined
+// order's stock under repeated delivery, against PostgreSQL
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class InventoryServicePostgresTest extends PostgresTest {
+
+    @Autowired
+    private ProductRepo productRepo;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private InventoryService service;
+    private TransactionTemplate transaction;
+    private final List<Integer> productIds = new ArrayList<>();
+    private final List<Integer> orderIds = new ArrayList<>();
+
+    @BeforeEach
+    void products() {
+        service = new InventoryService(productRepo);
+        transaction = new TransactionTemplate(transactionManager);
+        for (int i = 0; i < 2; i++) {
+            productIds.add(jdbcTemplate.queryForObject("INSERT INTO tblproduct (product_name, product_price, "
+                    + "quantity, quantity_sold) VALUES ('p', 1, 100, 0) RETURNING productid", Integer.class));
+        }
+    }
+
+    @AfterEach
+    void removeProducts() {
+        orderIds.forEach(id -> {
+            jdbcTemplate.update("DELETE FROM order_item WHERE order_id = ?", id);
+            jdbcTemplate.update("DELETE FROM orders WHERE order_id = ?", id);
+        });
+        productIds.forEach(id -> jdbcTemplate.update("DELETE FROM tblproduct WHERE productid = ?", id));
+    }
+
+    private static OrderItem item(int productId, int quantity) {
+        OrderItem orderItem = new OrderItem();
+        orderItem.setProductId(productId);
+        orderItem.setQuantity(quantity);
+        return orderItem;
+    }
+
+    // runs the orders at once, each in its own transaction; returns how many were placed
+    private int placeConcurrently(List<List<OrderItem>> orders) throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Boolean>> results = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(16)) {
+            for (List<OrderItem> order : orders) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    try {
+                        transaction.executeWithoutResult(status -> service.reserve(order));
+                        return true;
+                    } catch (InsufficientStockException e) {
+                        return false;
+                    }
+                }));
+            }
+            start.countDown();
+            int placed = 0;
+            for (Future<Boolean> result : results) {
+                placed += result.get() ? 1 : 0;
+            }
+            return placed;
+        }
+    }
+
+    private Map<String, Object> stock(int productId) {
+        return jdbcTemplate.queryForMap("SELECT quantity, quantity_sold FROM tblproduct WHERE productid = ?",
+                productId);
+    }
+
+    @Test
+    void concurrentCheckoutsNeverOversell() throws Exception {
+        int productId = productIds.get(0);
+        List<List<OrderItem>> orders = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            orders.add(List.of(item(productId, 1)));
+        }
+
+        assertEquals(100, placeConcurrently(orders));
+        assertEquals(Map.of("quantity", 0, "quantity_sold", 100), stock(productId));
+    }
+
+    @Test
+    void ordersListingProductsInOppositeOrderDontDeadlock() throws Exception {
+        int first = productIds.get(0);
+        int second = productIds.get(1);
+        List<List<OrderItem>> orders = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            orders.add(i % 2 == 0
+                    ? List.of(item(first, 1), item(second, 1))
+                    : List.of(item(second, 1), item(first, 1)));
+        }
+
+        // a deadlock would surface as an exception from get()
+        assertEquals(100, placeConcurrently(orders));
+        assertEquals(Map.of("quantity", 0, "quantity_sold", 100), stock(first));
+        assertEquals(Map.of("quantity", 0, "quantity_sold", 100), stock(second));
+    }
+
+    // a placed order of 3 units of the first product, declined
+    private int declinedOrder() {
+        int productId = productIds.get(0);
+        transaction.executeWithoutResult(status -> service.reserve(List.of(item(productId, 3))));
+        int orderId = jdbcTemplate.queryForObject("INSERT INTO orders (order_status, payment_status, version) "
+                + "VALUES ('DECLINED', 'CANCELLED', 0) RETURNING order_id", Integer.class);
+        orderIds.add(orderId);
+        jdbcTemplate.update("INSERT INTO order_item (order_itemid, order_id, product_id, order_item_name, price, "
+                + "quantity, is_rated) VALUES (?, ?, ?, 'p', 1, 3, false)", 3000000 + orderId, orderId, productId);
+        return orderId;
+    }
+
+    private void deliver(StockReleaseHandler handler, int orderId) {
+        transaction.executeWithoutResult(status -> handler.handle(new OrderStatusChangedEvent(orderId,
+                OrderStatus.APPROVED, OrderStatus.DECLINED, Instant.now())));
+    }
+
+    @Test
+    void redeliveredDeclineReleasesStockOnce() {
+        StockReleaseHandler handler = new StockReleaseHandler(service);
+        int orderId = declinedOrder();
+
+        deliver(handler, orderId);
+        deliver(handler, orderId);
+
+        assertEquals(Map.of("quantity", 100, "quantity_sold", 0), stock(productIds.get(0)));
+    }
+
+    @Test
+    void concurrentDeliveriesOfOneDeclineReleaseStockOnce() throws Exception {
+        StockReleaseHandler handler = new StockReleaseHandler(service);
+        int orderId = declinedOrder();
+        CountDownLatch start = new CountDownLatch(1);
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(4)) {
+            List<Future<?>> deliveries = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                deliveries.add(executor.submit(() -> {
+                    start.await();
+                    deliver(handler, orderId);
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> delivery : deliveries) {
+                delivery.get();
+            }
+        }
+
+        assertEquals(Map.of("quantity", 100, "quantity_sold", 0), stock(productIds.get(0)));
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.pawtopia.pawtopia.ecommerce.Service;
+
+import com.example.pawtopia.pawtopia.ecommerce.Entity.OrderItem;
+import com.example.pawtopia.pawtopia.ecommerce.Exception.InsufficientStockException;
+import com.example.pawtopia.pawtopia.ecommerce.Repository.ProductRepo;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class InventoryServiceTest {
+
+    private static OrderItem item(int productId, int quantity) {
+        OrderItem orderItem = new OrderItem();
+        orderItem.setProductId(productId);
+        orderItem.setQuantity(quantity);
+        return orderItem;
+    }
+
+    // repo for product 1 whose batch behaves like the conditional UPDATE: check and
+    // decrement happen as one atomic step
+    private static ProductRepo repoWithStock(AtomicInteger stock) {
+        ProductRepo repo = mock(ProductRepo.class);
+        when(repo.findExistingIds(anyCollection())).thenReturn(List.of(1));
+        when(repo.reserveStockBatch(anyMap())).thenAnswer(invocation -> {
+            int quantity = invocation.<Map<Integer, Integer>>getArgument(0).get(1);
+            while (true) {
+                int current = stock.get();
+                if (current < quantity) {
+                    return new int[]{0};
+                }
+                if (stock.compareAndSet(current, current - quantity)) {
+                    return new int[]{1};
+                }
+            }
+        });
+        when(repo.findQuantityById(1)).thenAnswer(invocation -> stock.get());
+        return repo;
+    }
+
+    @Test
+    void mergesLinesAndReservesInProductIdOrder() {
+        ProductRepo repo = mock(ProductRepo.class);
+        when(repo.findExistingIds(anyCollection())).thenReturn(List.of(3, 9));
+        when(repo.reserveStockBatch(anyMap())).thenReturn(new int[]{1, 1});
+
+        new InventoryService(repo).reserve(List.of(item(9, 1), item(3, 2), item(9, 4)));
+
+        ArgumentCaptor<Map<Integer, Integer>> batch = ArgumentCaptor.captor();
+        verify(repo).reserveStockBatch(batch.capture());
+        assertEquals(List.of(Map.entry(3, 2), Map.entry(9, 5)), List.copyOf(batch.getValue().entrySet()));
+    }
+
+    @Test
+    void unknownProductFailsBeforeAnyUpdate() {
+        ProductRepo repo = mock(ProductRepo.class);
+        when(repo.findExistingIds(anyCollection())).thenReturn(List.of(3));
+
+        assertThrows(NoSuchElementException.class,
+                () -> new InventoryService(repo).reserve(List.of(item(3, 1), item(4, 1))));
+        verify(repo, never()).reserveStockBatch(anyMap());
+    }
+
+    @Test
+    void reportsAvailableStockWhenShort() {
+        InventoryService service = new InventoryService(repoWithStock(new AtomicInteger(2)));
+
+        InsufficientStockException e = assertThrows(InsufficientStockException.class,
+                () -> service.reserve(List.of(item(1, 3))));
+        assertEquals(2, e.getAvailable());
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.pawtopia.pawtopia.ecommerce.Service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LocalFileBlobStoreTest {
+
+    // sha256("hello world")
+    private static final String HELLO_KEY = "b94d27b9934d3e08a52e52d7da7dabfac484efe37a5380ee9088f7ace2efcde9";
+
+    @TempDir
+    Path root;
+
+    @Test
+    void keyIsTheContentHashAndEqualContentIsStoredOnce() throws Exception {
+        LocalFileBlobStore store = new LocalFileBlobStore(root.toString());
+
+        String key = store.put("hello world".getBytes(StandardCharsets.UTF_8));
+        String again = store.put("hello world".getBytes(StandardCharsets.UTF_8));
+
+        assertEquals(HELLO_KEY, key);
+        assertEquals(key, again);
+        assertTrue(store.exists(key));
+        try (Stream<Path> files = Files.walk(root)) {
+            assertEquals(1, files.filter(Files::isRegularFile).count());
+        }
+    }
+
+    @Test
+    void readsBackARange() throws Exception {
+        LocalFileBlobStore store = new LocalFileBlobStore(root.toString());
+        String key = store.put("hello world".getBytes(StandardCharsets.UTF_8));
+
+        try (BlobStore.Blob blob = store.open(key).orElseThrow()) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            assertEquals(5, blob.transferTo(6, 5, Channels.newChannel(out)));
+            assertEquals("world", out.toString(StandardCharsets.UTF_8));
+            assertEquals(11, blob.size());
+            assertArrayEquals("hell".getBytes(StandardCharsets.UTF_8), blob.head(4));
+        }
+    }
+
+    @Test
+    void unknownAndMalformedKeys() throws Exception {
+        LocalFileBlobStore store = new LocalFileBlobStore(root.toString());
+
+        assertTrue(store.open("0".repeat(64)).isEmpty());
+        assertFalse(store.exists("../../etc/passwd"));
+        assertFalse(store.exists(null));
+        assertThrows(IllegalArgumentException.class, () -> store.putDerived("../x", new byte[]{1}));
+    }
+
+    @Test
+    void derivedBlobIsStoredUnderItsSuffix() throws Exception {
+        LocalFileBlobStore store = new LocalFileBlobStore(root.toString());
+
+        store.putDerived(HELLO_KEY + "_w160", new byte[]{1, 2, 3});
+
+        assertTrue(store.exists(HELLO_KEY + "_w160"));
+        assertFalse(store.exists(HELLO_KEY));
+    }
+}
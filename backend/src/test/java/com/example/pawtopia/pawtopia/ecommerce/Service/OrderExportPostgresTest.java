@@ -0,0 +1,166 @@
+package com.example.pawtopia.pawtopia.ecommerce.Service;
+
+import com.example.pawtopia.pawtopia.ecommerce.PostgresTest;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.io.ByteArrayOutputStream;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// The export query and both writers against PostgreSQL. The rows are committed (the
+// export reads on its own connection) and removed afterwards.
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class OrderExportPostgresTest extends PostgresTest {
+
+    private static final int FETCH_SIZE = 2;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DataSource dataSource;
+
+    // how each export statement ran: fetch size, autocommit, read-only
+    private final List<String> statements = new ArrayList<>();
+
+    private OrderExportService service;
+    private long userId;
+    private int withItems;
+    private int withoutItems;
+
+    @BeforeEach
+    void orders() {
+        DataSource recording = new RecordingDataSource(dataSource);
+        service = new OrderExportService(recording, new DataSourceTransactionManager(recording),
+                new ObjectMapper(), FETCH_SIZE);
+
+        userId = jdbcTemplate.queryForObject("INSERT INTO users (username, password, email) "
+                + "VALUES ('=cmd|calc', 'x', 'export@test') RETURNING user_id", Long.class);
+        withItems = insertOrder("GCash", 349.5);
+        withoutItems = insertOrder("Cash on Delivery", 0);
+        jdbcTemplate.update("INSERT INTO order_item (order_itemid, order_id, product_id, order_item_name, price, "
+                + "quantity, is_rated) VALUES (2000001, ?, NULL, 'Food, 2kg', 99.5, 1, false), "
+                + "(2000002, ?, NULL, '-bowl', 125, 2, false)", withItems, withItems);
+    }
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.update("DELETE FROM order_item WHERE order_id IN (?, ?)", withItems, withoutItems);
+        jdbcTemplate.update("DELETE FROM orders WHERE order_id IN (?, ?)", withItems, withoutItems);
+        jdbcTemplate.update("DELETE FROM users WHERE user_id = ?", userId);
+    }
+
+    private int insertOrder(String paymentMethod, double total) {
+        return jdbcTemplate.queryForObject("INSERT INTO orders (order_date, payment_method, payment_status, "
+                + "order_status, total_price, user_id, version) VALUES ('2025-10-18', ?, 'PAID', 'APPROVED', ?, ?, 0) "
+                + "RETURNING order_id", Integer.class, paymentMethod, total, userId);
+    }
+
+    private List<String> export(OrderExportService.Format format) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        service.export(format, out);
+        return Arrays.asList(out.toString(StandardCharsets.UTF_8).split("\n"));
+    }
+
+    // lines of our two orders, whatever else the table holds
+    private List<String> ours(List<String> lines, String prefix) {
+        return lines.stream()
+                .filter(line -> line.startsWith(prefix + withItems + ",") || line.startsWith(prefix + withoutItems + ","))
+                .toList();
+    }
+
+    @Test
+    void csvHasARowPerItemAndOnePerEmptyOrder() {
+        List<String> lines = export(OrderExportService.Format.CSV);
+
+        assertEquals("order_id,order_date,order_status,payment_status,payment_method,total_price,user_id,username,"
+                + "order_item_id,product_id,item_name,quantity,price", lines.get(0));
+        assertEquals(List.of(
+                withItems + ",2025-10-18,APPROVED,PAID,GCash,349.5," + userId + ",'=cmd|calc,2000001,,\"Food, 2kg\",1,99.5",
+                withItems + ",2025-10-18,APPROVED,PAID,GCash,349.5," + userId + ",'=cmd|calc,2000002,,'-bowl,2,125",
+                withoutItems + ",2025-10-18,APPROVED,PAID,Cash on Delivery,0," + userId + ",'=cmd|calc,,,,,"),
+                ours(lines, ""));
+    }
+
+    @Test
+    void ndjsonNestsItemsUnderTheirOrder() {
+        List<String> lines = export(OrderExportService.Format.NDJSON);
+
+        assertEquals(List.of(
+                "{\"orderID\":" + withItems + ",\"orderDate\":\"2025-10-18\",\"orderStatus\":\"APPROVED\","
+                        + "\"paymentStatus\":\"PAID\",\"paymentMethod\":\"GCash\",\"totalPrice\":349.5,"
+                        + "\"userId\":" + userId + ",\"username\":\"=cmd|calc\",\"orderItems\":["
+                        + "{\"orderItemID\":2000001,\"productId\":null,\"orderItemName\":\"Food, 2kg\",\"quantity\":1,\"price\":99.5},"
+                        + "{\"orderItemID\":2000002,\"productId\":null,\"orderItemName\":\"-bowl\",\"quantity\":2,\"price\":125.0}]}",
+                "{\"orderID\":" + withoutItems + ",\"orderDate\":\"2025-10-18\",\"orderStatus\":\"APPROVED\","
+                        + "\"paymentStatus\":\"PAID\",\"paymentMethod\":\"Cash on Delivery\",\"totalPrice\":0.0,"
+                        + "\"userId\":" + userId + ",\"username\":\"=cmd|calc\",\"orderItems\":[]}"),
+                ours(lines, "{\"orderID\":"));
+    }
+
+    @Test
+    void queryStreamsInsideAReadOnlyTransaction() {
+        export(OrderExportService.Format.CSV);
+        export(OrderExportService.Format.NDJSON);
+
+        String streamed = "fetchSize=" + FETCH_SIZE + " autoCommit=false readOnly=true";
+        assertEquals(List.of(streamed, streamed), statements);
+    }
+
+    // hands out connections that note the state each statement is executed in
+    private class RecordingDataSource extends DelegatingDataSource {
+
+        RecordingDataSource(DataSource target) {
+            super(target);
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            Connection connection = super.getConnection();
+            return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{Connection.class},
+                    (proxy, method, args) -> {
+                        Object result = invoke(connection, method, args);
+                        return result instanceof Statement statement
+                                ? recording(connection, statement) : result;
+                    });
+        }
+
+        private Statement recording(Connection connection, Statement statement) {
+            return (Statement) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{Statement.class},
+                    (proxy, method, args) -> {
+                        if (method.getName().startsWith("execute")) {
+                            statements.add("fetchSize=" + statement.getFetchSize() + " autoCommit="
+                                    + connection.getAutoCommit() + " readOnly=" + connection.isReadOnly());
+                        }
+                        return invoke(statement, method, args);
+                    });
+        }
+
+        private static Object invoke(Object target, java.lang.reflect.Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
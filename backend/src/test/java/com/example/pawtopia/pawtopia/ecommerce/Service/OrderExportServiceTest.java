@@ -0,0 +1,38 @@
+package com.example.pawtopia.pawtopia.ecommerce.Service;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class OrderExportServiceTest {
+
+    private String csv(String value) throws IOException {
+        StringWriter writer = new StringWriter();
+        OrderExportService.writeCsvValue(writer, value);
+        return writer.toString();
+    }
+
+    @Test
+    void csvValuesAreQuotedOnlyWhenNeeded() throws IOException {
+        assertEquals("", csv(null));
+        assertEquals("Dog Food", csv("Dog Food"));
+        assertEquals("\"Food, 2kg\"", csv("Food, 2kg"));
+        assertEquals("\"the \"\"best\"\" food\"", csv("the \"best\" food"));
+        assertEquals("\"line\nbreak\"", csv("line\nbreak"));
+    }
+
+    @Test
+    void formulaLikeTextIsMadePlain() {
+        assertEquals("'=HYPERLINK(\"http://x\")", OrderExportService.textCell("=HYPERLINK(\"http://x\")"));
+        assertEquals("'+1", OrderExportService.textCell("+1"));
+        assertEquals("'-2+3", OrderExportService.textCell("-2+3"));
+        assertEquals("'@SUM(A1)", OrderExportService.textCell("@SUM(A1)"));
+        assertEquals("'\tx", OrderExportService.textCell("\tx"));
+        assertEquals("Cat = love", OrderExportService.textCell("Cat = love"));
+        assertEquals("", OrderExportService.textCell(""));
+        assertEquals(null, OrderExportService.textCell(null));
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.pawtopia.pawtopia.ecommerce.Service;
+
+import com.example.pawtopia.pawtopia.ecommerce.Entity.Order;
+import com.example.pawtopia.pawtopia.ecommerce.Entity.OrderStatus;
+import com.example.pawtopia.pawtopia.ecommerce.Entity.PaymentStatus;
+import com.example.pawtopia.pawtopia.ecommerce.Entity.User;
+import com.example.pawtopia.pawtopia.ecommerce.Exception.IllegalOrderTransitionException;
+import com.example.pawtopia.pawtopia.ecommerce.Repository.OrderRepo;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.util.NoSuchElementException;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class OrderLifecycleServiceTest {
+
+    private final OrderRepo orderRepo = mock(OrderRepo.class);
+    private final ApplicationEventPublisher publisher = mock(ApplicationEventPublisher.class);
+    private final OrderLifecycleService service;
+
+    OrderLifecycleServiceTest() {
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        service = new OrderLifecycleService(orderRepo, mock(SalesAnalyticsService.class), publisher,
+                transactionManager, 3, 1);
+    }
+
+    private static Order order(OrderStatus status) {
+        Order order = new Order();
+        order.setOrderID(5);
+        order.setOrderStatus(status);
+        return order;
+    }
+
+    @Test
+    void transitionIsRetriedAfterLosingAnOptimisticLockRace() {
+        // every attempt reloads the order, as a new transaction would
+        when(orderRepo.findById(5)).thenAnswer(invocation -> Optional.of(order(OrderStatus.PENDING)));
+        when(orderRepo.saveAndFlush(any()))
+                .thenThrow(new ObjectOptimisticLockingFailureException(Order.class, 5))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+
+        Order approved = service.transition(5, OrderStatus.APPROVED);
+
+        assertEquals(OrderStatus.APPROVED, approved.getOrderStatus());
+        assertEquals(PaymentStatus.PAID, approved.getPaymentStatus());
+        verify(orderRepo, times(2)).saveAndFlush(any());
+        verify(publisher, times(1)).publishEvent(any(OrderStatusChangedEvent.class));
+    }
+
+    @Test
+    void finalStatusesCannotBeLeft() {
+        when(orderRepo.findById(5)).thenReturn(Optional.of(order(OrderStatus.DECLINED)));
+
+        assertThrows(IllegalOrderTransitionException.class, () -> service.transition(5, OrderStatus.APPROVED));
+        verify(orderRepo, never()).saveAndFlush(any());
+        verify(publisher, never()).publishEvent(any());
+    }
+
+    @Test
+    void detailsEditKeepsTheTotalAndTheOwner() {
+        User anna = new User();
+        anna.setUsername("anna");
+        Order saved = order(OrderStatus.PENDING);
+        saved.setTotalPrice(229.99);
+        saved.setUser(anna);
+        when(orderRepo.findById(5)).thenReturn(Optional.of(saved));
+        when(orderRepo.saveAndFlush(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        User mallory = new User();
+        mallory.setUsername("mallory");
+        Order changes = new Order();
+        changes.setPaymentMethod("GCash");
+        changes.setTotalPrice(1.0);
+        changes.setUser(mallory);
+
+        Order updated = service.updateDetails(5, changes);
+
+        assertEquals("GCash", updated.getPaymentMethod());
+        assertEquals(229.99, updated.getTotalPrice());
+        assertSame(anna, updated.getUser());
+    }
+
+    @Test
+    void unknownOrderIsNotSaved() {
+        when(orderRepo.findById(6)).thenReturn(Optional.empty());
+
+        assertThrows(NoSuchElementException.class, () -> service.updateDetails(6, new Order()));
+        verify(orderRepo, never()).saveAndFlush(any());
+    }
+}
@@ -0,0 +1,221 @@
+package com.example.pawtopia.pawtopia.ecommerce.Service;
+
+import com.example.pawtopia.pawtopia.ecommerce.PostgresTest;
+import com.example.pawtopia.pawtopia.ecommerce.Entity.OutboxEvent;
+import com.example.pawtopia.pawtopia.ecommerce.Repository.OutboxClaimRepo.ClaimedEvent;
+import com.example.pawtopia.pawtopia.ecommerce.Repository.OutboxRepo;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// The claim query and the retry bookkeeping against PostgreSQL; OutboxDispatcherTest
+// covers the dispatch logic with a mocked repository.
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class OutboxDispatcherPostgresTest extends PostgresTest {
+
+    private static final String TYPE = "TEST_EVENT";
+
+    record Ping(int n) {}
+
+    // records every delivery, fails while failing is set
+    static class PingHandler implements OutboxHandler<Ping> {
+
+        final Map<Integer, AtomicInteger> deliveries = new ConcurrentHashMap<>();
+        volatile boolean failing;
+
+        @Override
+        public String eventType() {
+            return TYPE;
+        }
+
+        @Override
+        public Class<Ping> payloadType() {
+            return Ping.class;
+        }
+
+        @Override
+        public void handle(Ping payload) {
+            if (failing) {
+                throw new IllegalStateException("handler down");
+            }
+            deliveries.computeIfAbsent(payload.n(), n -> new AtomicInteger()).incrementAndGet();
+        }
+    }
+
+    @Autowired
+    private OutboxRepo outboxRepo;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final PingHandler handler = new PingHandler();
+
+    @BeforeEach
+    void emptyOutbox() {
+        jdbcTemplate.update("DELETE FROM outbox_event");
+    }
+
+    private OutboxDispatcher dispatcher(int batchSize, long retryBackoffMs) {
+        return new OutboxDispatcher(outboxRepo, objectMapper, transactionManager, List.of(handler),
+                true, batchSize, 60, 5, retryBackoffMs);
+    }
+
+    private void enqueue(int count) {
+        List<OutboxEvent> events = new ArrayList<>(count);
+        for (int n = 0; n < count; n++) {
+            events.add(new OutboxEvent(TYPE, "{\"n\":" + n + "}", Instant.now()));
+        }
+        outboxRepo.saveAll(events);
+    }
+
+    @Test
+    void openClaimsSkipEachOthersRows() throws Exception {
+        enqueue(20);
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        CountDownLatch firstClaimed = new CountDownLatch(1);
+        CountDownLatch secondClaimed = new CountDownLatch(1);
+        Instant now = Instant.now();
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(2)) {
+            // the first claim keeps its transaction (and row locks) open until the second is done
+            Future<List<ClaimedEvent>> first = executor.submit(() -> transaction.execute(status -> {
+                List<ClaimedEvent> claimed = outboxRepo.claimBatch(15, now, now.plusSeconds(60), 5);
+                firstClaimed.countDown();
+                await(secondClaimed);
+                return claimed;
+            }));
+            await(firstClaimed);
+            Future<List<ClaimedEvent>> second = executor.submit(() -> transaction.execute(status ->
+                    outboxRepo.claimBatch(15, now, now.plusSeconds(60), 5)));
+            List<ClaimedEvent> secondBatch = second.get(10, TimeUnit.SECONDS);
+            secondClaimed.countDown();
+            List<ClaimedEvent> firstBatch = first.get(10, TimeUnit.SECONDS);
+
+            assertEquals(15, firstBatch.size());
+            assertEquals(5, secondBatch.size());
+            Set<Long> ids = new HashSet<>();
+            firstBatch.forEach(event -> ids.add(event.id()));
+            secondBatch.forEach(event -> ids.add(event.id()));
+            assertEquals(20, ids.size());
+        }
+    }
+
+    @Test
+    void concurrentDispatchersDeliverEveryEventOnce() throws Exception {
+        enqueue(300);
+        OutboxDispatcher a = dispatcher(10, 1000);
+        OutboxDispatcher b = dispatcher(10, 1000);
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(2)) {
+            executor.submit(a::poll);
+            executor.submit(b::poll);
+        }
+
+        assertEquals(300, handler.deliveries.size());
+        assertTrue(handler.deliveries.values().stream().allMatch(count -> count.get() == 1));
+        assertEquals(0, outboxRepo.count());
+    }
+
+    @Test
+    void expiredLeaseIsClaimedAgain() {
+        enqueue(1);
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        Instant now = Instant.now();
+
+        // an instance claims the event and dies before finishing it
+        List<ClaimedEvent> dead = transaction.execute(status ->
+                outboxRepo.claimBatch(10, now, now.plusSeconds(60), 5));
+        List<ClaimedEvent> whileLeased = transaction.execute(status ->
+                outboxRepo.claimBatch(10, now.plusSeconds(30), now.plusSeconds(90), 5));
+        List<ClaimedEvent> afterLease = transaction.execute(status ->
+                outboxRepo.claimBatch(10, now.plusSeconds(61), now.plusSeconds(121), 5));
+
+        assertEquals(1, dead.size());
+        assertEquals(0, whileLeased.size());
+        assertEquals(1, afterLease.size());
+        assertEquals(dead.get(0).id(), afterLease.get(0).id());
+        assertEquals(2, afterLease.get(0).attempts());
+    }
+
+    @Test
+    void failedEventBacksOffAndStopsAfterMaxAttempts() {
+        enqueue(1);
+        handler.failing = true;
+        OutboxDispatcher dispatcher = dispatcher(10, 60_000);
+
+        Instant before = Instant.now();
+        assertEquals(1, dispatcher.dispatchBatch());
+        assertRetryDelay(before, Duration.ofMinutes(1));
+        assertTrue(jdbcTemplate.queryForObject("SELECT last_error FROM outbox_event", String.class)
+                .contains("handler down"));
+        // not due yet
+        assertEquals(0, dispatcher.dispatchBatch());
+
+        // second failure waits twice as long
+        makeDue();
+        before = Instant.now();
+        assertEquals(1, dispatcher.dispatchBatch());
+        assertRetryDelay(before, Duration.ofMinutes(2));
+
+        // attempts 3 to 5 fail too, after that the event is left for a person to look at
+        for (int attempt = 3; attempt <= 5; attempt++) {
+            makeDue();
+            assertEquals(1, dispatcher.dispatchBatch());
+        }
+        makeDue();
+        assertEquals(0, dispatcher.dispatchBatch());
+        assertEquals(1, outboxRepo.countFailed(5));
+        assertTrue(handler.deliveries.isEmpty());
+    }
+
+    private void makeDue() {
+        jdbcTemplate.update("UPDATE outbox_event SET available_at = ?", Timestamp.from(Instant.now().minusSeconds(1)));
+    }
+
+    private void assertRetryDelay(Instant before, Duration delay) {
+        Instant availableAt = jdbcTemplate.queryForObject("SELECT available_at FROM outbox_event", Timestamp.class)
+                .toInstant();
+        assertTrue(!availableAt.isBefore(before.plus(delay)) && availableAt.isBefore(Instant.now().plus(delay)),
+                "retry at " + availableAt + ", expected about " + delay + " after " + before);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            if (!latch.await(10, TimeUnit.SECONDS)) {
+                throw new IllegalStateException("timed out");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.pawtopia.pawtopia.ecommerce.Service;
+
+import com.example.pawtopia.pawtopia.ecommerce.Entity.OrderStatus;
+import com.example.pawtopia.pawtopia.ecommerce.Repository.OutboxClaimRepo.ClaimedEvent;
+import com.example.pawtopia.pawtopia.ecommerce.Repository.OutboxRepo;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class OutboxDispatcherTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private final OutboxRepo outboxRepo = mock(OutboxRepo.class);
+    private final InventoryService inventoryService = mock(InventoryService.class);
+    private final OutboxDispatcher dispatcher;
+
+    OutboxDispatcherTest() {
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        dispatcher = new OutboxDispatcher(outboxRepo, objectMapper, transactionManager,
+                List.of(new StockReleaseHandler(inventoryService)), true, 10, 60, 5, 1000);
+    }
+
+    private ClaimedEvent statusChanged(long id, OrderStatus to, int attempts) throws Exception {
+        String payload = objectMapper.writeValueAsString(
+                new OrderStatusChangedEvent(7, OrderStatus.PENDING, to, Instant.now()));
+        return new ClaimedEvent(id, OutboxService.ORDER_STATUS_CHANGED, payload, attempts);
+    }
+
+    @Test
+    void deliveredEventIsDeleted() throws Exception {
+        when(outboxRepo.claimBatch(anyInt(), any(), any(), anyInt()))
+                .thenReturn(List.of(statusChanged(1, OrderStatus.DECLINED, 1)));
+
+        assertEquals(1, dispatcher.dispatchBatch());
+
+        verify(inventoryService).release(7);
+        verify(outboxRepo).deleteEvent(1);
+        verify(outboxRepo, never()).markFailed(anyLong(), any(), anyString());
+    }
+
+    @Test
+    void failedEventIsKeptAndRescheduledWithBackoff() throws Exception {
+        when(outboxRepo.claimBatch(anyInt(), any(), any(), anyInt()))
+                .thenReturn(List.of(statusChanged(2, OrderStatus.DECLINED, 3)));
+        doThrow(new IllegalStateException("db down")).when(inventoryService).release(7);
+
+        Instant before = Instant.now();
+        dispatcher.dispatchBatch();
+
+        verify(outboxRepo, never()).deleteEvent(2);
+        // third attempt waits 4x the base delay
+        verify(outboxRepo).markFailed(eq(2L),
+                argThat(retryAt -> !retryAt.isBefore(before.plusMillis(4000))),
+                contains("db down"));
+    }
+
+    @Test
+    void unknownEventTypeCountsAsFailure() {
+        when(outboxRepo.claimBatch(anyInt(), any(), any(), anyInt()))
+                .thenReturn(List.of(new ClaimedEvent(3, "SOMETHING_NEW", "{}", 1)));
+
+        dispatcher.dispatchBatch();
+
+        verify(outboxRepo, never()).deleteEvent(3);
+        verify(outboxRepo).markFailed(eq(3L), any(), anyString());
+    }
+}
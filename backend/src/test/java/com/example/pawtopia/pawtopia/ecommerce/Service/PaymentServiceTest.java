@@ -0,0 +1,101 @@
+package com.example.pawtopia.pawtopia.ecommerce.Service;
+
+import com.example.pawtopia.pawtopia.ecommerce.Entity.Order;
+import com.example.pawtopia.pawtopia.ecommerce.Exception.IdempotencyKeyReusedException;
+import com.example.pawtopia.pawtopia.ecommerce.Exception.PaymentGatewayException;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class PaymentServiceTest {
+
+    private final PaymongoClient paymongoClient = mock(PaymongoClient.class);
+    private final PaymentService service = new PaymentService(paymongoClient, 60, 10, 100);
+
+    // no order id: only the Idempotency-Key can de-duplicate these
+    private static Order unsaved(double total) {
+        Order order = new Order();
+        order.setTotalPrice(total);
+        return order;
+    }
+
+    @Test
+    void sameKeyJoinsTheCallInFlight() {
+        CompletableFuture<String> upstream = new CompletableFuture<>();
+        when(paymongoClient.createCheckoutUrl(anyLong(), anyString(), anyString())).thenReturn(upstream);
+
+        CompletableFuture<String> first = service.createCheckoutUrl(unsaved(100), "anna", "k1");
+        CompletableFuture<String> retry = service.createCheckoutUrl(unsaved(100), "anna", "k1");
+
+        assertSame(first, retry);
+        verify(paymongoClient, times(1)).createCheckoutUrl(10000, "A Great Way to Spend Money to your Pets!", "Shop Again!");
+    }
+
+    @Test
+    void concurrentRequestsWithOneKeyCallPayMongoOnce() throws Exception {
+        when(paymongoClient.createCheckoutUrl(anyLong(), anyString(), anyString()))
+                .thenReturn(CompletableFuture.completedFuture("https://pay.test/cs_1"));
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<String>> urls = new ArrayList<>();
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(16)) {
+            for (int i = 0; i < 100; i++) {
+                urls.add(executor.submit(() -> {
+                    start.await();
+                    return service.createCheckoutUrl(unsaved(100), "anna", "k1").get();
+                }));
+            }
+            start.countDown();
+            for (Future<String> url : urls) {
+                assertEquals("https://pay.test/cs_1", url.get());
+            }
+        }
+        verify(paymongoClient, times(1)).createCheckoutUrl(anyLong(), anyString(), anyString());
+    }
+
+    @Test
+    void keyReusedForAnotherPaymentIsRejected() {
+        when(paymongoClient.createCheckoutUrl(anyLong(), anyString(), anyString()))
+                .thenReturn(CompletableFuture.completedFuture("https://pay.test/cs_1"));
+        service.createCheckoutUrl(unsaved(100), "anna", "k1");
+
+        CompletableFuture<String> otherAmount = service.createCheckoutUrl(unsaved(250), "anna", "k1");
+
+        ExecutionException e = assertThrows(ExecutionException.class, otherAmount::get);
+        assertInstanceOf(IdempotencyKeyReusedException.class, e.getCause());
+        verify(paymongoClient, times(1)).createCheckoutUrl(anyLong(), anyString(), anyString());
+    }
+
+    @Test
+    void failedCallIsForgottenSoTheKeyCanBeRetried() throws Exception {
+        when(paymongoClient.createCheckoutUrl(anyLong(), anyString(), anyString()))
+                .thenReturn(CompletableFuture.failedFuture(new PaymentGatewayException(502, "down")))
+                .thenReturn(CompletableFuture.completedFuture("https://pay.test/cs_2"));
+
+        CompletableFuture<String> failed = service.createCheckoutUrl(unsaved(100), "anna", "k1");
+        CompletableFuture<String> retry = service.createCheckoutUrl(unsaved(100), "anna", "k1");
+
+        assertThrows(ExecutionException.class, failed::get);
+        assertNotSame(failed, retry);
+        assertEquals("https://pay.test/cs_2", retry.get());
+    }
+}
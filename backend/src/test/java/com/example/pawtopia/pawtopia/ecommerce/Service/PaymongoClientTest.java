@@ -0,0 +1,115 @@
+package com.example.pawtopia.pawtopia.ecommerce.Service;
+
+import com.example.pawtopia.pawtopia.ecommerce.Exception.PaymentGatewayException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Runs the client against a local stub of the checkout_sessions endpoint
+class PaymongoClientTest {
+
+    private HttpServer server;
+    private final AtomicInteger hits = new AtomicInteger();
+    private final AtomicInteger status = new AtomicInteger(200);
+    private final AtomicInteger delayMs = new AtomicInteger(0);
+    private final AtomicReference<String> lastBody = new AtomicReference<>();
+
+    @BeforeEach
+    void startStub() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.createContext("/v1/checkout_sessions", exchange -> {
+            hits.incrementAndGet();
+            lastBody.set(new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8));
+            try {
+                Thread.sleep(delayMs.get());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            byte[] body = (status.get() == 200
+                    ? "{\"data\":{\"attributes\":{\"checkout_url\":\"https://pay.test/cs_1\"}}}"
+                    : "{\"errors\":[]}").getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(status.get(), body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+    }
+
+    @AfterEach
+    void stopStub() {
+        server.stop(0);
+    }
+
+    private PaymongoClient client(long requestTimeoutMs, int failureThreshold) {
+        return new PaymongoClient(new ObjectMapper(),
+                "http://127.0.0.1:" + server.getAddress().getPort() + "/v1/checkout_sessions",
+                "sk_test", 1000, requestTimeoutMs, "http://shop/ok", "http://shop/fail",
+                10, failureThreshold, 60_000);
+    }
+
+    private PaymentGatewayException failure(PaymongoClient client) {
+        ExecutionException e = assertThrows(ExecutionException.class,
+                () -> client.createCheckoutUrl(1000, "d", "r").get());
+        return assertInstanceOf(PaymentGatewayException.class, e.getCause());
+    }
+
+    @Test
+    void returnsCheckoutUrl() throws Exception {
+        String url = client(2000, 3).createCheckoutUrl(12345, "Pet \"food\"", "r").get();
+
+        assertEquals("https://pay.test/cs_1", url);
+        assertTrue(lastBody.get().contains("\"amount\":12345"));
+        assertTrue(lastBody.get().contains("Pet \\\"food\\\""));
+    }
+
+    @Test
+    void slowProviderTimesOut() {
+        delayMs.set(1000);
+
+        assertEquals(504, failure(client(100, 3)).getStatus());
+    }
+
+    @Test
+    void circuitOpensAfterRepeatedFailures() {
+        status.set(500);
+        PaymongoClient client = client(2000, 3);
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(500, failure(client).getStatus());
+        }
+        assertEquals("OPEN", client.getCircuitState());
+
+        // rejected locally, the stub is not called again
+        assertEquals(503, failure(client).getStatus());
+        assertEquals(3, hits.get());
+    }
+
+    @Test
+    void clientErrorsDoNotOpenCircuit() {
+        status.set(400);
+        PaymongoClient client = client(2000, 2);
+
+        for (int i = 0; i < 4; i++) {
+            assertEquals(400, failure(client).getStatus());
+        }
+        assertEquals("CLOSED", client.getCircuitState());
+    }
+}
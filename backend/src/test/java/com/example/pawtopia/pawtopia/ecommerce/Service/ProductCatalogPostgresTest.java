@@ -0,0 +1,138 @@
+package com.example.pawtopia.pawtopia.ecommerce.Service;
+
+import com.example.pawtopia.pawtopia.ecommerce.PostgresTest;
+import com.example.pawtopia.pawtopia.ecommerce.DTO.CursorPage;
+import com.example.pawtopia.pawtopia.ecommerce.DTO.ProductSummary;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Keyset catalog pages against PostgreSQL (each test rolls back). Most products share a
+// price, a name or a sales count, so page boundaries fall inside runs of tied sort keys.
+@Import({ProductService.class, RatingSummaryService.class})
+class ProductCatalogPostgresTest extends PostgresTest {
+
+    private static final String TYPE = "keyset-test";
+
+    @MockitoBean
+    private ProductImageService productImageService;
+
+    @MockitoBean
+    private ImageVariantService imageVariantService;
+
+    @MockitoBean
+    private CartPricingService cartPricingService;
+
+    @Autowired
+    private ProductService service;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void products() {
+        double[] prices = {10, 5, 10, 20, 10, 10, 20, 10, 10};
+        String[] names = {"Bowl", "Leash", "Bowl", "Bed", "Leash", "Bowl", "Bed", "Toy", "Bowl"};
+        for (int i = 0; i < prices.length; i++) {
+            jdbcTemplate.update("INSERT INTO tblproduct (product_name, product_type, product_price, quantity, "
+                    + "quantity_sold) VALUES (?, ?, ?, 1, 0)", names[i], TYPE, prices[i]);
+        }
+        jdbcTemplate.update("INSERT INTO tblproduct (product_name, product_type, product_price, quantity, "
+                + "quantity_sold) VALUES ('Other', 'other-type', 10, 1, 0)");
+    }
+
+    // ids in the order a single query with the same ORDER BY returns them
+    private List<Integer> expectedOrder(String column, String direction) {
+        return jdbcTemplate.queryForList("SELECT productid FROM tblproduct WHERE product_type = ? "
+                + "ORDER BY " + column + " " + direction + ", productid " + direction, Integer.class, TYPE);
+    }
+
+    private List<Integer> allPages(String sort, String direction, int size) {
+        List<Integer> ids = new ArrayList<>();
+        String cursor = null;
+        do {
+            CursorPage<ProductSummary> page = service.getCatalog(TYPE, null, null, sort, direction, cursor, size);
+            page.items().forEach(product -> ids.add(product.productID()));
+            cursor = page.nextCursor();
+        } while (cursor != null);
+        return ids;
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            "price, product_price, asc, 2", "price, product_price, desc, 4",
+            "name, product_name, asc, 2", "name, product_name, desc, 3",
+            "quantitySold, quantity_sold, asc, 4", "quantitySold, quantity_sold, desc, 9"})
+    void pagesCoverEveryProductOnceInOrder(String sort, String column, String direction, int size) {
+        assertEquals(expectedOrder(column, direction), allPages(sort, direction, size));
+    }
+
+    // rows from before the columns were NOT NULL; they page as '' / 0 like the SQL below
+    @ParameterizedTest
+    @CsvSource(quoteCharacter = '"', value = {
+            "price, product_price, \"COALESCE(product_price, 0)\", asc, 2",
+            "price, product_price, \"COALESCE(product_price, 0)\", desc, 3",
+            "name, product_name, \"COALESCE(product_name, '')\", asc, 2",
+            "name, product_name, \"COALESCE(product_name, '')\", desc, 4",
+            "quantitySold, quantity_sold, \"COALESCE(quantity_sold, 0)\", asc, 2",
+            "quantitySold, quantity_sold, \"COALESCE(quantity_sold, 0)\", desc, 3"})
+    void nullSortValuesPageLikeTheirDefault(String sort, String column, String sortValue, String direction,
+                                            int size) {
+        jdbcTemplate.execute("ALTER TABLE tblproduct ALTER COLUMN " + column + " DROP NOT NULL");
+        jdbcTemplate.update("UPDATE tblproduct SET " + column + " = NULL WHERE productid IN (SELECT productid "
+                + "FROM tblproduct WHERE product_type = ? ORDER BY productid LIMIT 3)", TYPE);
+
+        assertEquals(expectedOrder(sortValue, direction), allPages(sort, direction, size));
+    }
+
+    @Test
+    void lastFullPageHasNoCursor() {
+        CursorPage<ProductSummary> page = service.getCatalog(TYPE, null, null, "price", "asc", null, 9);
+
+        assertEquals(9, page.items().size());
+        assertNull(page.nextCursor());
+    }
+
+    @Test
+    void inlineImagesAreLeftOutOfTheList() {
+        jdbcTemplate.update("UPDATE tblproduct SET product_image = 'data:image/png;base64,aGVsbG8=' "
+                + "WHERE product_type = ?", TYPE);
+        jdbcTemplate.update("INSERT INTO tblproduct (product_name, product_type, product_price, quantity, "
+                + "quantity_sold, product_image) VALUES ('Zz blob', ?, 1, 1, 0, 'blob:abc'), "
+                + "('Zz url', ?, 1, 1, 0, 'https://cdn.test/cat.png')", TYPE, TYPE);
+
+        List<String> images = service.getCatalog(TYPE, null, null, "name", "desc", null, 11).items().stream()
+                .map(ProductSummary::productImage).toList();
+
+        assertEquals(List.of("https://cdn.test/cat.png", "blob:abc"), images.subList(0, 2));
+        assertTrue(images.subList(2, 11).stream().allMatch(Objects::isNull));
+    }
+
+    @Test
+    void cursorOfAnotherSortIsRejected() {
+        String nameCursor = service.getCatalog(TYPE, null, null, "name", "asc", null, 2).nextCursor();
+
+        assertThrows(IllegalArgumentException.class,
+                () -> service.getCatalog(TYPE, null, null, "price", "asc", nameCursor, 2));
+    }
+
+    @Test
+    void garbageCursorIsRejected() {
+        assertThrows(IllegalArgumentException.class,
+                () -> service.getCatalog(TYPE, null, null, "price", "asc", "garbage!", 2));
+    }
+}
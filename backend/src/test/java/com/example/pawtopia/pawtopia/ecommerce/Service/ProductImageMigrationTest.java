@@ -0,0 +1,71 @@
+package com.example.pawtopia.pawtopia.ecommerce.Service;
+
+import com.example.pawtopia.pawtopia.ecommerce.PostgresTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// The inline image move against real tblproduct/order_item rows (each test rolls back)
+class ProductImageMigrationTest extends PostgresTest {
+
+    private static final String HELLO_KEY = "b94d27b9934d3e08a52e52d7da7dabfac484efe37a5380ee9088f7ace2efcde9";
+    private static final String HELLO = "data:image/png;base64,"
+            + Base64.getEncoder().encodeToString("hello world".getBytes(StandardCharsets.UTF_8));
+    private static final String MALFORMED = "data:image/png;base64,@@not base64@@";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @TempDir
+    Path root;
+
+    private ProductImageService service;
+
+    @BeforeEach
+    void rows() throws Exception {
+        service = new ProductImageService(new LocalFileBlobStore(root.toString()), jdbcTemplate, true, false, 2);
+        for (String image : List.of(HELLO, MALFORMED, "https://cdn.test/cat.png", HELLO)) {
+            jdbcTemplate.update("INSERT INTO tblproduct (product_name, product_price, quantity, quantity_sold, "
+                    + "product_image) VALUES ('p', 1, 1, 0, ?)", image);
+        }
+        jdbcTemplate.update("INSERT INTO order_item (order_itemid, order_item_name, order_item_image, price, "
+                + "quantity, is_rated) VALUES (1000001, 'p', ?, 1, 1, false)", HELLO);
+    }
+
+    private List<String> images() {
+        return jdbcTemplate.queryForList("SELECT product_image FROM tblproduct ORDER BY productid", String.class);
+    }
+
+    @Test
+    void inlineImagesMoveAndBadRowsStay() {
+        Map<String, Integer> result = service.migrateInlineImages();
+
+        assertEquals(Map.of("products", 2, "orderItems", 1, "skipped", 1), result);
+        assertEquals(List.of("blob:" + HELLO_KEY, MALFORMED, "https://cdn.test/cat.png", "blob:" + HELLO_KEY),
+                images());
+        assertEquals("blob:" + HELLO_KEY, jdbcTemplate.queryForObject(
+                "SELECT order_item_image FROM order_item WHERE order_itemid = 1000001", String.class));
+    }
+
+    @Test
+    void rerunChangesNothing() {
+        service.migrateInlineImages();
+        List<String> afterFirstRun = images();
+
+        Map<String, Integer> result = service.migrateInlineImages();
+
+        assertEquals(0, result.get("products"));
+        assertEquals(0, result.get("orderItems"));
+        assertEquals(afterFirstRun, images());
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.pawtopia.pawtopia.ecommerce.Service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+class ProductImageServiceTest {
+
+    private static final String HELLO_KEY = "b94d27b9934d3e08a52e52d7da7dabfac484efe37a5380ee9088f7ace2efcde9";
+
+    @TempDir
+    Path root;
+
+    private ProductImageService service(boolean persistent) throws Exception {
+        return new ProductImageService(new LocalFileBlobStore(root.toString()), mock(JdbcTemplate.class),
+                persistent, false, 20);
+    }
+
+    @Test
+    void dataUrlIsStoredAndReplacedByAReference() throws Exception {
+        String dataUrl = "data:image/png;base64,"
+                + Base64.getEncoder().encodeToString("hello world".getBytes(StandardCharsets.UTF_8));
+
+        assertEquals("blob:" + HELLO_KEY, service(true).toReference(dataUrl));
+        assertTrue(new LocalFileBlobStore(root.toString()).exists(HELLO_KEY));
+    }
+
+    @Test
+    void ourBlobUrlBecomesItsReference() throws Exception {
+        assertEquals("blob:" + HELLO_KEY,
+                service(true).toReference("https://shop.test/api/blob/" + HELLO_KEY + "?w=480"));
+        assertEquals("blob:" + HELLO_KEY, service(true).toReference("/api/blob/" + HELLO_KEY));
+    }
+
+    @Test
+    void otherValuesAreKeptAsTheyAre() throws Exception {
+        ProductImageService service = service(true);
+
+        assertEquals("https://cdn.test/cat.png", service.toReference("https://cdn.test/cat.png"));
+        assertEquals("blob:" + HELLO_KEY, service.toReference("blob:" + HELLO_KEY));
+        assertEquals("data:text/plain,hello", service.toReference("data:text/plain,hello"));
+        assertEquals("", service.toReference(""));
+        assertNull(service.toReference(null));
+    }
+
+    @Test
+    void malformedBase64IsRejected() throws Exception {
+        assertThrows(IllegalArgumentException.class,
+                () -> service(true).toReference("data:image/png;base64,@@not base64@@"));
+    }
+
+    @Test
+    void uploadStaysInlineWithoutAPersistentStore() throws Exception {
+        String dataUrl = "data:image/png;base64,"
+                + Base64.getEncoder().encodeToString("hello world".getBytes(StandardCharsets.UTF_8));
+
+        assertEquals(dataUrl, service(false).toReference(dataUrl));
+        assertFalse(new LocalFileBlobStore(root.toString()).exists(HELLO_KEY));
+        assertThrows(IllegalArgumentException.class,
+                () -> service(false).toReference("data:image/png;base64,@@not base64@@"));
+    }
+
+    @Test
+    void migrationRefusesWithoutAPersistentStore() throws Exception {
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        ProductImageService service = new ProductImageService(new LocalFileBlobStore(root.toString()),
+                jdbcTemplate, false, false, 20);
+
+        assertThrows(IllegalStateException.class, service::migrateInlineImages);
+        verifyNoInteractions(jdbcTemplate);
+    }
+}
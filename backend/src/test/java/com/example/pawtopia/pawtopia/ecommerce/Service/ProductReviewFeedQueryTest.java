@@ -0,0 +1,87 @@
+package com.example.pawtopia.pawtopia.ecommerce.Service;
+
+import com.example.pawtopia.pawtopia.ecommerce.PostgresTest;
+import com.example.pawtopia.pawtopia.ecommerce.DTO.CursorPage;
+import com.example.pawtopia.pawtopia.ecommerce.DTO.ReviewView;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Statement counts of the review reads, so an N+1 on the reviewer (or its eager
+// address/cart) fails here instead of showing up as a slow product page
+@Import({ProductReviewService.class, RatingSummaryService.class})
+@TestPropertySource(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class ProductReviewFeedQueryTest extends PostgresTest {
+
+    private static final int REVIEWS = 30;
+
+    @Autowired
+    private ProductReviewService service;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private int productId;
+
+    @BeforeEach
+    void reviews() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        productId = jdbcTemplate.queryForObject("INSERT INTO tblproduct (product_name, product_price, quantity, "
+                + "quantity_sold) VALUES ('p', 1, 1, 0) RETURNING productid", Integer.class);
+        for (int i = 0; i < REVIEWS; i++) {
+            Long userId = jdbcTemplate.queryForObject("INSERT INTO users (username, password, email) "
+                    + "VALUES (?, 'x', ?) RETURNING user_id", Long.class, "reviewer" + i, "reviewer" + i + "@test");
+            jdbcTemplate.update("INSERT INTO address (user_id, region, province, city, barangay, postal_code) "
+                    + "VALUES (?, 'r', 'p', 'c', 'b', '6000')", userId);
+            jdbcTemplate.update("INSERT INTO cart (user_id) VALUES (?)", userId);
+            jdbcTemplate.update("INSERT INTO reviews (ratings, comment, productid, userid, orderid) "
+                    + "VALUES (?, 'ok', ?, ?, ?)", 1 + i % 5, productId, userId, i);
+        }
+    }
+
+    @ParameterizedTest
+    @CsvSource({"newest, 2", "newest, 7", "newest, 25", "rating, 2", "rating, 7", "rating, 25"})
+    void everyFeedPageIsOneStatement(String sort, int size) {
+        Set<Integer> seen = new HashSet<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            statistics.clear();
+            CursorPage<ReviewView> page = service.getReviewFeed(productId, sort, cursor, size);
+            assertEquals(1, statistics.getPrepareStatementCount(), "statements for page " + pages);
+            page.items().forEach(review -> assertTrue(seen.add(review.reviewID())));
+            cursor = page.nextCursor();
+            pages++;
+        } while (cursor != null);
+
+        assertEquals(REVIEWS, seen.size());
+        assertEquals((REVIEWS + size - 1) / size, pages);
+    }
+
+    @Test
+    void reviewsWithTheirUsersAreOneStatement() {
+        statistics.clear();
+
+        service.getReviewsByProductId(productId).forEach(review -> review.getUsername());
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.pawtopia.pawtopia.ecommerce.Service;
+
+import com.example.pawtopia.pawtopia.ecommerce.PostgresTest;
+import com.example.pawtopia.pawtopia.ecommerce.DTO.RatingSummary;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// The delta upsert behind the rating summaries, against PostgreSQL (each test rolls back).
+// Every test reads the summary once: the upsert bypasses the persistence context.
+@Import(RatingSummaryService.class)
+class RatingSummaryServiceTest extends PostgresTest {
+
+    @Autowired
+    private RatingSummaryService service;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private int productId;
+
+    @BeforeEach
+    void product() {
+        productId = insertProduct();
+    }
+
+    private int insertProduct() {
+        return jdbcTemplate.queryForObject("INSERT INTO tblproduct (product_name, product_price, quantity, "
+                + "quantity_sold) VALUES ('p', 1, 1, 0) RETURNING productid", Integer.class);
+    }
+
+    @Test
+    void addedReviewsFillTheHistogram() {
+        service.reviewAdded(productId, 5);
+        service.reviewAdded(productId, 4);
+        service.reviewAdded(productId, 4);
+
+        assertEquals(new RatingSummary(3, 4.33, List.of(0L, 0L, 0L, 2L, 1L)), service.getSummary(productId));
+    }
+
+    @Test
+    void editedRatingMovesToItsNewStar() {
+        service.reviewAdded(productId, 5);
+        service.reviewAdded(productId, 3);
+
+        service.ratingChanged(productId, 5, 1);
+        service.ratingChanged(productId, 3, 3);
+
+        assertEquals(new RatingSummary(2, 2.0, List.of(1L, 0L, 1L, 0L, 0L)), service.getSummary(productId));
+    }
+
+    @Test
+    void removedReviewIsTakenOut() {
+        service.reviewAdded(productId, 2);
+        service.reviewAdded(productId, 4);
+
+        service.reviewRemoved(productId, 2);
+
+        assertEquals(new RatingSummary(1, 4.0, List.of(0L, 0L, 0L, 1L, 0L)), service.getSummary(productId));
+    }
+
+    @Test
+    void deletingTheLastReviewLeavesAnEmptySummary() {
+        service.reviewAdded(productId, 3);
+
+        service.reviewRemoved(productId, 3);
+
+        assertEquals(RatingSummary.EMPTY, service.getSummary(productId));
+        assertEquals(Map.of("review_count", 0L, "rating_sum", 0L, "star3", 0L), jdbcTemplate.queryForMap(
+                "SELECT review_count, rating_sum, star3 FROM product_rating_summary WHERE product_id = ?", productId));
+    }
+
+    @Test
+    void summariesOfAPageSkipUnreviewedProducts() {
+        int unreviewed = insertProduct();
+        service.reviewAdded(productId, 5);
+
+        Map<Integer, RatingSummary> summaries = service.getSummaries(List.of(productId, unreviewed));
+
+        assertEquals(Map.of(productId, new RatingSummary(1, 5.0, List.of(0L, 0L, 0L, 0L, 1L))), summaries);
+    }
+}
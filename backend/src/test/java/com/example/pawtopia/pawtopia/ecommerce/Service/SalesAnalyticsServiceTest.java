@@ -0,0 +1,47 @@
+package com.example.pawtopia.pawtopia.ecommerce.Service;
+
+import com.example.pawtopia.pawtopia.ecommerce.Entity.Order;
+import com.example.pawtopia.pawtopia.ecommerce.Entity.OrderStatus;
+import com.example.pawtopia.pawtopia.ecommerce.Repository.ProductSalesDailyRepo;
+import com.example.pawtopia.pawtopia.ecommerce.Repository.SalesDailyRepo;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+
+class SalesAnalyticsServiceTest {
+
+    private final SalesDailyRepo salesDailyRepo = mock(SalesDailyRepo.class);
+    private final ProductSalesDailyRepo productSalesDailyRepo = mock(ProductSalesDailyRepo.class);
+    private final SalesAnalyticsService service =
+            new SalesAnalyticsService(salesDailyRepo, productSalesDailyRepo, "Asia/Manila");
+
+    @Test
+    void orderIsBookedOnItsLocalPlacementDay() {
+        Order order = new Order();
+        order.setOrderID(7);
+        order.setOrderStatus(OrderStatus.APPROVED);
+        order.setTotalPrice(10.005);
+        // 17:30 UTC is already the next day in Manila
+        order.setPlacedAt(Instant.parse("2025-03-01T17:30:00Z"));
+
+        service.orderAdded(order);
+        service.orderRemoved(order);
+
+        LocalDate day = LocalDate.of(2025, 3, 2);
+        InOrder inOrder = inOrder(salesDailyRepo, productSalesDailyRepo);
+        inOrder.verify(salesDailyRepo).lockDay(anyInt(), eq((int) day.toEpochDay()));
+        inOrder.verify(salesDailyRepo).applyDelta(day, "APPROVED", 7, new BigDecimal("10.01"), 1);
+        inOrder.verify(productSalesDailyRepo).applyDelta(day, "APPROVED", 7, 1);
+        inOrder.verify(salesDailyRepo).lockDay(anyInt(), eq((int) day.toEpochDay()));
+        inOrder.verify(salesDailyRepo).applyDelta(day, "APPROVED", 7, new BigDecimal("10.01"), -1);
+        inOrder.verify(productSalesDailyRepo).applyDelta(day, "APPROVED", 7, -1);
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.pawtopia.pawtopia.ecommerce.Service;
+
+import com.example.pawtopia.pawtopia.ecommerce.Entity.User;
+import com.example.pawtopia.pawtopia.ecommerce.Repository.UserRepo;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Date;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class UserServiceTest {
+
+    private final UserRepo userRepo = mock(UserRepo.class);
+    private final TokenRevocationService tokenRevocationService = new TokenRevocationService(true, 100);
+    private final UserService service = new UserService(userRepo, mock(PasswordEncoder.class));
+
+    // a token anna got a minute ago
+    private final Claims token = Jwts.claims().setSubject("anna")
+            .setIssuedAt(new Date(System.currentTimeMillis() - 60_000));
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(service, "tokenRevocationService", tokenRevocationService);
+        ReflectionTestUtils.setField(service, "userDetailsCache", new UserDetailsCache(true, 10, 60));
+        User anna = new User();
+        anna.setUserId(7L);
+        anna.setUsername("anna");
+        anna.setRole("CUSTOMER");
+        when(userRepo.findById(7L)).thenReturn(Optional.of(anna));
+        when(userRepo.findByUsername(anyString())).thenReturn(Optional.empty());
+        when(userRepo.findByEmail(anyString())).thenReturn(Optional.empty());
+    }
+
+    @Test
+    void profileEditKeepsTheTokenValid() {
+        User changes = new User();
+        changes.setUsername("anna");
+        changes.setFirstName("Anna");
+        changes.setEmail("anna@new.test");
+
+        assertEquals("User updated successfully!", service.updateUser(7L, changes));
+        assertFalse(tokenRevocationService.isRevoked(token));
+    }
+
+    @Test
+    void newPasswordRevokesTheToken() {
+        User changes = new User();
+        changes.setPassword("new secret");
+
+        service.updateUser(7L, changes);
+
+        assertTrue(tokenRevocationService.isRevoked(token));
+    }
+
+    @Test
+    void newUsernameRevokesTheToken() {
+        User changes = new User();
+        changes.setUsername("anna2");
+
+        service.updateUser(7L, changes);
+
+        assertTrue(tokenRevocationService.isRevoked(token));
+    }
+
+    @Test
+    void newRoleRevokesTheToken() {
+        User changes = new User();
+        changes.setRole("ADMIN");
+
+        service.updateUser(7L, changes);
+
+        assertTrue(tokenRevocationService.isRevoked(token));
+    }
+}
@@ -202,7 +202,7 @@ class CheckoutActivity : AppCompatActivity() {
             orderDate = "",
             paymentMethod = selectedPaymentMethod,
             paymentStatus = "PENDING",
-            orderStatus = "To Receive",
+            orderStatus = "PENDING",
             totalPrice = totalPrice,
             orderItems = orderItems,
             user = User(
@@ -55,7 +55,7 @@ class OrderRepository(private val sessionManager: SessionManager) {
                 put("orderDate", SimpleDateFormat("yyyy-MM-dd").format(Date()))
                 put("paymentMethod", order.paymentMethod)
                 put("paymentStatus", "PENDING")  // Matches frontend capitalization
-                put("orderStatus", "To Receive") // Matches frontend status
+                put("orderStatus", "PENDING") // The server starts every order as PENDING
                 put("totalPrice", order.totalPrice)
                 put("orderItems", orderItemsJson)
                 put("user", userJson) // Simplified user object
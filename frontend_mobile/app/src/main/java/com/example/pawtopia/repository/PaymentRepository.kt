@@ -28,7 +28,7 @@ class PaymentRepository(private val sessionManager: SessionManager) {
     suspend fun createPaymentLink(order: Order): Result<PaymentLink> {
         return try {
             val jsonObject = JSONObject().apply {
-                put("totalPrice", order.totalPrice)
+                put("orderID", order.orderID)
                 put("description", "A Great Way to Spend Money to your Pets!")
                 put("remarks", "Shop Again!")
             }
@@ -7,7 +7,6 @@ import { Button } from "../components/ui/Button";
 import { toast } from 'sonner';
 const API_BASE_URL = import.meta.env.VITE_API_BASE_URL_USER; 
 const API_BASE_URL_ADDRESS = import.meta.env.VITE_API_BASE_URL_ADDRESS;
-const API_BASE_URL_USER_CART_ITEM = import.meta.env.VITE_API_BASE_URL_CART_ITEM;
 const API_BASE_URL_PAYMENT = import.meta.env.VITE_API_BASE_URL_PAYMENT;
 const API_BASE_URL_ORDER = import.meta.env.VITE_API_BASE_URL_ORDER;
 
@@ -122,36 +121,14 @@ const CheckoutPage = () => {
         return;
     }
 
-    // Prepare order data
-    const orderItems = selectedItems.map((item) => ({
-        orderItemName: item.product.productName,
-        orderItemImage: item.product.productImage || "/placeholder.svg?height=100&width=100",
-        price: item.product.productPrice,
-        quantity: item.quantity,
-        productId: item.product.productID.toString(),
-    }));
-
-    const orderDate = new Date().toLocaleDateString("en-US", { 
-        month: "long", 
-        day: "numeric", 
-        year: "numeric" 
-    });
-
-    const orderData = {
-        orderItems,
-        orderDate,
-        orderStatus: "PENDING", // Set explicitly to PENDING
-        paymentMethod: paymentMethod,
-        paymentStatus: "PENDING",
-        totalPrice: orderSummary.total,
-        user: { userId, username },
-    };
-
     try {
-        // Step 1: Create the order
+        // Step 1: Place the order; the server builds it from the cart items and removes them from the cart
         const response = await axios.post(
-            `${API_BASE_URL_ORDER}/postOrderRecord`,
-            orderData,
+            `${API_BASE_URL_ORDER}/checkout`,
+            {
+                paymentMethod: paymentMethod,
+                cartItemIds: selectedItems.map((item) => item.cartItemId),
+            },
             { headers: { Authorization: `Bearer ${token}` } }
         );
 
@@ -163,25 +140,10 @@ const CheckoutPage = () => {
 
         const orderId = response.data.orderID || response.data.id; // Extract orderId from response
 
-        // Step 2: Remove items from cart
-        try {
-            await Promise.all(
-                selectedItems.map((item) =>
-                    axios.delete(`${API_BASE_URL_USER_CART_ITEM}/deleteCartItem/${item.cartItemId}`, {
-                        headers: { Authorization: `Bearer ${token}` },
-                    })
-                )
-            );
-            console.log("Cart items removed successfully");
-        } catch (cartError) {
-            console.error("Error removing cart items:", cartError);
-            // Continue despite cart cleanup error since order was created
-        }
-
         toast.success("Order successfully placed!");
         clearState();
 
-        // Step 3: Handle payment based on method
+        // Step 2: Handle payment based on method
         if (paymentMethod === "GCash") {
             try {
                 console.log("Creating payment link for order:", orderId);
@@ -189,7 +151,7 @@ const CheckoutPage = () => {
                 const paymentResponse = await axios.post(
                   `${API_BASE_URL_PAYMENT}/create-payment`,
                   {
-                    totalPrice: orderSummary.total,
+                    orderID: orderId,
                     description: "A Great Way to Spend Money to your Pets!",
                     remarks: "Shop Again!"
                   },